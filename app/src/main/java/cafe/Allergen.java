@@ -0,0 +1,24 @@
+package cafe;
+
+// The major food allergens, one bit each
+enum Allergen {
+    MILK("milk", "dairy", "cheese", "cream", "butter", "lactose", "yogurt", "whey"),
+    EGG("egg", "eggs", "mayo", "mayonnaise"),
+    FISH("fish", "salmon", "tuna", "cod", "anchovy"),
+    SHELLFISH("shellfish", "shrimp", "prawn", "prawns", "crab", "lobster"),
+    TREE_NUT("nut", "nuts", "almond", "almonds", "walnut", "walnuts", "pecan", "cashew", "hazelnut", "pistachio"),
+    PEANUT("peanut", "peanuts"),
+    WHEAT("wheat", "gluten", "bun", "bread", "flour", "wrap", "tortilla"),
+    SOY("soy", "soya", "tofu"),
+    SESAME("sesame", "tahini");
+
+    final String[] keywords;
+
+    Allergen(String... keywords) {
+        this.keywords = keywords;
+    }
+
+    int bit() {
+        return 1 << ordinal();
+    }
+}
@@ -0,0 +1,29 @@
+package cafe;
+
+class BackfillProposal {
+    private final VacatedShift slot;
+    private final StaffMember candidate;
+    private final boolean crossRole;
+    private final int shiftsThatWeek;
+
+    BackfillProposal(VacatedShift slot, StaffMember candidate, boolean crossRole, int shiftsThatWeek) {
+        this.slot = slot;
+        this.candidate = candidate;
+        this.crossRole = crossRole;
+        this.shiftsThatWeek = shiftsThatWeek;
+    }
+
+    public VacatedShift getSlot() { return slot; }
+    public StaffMember getCandidate() { return candidate; }
+    public boolean isCrossRole() { return crossRole; }
+
+    @Override
+    public String toString() {
+        String shift = slot.getDate() + " " + slot.getShiftType() + " (" + StaffDirectory.role(slot.getRoleId()) + ")";
+        if (candidate == null) {
+            return shift + ": nobody available";
+        }
+        return shift + ": " + candidate + ", " + shiftsThatWeek + " shift(s) that week"
+                + (crossRole ? ", outside their role" : "");
+    }
+}
@@ -0,0 +1,77 @@
+package cafe;
+
+import java.time.*;
+import java.util.*;
+
+// The persistent archive with an off-heap copy, in front of it, of the orders archived by this
+// run. Every batch goes to both, so nothing is lost on restart. Orders archived since startup
+// are read back through the off-heap records (the history roll uses the flyweights directly)
+// instead of decompressing segments; orders from earlier runs still come from disk.
+// Orders archived by this run were placed during it, so days before startup are disk only.
+class CachedOrderArchive implements ClosedOrderStore, AutoCloseable {
+    private final OrderArchive archive;
+    private final OffHeapOrderStore cache;
+    private final int firstCachedId; // ids below this were archived by an earlier run
+    private final LocalDate startDay;
+
+    CachedOrderArchive(OrderArchive archive, OffHeapOrderStore cache, ZoneId zone) {
+        this.archive = archive;
+        this.cache = cache;
+        this.firstCachedId = archive.getMaxOrderId() + 1;
+        this.startDay = LocalDate.now(zone);
+    }
+
+    @Override
+    public void archive(List<Order> batch) {
+        archive.archive(batch);
+        cache.archive(batch);
+    }
+
+    @Override
+    public Order find(int orderId) {
+        return orderId >= firstCachedId ? cache.find(orderId) : archive.find(orderId);
+    }
+
+    @Override
+    public List<Order> ordersOn(LocalDate day) {
+        List<Order> found = new ArrayList<>();
+        if (!day.isAfter(startDay)) {
+            for (Order order : archive.ordersOn(day)) {
+                if (order.getOrderId() < firstCachedId) found.add(order);
+            }
+        }
+        found.addAll(cache.ordersOn(day));
+        return found;
+    }
+
+    @Override
+    public void addOrdersOn(LocalDate day, DaySegment.Builder segment) {
+        if (!day.isAfter(startDay)) {
+            for (Order order : archive.ordersOn(day)) {
+                if (order.getOrderId() < firstCachedId) segment.add(order);
+            }
+        }
+        cache.addOrdersOn(day, segment);
+    }
+
+    @Override
+    public long[] getDailyTotals(LocalDate day) {
+        return archive.getDailyTotals(day);
+    }
+
+    @Override
+    public int getArchivedCount() {
+        return archive.getArchivedCount();
+    }
+
+    @Override
+    public int getMaxOrderId() {
+        return archive.getMaxOrderId();
+    }
+
+    // Frees the off-heap copy; the archive on disk is unaffected
+    @Override
+    public void close() {
+        cache.close();
+    }
+}
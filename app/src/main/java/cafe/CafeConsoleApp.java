@@ -0,0 +1,328 @@
+package cafe;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+// Menu and roster come from the startup image (-Dcafe.image, default cafe.image) in one read, and
+// each subsystem is only built when first used, so the till can take an order right after boot.
+//
+// Class data sharing: to also skip class loading and verification of the application classes,
+// record an AppCDS archive once per build with a training run and start from it afterwards:
+//   java -XX:ArchiveClassesAtExit=cafe.jsa -jar app/target/cafe-app.jar --cds-training
+//   java -XX:SharedArchiveFile=cafe.jsa -jar app/target/cafe-app.jar
+// The archive must be recreated whenever the classes or the JDK change.
+public class CafeConsoleApp {
+
+    private static Scanner scanner = new Scanner(System.in);
+
+    private static final Path IMAGE_PATH = Paths.get(System.getProperty("cafe.image", "cafe.image"));
+    private static CafeStartupImage startupImage;
+    // volatile: the metrics gauges also read them from JMX threads
+    private static volatile MenuManagement menuManagement;
+    private static volatile OrderManagement orderManagement;
+    private static StaffSchedulingSystem staffSchedulingSystem;
+    private static OrderStatusFeed statusFeed;
+    private static boolean sharedServicesOpen;
+    private static OrderHistoryStore orderHistory;
+
+    public static void main(String[] args) {
+        if (Arrays.asList(args).contains("--cds-training")) {
+            runCdsTraining();
+            return;
+        }
+        registerMetrics();
+        startHttpServer();
+        while (true) {
+            System.out.println("\n=== Welcome to McDonald's Café Console Application ===");
+            System.out.println("1. Menu Management");
+            System.out.println("2. Order Management");
+            System.out.println("3. Staff Scheduling");
+            System.out.println("4. Stats");
+            System.out.println("0. Exit");
+            System.out.print("Choose an option: ");
+
+            String choice = scanner.nextLine();
+
+            switch (choice) {
+                case "1":
+                    menuManagement().runMenuManagement();
+                    break;
+                case "2":
+                    orderManagement().runOrderManagement();
+                    break;
+                case "3":
+                    staffScheduling().runStaffScheduling();
+                    break;
+                case "4":
+                    System.out.println(CafeMetrics.renderStats());
+                    break;
+                case "0":
+                    saveStartupImage();
+                    System.out.println("Exiting application. Goodbye!");
+                    scanner.close();
+                    System.exit(0);
+                    break;
+                default:
+                    System.out.println("Invalid choice. Please try again.");
+            }
+        }
+    }
+
+    // === LAZY SUBSYSTEMS ===
+
+    private static synchronized CafeStartupImage startupImage() {
+        if (startupImage == null) {
+            try {
+                startupImage = CafeStartupImage.load(IMAGE_PATH);
+            } catch (IOException e) {
+                System.out.println("Startup image unreadable, starting empty: " + e.getMessage());
+                startupImage = new CafeStartupImage(new ArrayList<>(), new ArrayList<>());
+            }
+        }
+        return startupImage;
+    }
+
+    private static synchronized MenuManagement menuManagement() {
+        if (menuManagement == null) {
+            menuManagement = new MenuManagement(new MenuController(startupImage().getMenuItems()));
+        }
+        return menuManagement;
+    }
+
+    // Orders need the menu and the shared services; archive, promotions and terminals are wired on first use
+    private static synchronized OrderManagement orderManagement() {
+        if (orderManagement == null) {
+            openSharedServices();
+            orderManagement = new OrderManagement(menuManagement().getController());
+            if (orderHistory != null) orderManagement.getController().setHistoryStore(orderHistory);
+            openOrderArchive();
+            loadPromotions();
+            subscribeTerminals();
+        }
+        return orderManagement;
+    }
+
+    private static synchronized StaffSchedulingSystem staffScheduling() {
+        if (staffSchedulingSystem == null) {
+            openSharedServices();
+            openRosterStore();
+            staffSchedulingSystem = new StaffSchedulingSystem();
+        }
+        return staffSchedulingSystem;
+    }
+
+    // Order history, the demand forecaster and the end-of-day job serve both the till and staff
+    // scheduling (forecasts, payroll revenue), so whichever of the two is opened first starts them
+    private static synchronized void openSharedServices() {
+        if (sharedServicesOpen) return;
+        sharedServicesOpen = true;
+        openOrderHistory();
+        scheduleEndOfDay();
+    }
+
+    // The till as opened so far, or null; read by the end-of-day job without opening it
+    private static synchronized OrderManagement openedOrderManagement() {
+        return orderManagement;
+    }
+
+    // The roster file is the source of truth once it exists; the first run migrates the image's roster
+    private static void openRosterStore() {
+        RosterStore store = new RosterStore(Paths.get(System.getProperty("cafe.roster", "roster.log")));
+        try {
+            if (store.exists()) {
+                store.load();
+                StaffSchedulingSystem.loadRoster(store.getStaff());
+                StaffSchedulingSystem.loadTimeOffRequests(store.getTimeOffRequests());
+            } else {
+                StaffSchedulingSystem.loadRoster(startupImage().getStaff());
+                for (StaffMember member : StaffSchedulingSystem.getStaffList()) store.add(member);
+                store.save();
+            }
+            StaffSchedulingSystem.setRosterStore(store);
+        } catch (IOException e) {
+            System.out.println("Roster file unavailable, changes will not be saved: " + e.getMessage());
+            StaffSchedulingSystem.loadRoster(startupImage().getStaff());
+        }
+    }
+
+    // Keeps the parts of the image this session never loaded
+    // Copies the menu and roster under their locks; terminals and the HTTP server may still be editing them
+    private static synchronized void saveStartupImage() {
+        if (menuManagement == null && staffSchedulingSystem == null) return;
+        List<MenuItem> menu = menuManagement != null
+                ? copyMenu(menuManagement.getController()) : startupImage().getMenuItems();
+        List<StaffMember> roster = staffSchedulingSystem != null
+                ? StaffSchedulingSystem.copyStaffList() : startupImage().getStaff();
+        try {
+            new CafeStartupImage(menu, roster).write(IMAGE_PATH);
+        } catch (IOException e) {
+            System.out.println("Could not save startup image: " + e.getMessage());
+        }
+    }
+
+    private static List<MenuItem> copyMenu(MenuController controller) {
+        synchronized (controller) {
+            List<MenuItem> items = new ArrayList<>();
+            for (MenuItem item : controller.getMenuItems()) {
+                items.add(new MenuItem(item));
+            }
+            return items;
+        }
+    }
+
+    // Exercises the startup path and an order so -XX:ArchiveClassesAtExit captures the classes they load
+    private static void runCdsTraining() {
+        MenuController menu = menuManagement().getController();
+        OrderController orders = orderManagement().getController();
+        staffScheduling();
+        if (!menu.getMenuItems().isEmpty()) {
+            Map<String, Integer> basket = new LinkedHashMap<>();
+            basket.put(menu.getMenuItems().get(0).getName(), 1);
+            Order order = orders.placeOrder(basket);
+            if (order != null) orders.cancelOrder(order.getOrderId());
+        }
+        System.out.println("CDS training run complete.");
+    }
+
+    // Kiosk/order-screen API, enabled with -Dcafe.http.port=<port>
+    private static void startHttpServer() {
+        String port = System.getProperty("cafe.http.port");
+        if (port == null) return;
+        staffScheduling();
+        try {
+            CafeHttpServer server = new CafeHttpServer(menuManagement().getController(), orderManagement().getController());
+            server.setStatusFeed(statusFeed);
+            server.start(Integer.parseInt(port));
+            System.out.println("Kiosk API listening on http://localhost:" + server.getPort());
+        } catch (IOException | NumberFormatException e) {
+            System.out.println("Could not start kiosk API: " + e.getMessage());
+        }
+    }
+
+    // The forecaster is seeded from history in the background so it doesn't hold up the first order.
+    // Orders per staff hour by role come from -Dcafe.forecast.capacities (default Barista:15,Cashier:25,Kitchen:20).
+    private static void openOrderHistory() {
+        Map<String, Double> capacities;
+        try {
+            capacities = DemandForecaster.parseCapacities(
+                    System.getProperty("cafe.forecast.capacities", DemandForecaster.DEFAULT_CAPACITIES));
+        } catch (IllegalArgumentException e) {
+            System.out.println("Invalid cafe.forecast.capacities, using the defaults: " + e.getMessage());
+            capacities = DemandForecaster.parseCapacities(DemandForecaster.DEFAULT_CAPACITIES);
+        }
+        DemandForecaster forecaster = new DemandForecaster(ZoneId.systemDefault(), 0.3, capacities);
+        try {
+            orderHistory = new OrderHistoryStore(Paths.get("history"));
+            StaffSchedulingSystem.setOrderHistory(orderHistory);
+            forecaster.seedInBackground(orderHistory);
+        } catch (IOException e) {
+            System.out.println("Order history unavailable: " + e.getMessage());
+        }
+        CafeEventBus.shared().subscribe("demand-forecaster", forecaster);
+        StaffSchedulingSystem.setDemandForecaster(forecaster);
+    }
+
+    // Every day at -Dcafe.archive.closeTime (default 23:00) the till's orders are rolled into history
+    // and archived. Nothing is rolled on a day the till was never opened.
+    private static void scheduleEndOfDay() {
+        LocalTime closeTime = LocalTime.parse(System.getProperty("cafe.archive.closeTime", "23:00"));
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "end-of-day");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ZonedDateTime now = ZonedDateTime.now();
+        LocalDate firstDay = now.toLocalTime().isBefore(closeTime) ? now.toLocalDate() : now.toLocalDate().plusDays(1);
+        scheduleClose(scheduler, closeTime, firstDay);
+    }
+
+    // One run per day, each scheduling the next from the wall clock, so the close keeps its local
+    // time across daylight saving changes (a fixed 24-hour period would drift by an hour)
+    private static void scheduleClose(ScheduledExecutorService scheduler, LocalTime closeTime, LocalDate day) {
+        ZonedDateTime close = day.atTime(closeTime).atZone(ZoneId.systemDefault());
+        long delay = Math.max(0, Duration.between(ZonedDateTime.now(), close).toMillis());
+        scheduler.schedule(() -> {
+            try {
+                OrderManagement orders = openedOrderManagement();
+                if (orders != null) orders.getController().endOfDay(day);
+            } catch (IOException | RuntimeException e) {
+                System.out.println("End-of-day archival failed: " + e.getMessage());
+            } finally {
+                scheduleClose(scheduler, closeTime, day.plusDays(1));
+            }
+        }, delay, TimeUnit.MILLISECONDS);
+    }
+
+    // Closed orders go to archive/ once more than -Dcafe.archive.maxClosedOrders (default 10000) are
+    // on heap, and at the end of each day (see scheduleEndOfDay).
+    // With -Dcafe.orders.offHeap=true the orders archived by this run are also kept off heap, so
+    // reading them back doesn't decompress segments (see CachedOrderArchive).
+    private static void openOrderArchive() {
+        OrderController orderController = orderManagement.getController();
+        MenuController menuController = menuManagement().getController();
+        int maxClosedOrders = Integer.getInteger("cafe.archive.maxClosedOrders", 10_000);
+        try {
+            ZoneId zone = ZoneId.systemDefault();
+            OrderArchive onDisk = new OrderArchive(Paths.get("archive"), menuController::findMenuItemByName, zone);
+            ClosedOrderStore archive = Boolean.getBoolean("cafe.orders.offHeap")
+                    ? new CachedOrderArchive(onDisk, new OffHeapOrderStore(menuController::findMenuItemByName, zone), zone)
+                    : onDisk;
+            orderController.setArchive(archive, maxClosedOrders);
+        } catch (IOException e) {
+            System.out.println("Order archive unavailable: " + e.getMessage());
+        }
+    }
+
+    // Promotions are read from promotions.txt in the working directory when present
+    private static void loadPromotions() {
+        PricingEngine pricing = new PricingEngine(menuManagement().getController());
+        try {
+            if (new File("promotions.txt").exists()) {
+                pricing.setPromotions(PricingEngine.loadPromotions("promotions.txt"));
+            }
+        } catch (IOException | RuntimeException e) {
+            System.out.println("Could not load promotions: " + e.getMessage());
+        }
+        CafeEventBus.shared().subscribe("pricing-engine", pricing);
+        orderManagement.getController().setPricingEngine(pricing);
+    }
+
+    private static void subscribeTerminals() {
+        OutOfStockBoard board = new OutOfStockBoard(menuManagement().getController());
+        CafeEventBus.shared().subscribe("out-of-stock-board", board);
+        orderManagement.getController().setOutOfStockBoard(board);
+        statusFeed = new OrderStatusFeed(orderManagement.getController());
+        CafeEventBus.shared().subscribe("order-status-feed", statusFeed);
+    }
+
+    // Gauges read 0 until their subsystem has been loaded. Starting the flight recording and JMX
+    // takes the best part of a second, so it happens in the background; events before the
+    // recording starts are not recorded.
+    private static void registerMetrics() {
+        Thread monitoring = new Thread(() -> {
+            CafeFlightRecorder.startAlwaysOn();
+            CafeMetrics.registerJmx();
+            CafeFlightRecorder.preloadEvents();
+        }, "monitoring-start");
+        monitoring.setDaemon(true);
+        CafeMetrics.registerGauge("menu.size", () -> {
+            MenuManagement menu = menuManagement;
+            if (menu == null) return 0;
+            MenuController controller = menu.getController();
+            synchronized (controller) {
+                return controller.getMenuItems().size();
+            }
+        });
+        CafeMetrics.registerGauge("orders.open", () -> {
+            OrderManagement orders = orderManagement;
+            return orders == null ? 0 : orders.getController().getOpenOrderCount();
+        });
+        CafeMetrics.registerGauge("staff.pendingTimeOff", StaffSchedulingSystem::countPendingTimeOffRequests);
+        monitoring.start();
+    }
+}
@@ -0,0 +1,74 @@
+package cafe;
+
+import java.time.LocalDate;
+
+// One ring slot, or a subscriber's copy of one. Fields that don't apply to the event type are left at their reset values.
+class CafeEvent {
+    CafeEventType type;
+    long timestamp;
+    // menu and order line fields
+    String itemName;
+    boolean available;
+    double price;
+    int quantity;
+    // order fields
+    int orderId;
+    OrderStatus status;
+    int itemCount;
+    double total;
+    // shift fields
+    String staffName;
+    String role;
+    LocalDate date;
+    String shiftType;
+
+    void reset(CafeEventType type) {
+        this.type = type;
+        this.timestamp = System.currentTimeMillis();
+        itemName = null;
+        available = false;
+        price = 0;
+        quantity = 0;
+        orderId = 0;
+        status = null;
+        itemCount = 0;
+        total = 0;
+        staffName = null;
+        role = null;
+        date = null;
+        shiftType = null;
+    }
+
+    // Snapshot of a ring slot, taken by a subscriber before handling it
+    void copyFrom(CafeEvent other) {
+        type = other.type;
+        timestamp = other.timestamp;
+        itemName = other.itemName;
+        available = other.available;
+        price = other.price;
+        quantity = other.quantity;
+        orderId = other.orderId;
+        status = other.status;
+        itemCount = other.itemCount;
+        total = other.total;
+        staffName = other.staffName;
+        role = other.role;
+        date = other.date;
+        shiftType = other.shiftType;
+    }
+
+    public CafeEventType getType() { return type; }
+    public long getTimestamp() { return timestamp; }
+    public String getItemName() { return itemName; }
+    public boolean isAvailable() { return available; }
+    public double getPrice() { return price; }
+    public int getQuantity() { return quantity; }
+    public int getOrderId() { return orderId; }
+    public OrderStatus getStatus() { return status; }
+    public int getItemCount() { return itemCount; }
+    public double getTotal() { return total; }
+    public String getStaffName() { return staffName; }
+    public String getRole() { return role; }
+    public LocalDate getDate() { return date; }
+    public String getShiftType() { return shiftType; }
+}
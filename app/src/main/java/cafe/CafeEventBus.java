@@ -0,0 +1,182 @@
+package cafe;
+
+import java.lang.invoke.VarHandle;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+import java.util.concurrent.locks.LockSupport;
+
+// In-process event bus for menu changes, order transitions and shift changes, built on a
+// pre-allocated ring of reusable CafeEvent slots (Disruptor style).
+// Publishing claims a sequence, fills the slot in place and marks it published: no locks, no
+// allocation and no waiting. Controllers publish while holding their own locks, so the publisher
+// never waits for subscribers: one that falls a whole ring behind is lapped, skips to the oldest
+// event still in the ring and is told how many it missed (CafeEventHandler.onDropped). Each
+// subscriber runs on its own daemon thread and copies a slot before handling it, re-checking
+// the slot's sequence afterwards so a copy torn by the publisher reusing the slot is discarded.
+// Publishers may be several threads (console, kiosk API, terminals), so sequences are claimed
+// with an atomic increment rather than the single-writer shortcut.
+public class CafeEventBus {
+    private static final CafeEventBus SHARED = new CafeEventBus(8192);
+    private static final long WRITING = -2; // published[] value while a slot is being refilled
+
+    private final int mask;
+    private final CafeEvent[] slots;
+    private final AtomicLongArray published;
+    private final AtomicLong cursor = new AtomicLong(-1);
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+
+    // The bus shared by the controllers of this process
+    public static CafeEventBus shared() {
+        return SHARED;
+    }
+
+    public CafeEventBus(int capacity) {
+        if (Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of two.");
+        }
+        mask = capacity - 1;
+        slots = new CafeEvent[capacity];
+        published = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            slots[i] = new CafeEvent();
+            published.set(i, -1);
+        }
+    }
+
+    // === PUBLISHING ===
+
+    public void publishMenuItem(CafeEventType type, MenuItem item) {
+        long sequence = claim();
+        CafeEvent event = slots[(int) sequence & mask];
+        event.reset(type);
+        event.itemName = item.getName();
+        event.available = item.isAvailable();
+        event.price = item.getPrice();
+        publish(sequence);
+    }
+
+    public void publishOrder(CafeEventType type, Order order, String itemName, int quantity) {
+        long sequence = claim();
+        CafeEvent event = slots[(int) sequence & mask];
+        event.reset(type);
+        event.orderId = order.getOrderId();
+        event.status = order.getStatus();
+        event.itemCount = order.getItems().size();
+        event.total = order.getTotalCost();
+        event.itemName = itemName;
+        event.quantity = quantity;
+        publish(sequence);
+    }
+
+    public void publishShift(CafeEventType type, Shift shift) {
+        long sequence = claim();
+        CafeEvent event = slots[(int) sequence & mask];
+        event.reset(type);
+        event.staffName = shift.getStaff().getName();
+        event.role = shift.getStaff().getRole();
+        event.date = shift.getDate();
+        event.shiftType = shift.getShiftType();
+        publish(sequence);
+    }
+
+    // Never waits; a slot still unread by a lagging subscriber is simply reused
+    private long claim() {
+        long sequence = cursor.incrementAndGet();
+        published.set((int) sequence & mask, WRITING);
+        VarHandle.storeStoreFence(); // the mark is seen before any of the new field values
+        return sequence;
+    }
+
+    private void publish(long sequence) {
+        published.lazySet((int) sequence & mask, sequence);
+    }
+
+    // === SUBSCRIBING ===
+
+    // Starts delivering events published from now on to the handler, on a dedicated thread.
+    // The event passed to the handler is reused and must not be kept after it returns.
+    public Subscription subscribe(String name, CafeEventHandler handler) {
+        Subscription subscription = new Subscription(name, handler, cursor.get());
+        subscriptions.add(subscription);
+        subscription.thread.start();
+        return subscription;
+    }
+
+    public long getCursor() {
+        return cursor.get();
+    }
+
+    public class Subscription implements AutoCloseable {
+        private final CafeEventHandler handler;
+        private final Thread thread;
+        private volatile long position;
+        private volatile long dropped;
+        private volatile boolean running = true;
+
+        Subscription(String name, CafeEventHandler handler, long start) {
+            this.handler = handler;
+            this.position = start;
+            this.thread = new Thread(this::run, "cafe-events-" + name);
+            this.thread.setDaemon(true);
+        }
+
+        public long getPosition() {
+            return position;
+        }
+
+        // Events this subscriber missed by being lapped
+        public long getDropped() {
+            return dropped;
+        }
+
+        private void run() {
+            CafeEvent event = new CafeEvent();
+            int idle = 0;
+            while (running) {
+                long next = position + 1;
+                long head = cursor.get();
+                if (head - next >= slots.length) {
+                    // Lapped: slots from next on have been claimed again; resume at the oldest intact one
+                    long resume = head - slots.length + 1;
+                    position = resume - 1;
+                    dropped += resume - next;
+                    try {
+                        handler.onDropped(resume - next);
+                    } catch (Throwable e) {
+                        failed(e);
+                    }
+                    continue;
+                }
+                int index = (int) next & mask;
+                if (published.get(index) != next) {
+                    // Spin briefly, then back off so an idle subscriber costs almost nothing
+                    if (++idle < 100) Thread.onSpinWait();
+                    else LockSupport.parkNanos(idle < 1000 ? 10_000 : 200_000);
+                    continue;
+                }
+                idle = 0;
+                event.copyFrom(slots[index]);
+                VarHandle.acquireFence(); // the copy is read before the sequence is checked again
+                if (published.get(index) != next) continue; // refilled while copying: the lap check catches up
+                try {
+                    handler.onEvent(event, next);
+                } catch (Throwable e) {
+                    failed(e); // the event is lost, never the subscriber's place in the ring or its thread
+                }
+                position = next;
+            }
+        }
+
+        private void failed(Throwable e) {
+            System.out.println("Event handler " + thread.getName() + " failed: " + e);
+        }
+
+        @Override
+        public void close() {
+            running = false;
+            subscriptions.remove(this);
+            LockSupport.unpark(thread);
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package cafe;
+
+interface CafeEventHandler {
+    void onEvent(CafeEvent event, long sequence);
+
+    // Called instead of onEvent for events this handler fell too far behind to see; state built
+    // from the stream should be refreshed from its source
+    default void onDropped(long count) {
+    }
+}
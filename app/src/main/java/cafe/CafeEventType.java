@@ -0,0 +1,7 @@
+package cafe;
+
+enum CafeEventType {
+    MENU_ITEM_ADDED, MENU_ITEM_UPDATED, MENU_ITEM_DELETED, MENU_AVAILABILITY_CHANGED,
+    ORDER_PLACED, ORDER_MODIFIED, ORDER_PAID, ORDER_CANCELED, ORDER_STATUS_CHANGED,
+    SHIFT_ASSIGNED, SHIFT_REMOVED
+}
@@ -0,0 +1,549 @@
+package cafe;
+
+import com.sun.net.httpserver.*;
+import java.io.*;
+import java.net.*;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.*;
+
+// Local HTTP/JSON front-end for kiosks and order screens (requires JDK 21 for virtual threads).
+// Each request runs on its own virtual thread, so thousands of idle or slow kiosk
+// connections cost no platform threads. The menu and single orders are served from the
+// controller's RenderCache; other responses are streamed from the models through JsonWriter.
+//
+//   GET  /menu                         all menu items
+//   GET  /menu/search?q=burger         items whose name or category contains the text
+//   GET  /menu/suggest?q=chiken&limit=5  closest items by name or category, typos allowed
+//   GET  /menu/delta?since=42          binary menu delta since a version (see MenuChangeLog)
+//   POST /orders?items=Burger:2,Fries:1  place an order (form body with items=... also accepted)
+//   GET  /orders?status=PLACED&olderThan=10&item=Burger&request=allergy&after=0&limit=50
+//                                      search orders (all criteria optional, minutes for olderThan)
+//   GET  /orders/{id}                  order details and status
+//   POST /orders/{id}/items?item=Burger&quantity=3   set an item's quantity (0 removes it)
+//   POST /orders/{id}/pay              process payment
+//   POST /orders/{id}/cancel           cancel the order
+//   POST /orders/{id}/status?status=READY  kitchen progress (IN_PROGRESS or READY)
+//   GET  /orders/watch?status=READY&since=0&timeout=25
+//                                      long-poll for status changes after a version (see OrderStatusFeed)
+//   GET  /roster[?date=yyyy-mm-dd]     staff with their shifts, optionally only those working that day
+public class CafeHttpServer {
+    private final MenuController menuController;
+    private final OrderController orderController;
+    private OrderStatusFeed statusFeed;
+    private HttpServer server;
+    private ExecutorService executor;
+
+    public CafeHttpServer(MenuController menuController, OrderController orderController) {
+        this.menuController = menuController;
+        this.orderController = orderController;
+    }
+
+    // Enables /orders/watch for pickup screens
+    public void setStatusFeed(OrderStatusFeed statusFeed) {
+        this.statusFeed = statusFeed;
+    }
+
+    // Binds to the loopback interface only; kiosks reach it through the store's local proxy
+    public void start(int port) throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 4096);
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        server.setExecutor(executor);
+        server.createContext("/menu", this::handleMenu);
+        server.createContext("/orders", this::handleOrders);
+        server.createContext("/roster", this::handleRoster);
+        server.start();
+    }
+
+    public void stop() {
+        if (server != null) {
+            server.stop(0);
+            executor.shutdown();
+        }
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    // === HANDLERS ===
+
+    private void handleMenu(HttpExchange exchange) throws IOException {
+        try {
+            String path = exchange.getRequestURI().getPath();
+            requireMethod(exchange, "GET");
+            if (path.equals("/menu/delta")) {
+                long since = Long.parseLong(queryParams(exchange).getOrDefault("since", "0"));
+                byte[] delta = menuController.menuDelta(since);
+                exchange.getResponseHeaders().set("Content-Type", "application/octet-stream");
+                exchange.sendResponseHeaders(200, delta.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(delta);
+                }
+                return;
+            }
+            if (path.equals("/menu") || path.equals("/menu/")) {
+                respond(exchange, 200, orderController.getRenderCache().menuJson(CafeHttpServer::renderMenu));
+                return;
+            }
+            Map<String, String> params = queryParams(exchange);
+            byte[] body;
+            synchronized (menuController) {
+                List<MenuItem> items;
+                if (path.equals("/menu/search")) {
+                    items = menuController.searchMenu(params.getOrDefault("q", ""));
+                } else if (path.equals("/menu/suggest")) {
+                    items = menuController.suggest(params.getOrDefault("q", ""),
+                            Integer.parseInt(params.getOrDefault("limit", "5")));
+                } else {
+                    throw new NoSuchElementException("Unknown path: " + path);
+                }
+                body = renderMenu(items);
+            }
+            respond(exchange, 200, body);
+        } catch (RuntimeException e) {
+            respondError(exchange, e);
+        }
+    }
+
+    private void handleOrders(HttpExchange exchange) throws IOException {
+        try {
+            String[] segments = exchange.getRequestURI().getPath().split("/");
+            Map<String, String> params = requestParams(exchange);
+            if (segments.length == 3 && segments[2].equals("watch")) {
+                requireMethod(exchange, "GET");
+                watchOrders(exchange, params);
+                return;
+            }
+            if (segments.length == 2 && exchange.getRequestMethod().equalsIgnoreCase("GET")) {
+                OrderQuery query = parseQuery(params);
+                byte[] body;
+                synchronized (orderController) {
+                    OrderPage page = orderController.searchOrders(query);
+                    body = render(json -> {
+                        json.beginObject();
+                        json.name("orders").beginArray();
+                        for (Order order : page.getOrders()) {
+                            writeOrder(json, order);
+                        }
+                        json.endArray();
+                        json.name("next").value(page.getNextCursor());
+                        json.endObject();
+                    });
+                }
+                respond(exchange, 200, body);
+                return;
+            }
+            if (segments.length == 2) {
+                requireMethod(exchange, "POST");
+                Map<String, Integer> items = parseItems(params.getOrDefault("items", ""));
+                byte[] body;
+                synchronized (orderController) {
+                    Order order = orderController.placeOrder(items);
+                    body = orderController.getRenderCache().orderJson(order, CafeHttpServer::renderOrder);
+                }
+                respond(exchange, 201, body);
+                return;
+            }
+            int orderId = Integer.parseInt(segments[2]);
+            String action = segments.length > 3 ? segments[3] : "";
+            boolean found;
+            switch (action) {
+                case "":
+                    requireMethod(exchange, "GET");
+                    found = true;
+                    break;
+                case "items":
+                    requireMethod(exchange, "POST");
+                    found = orderController.modifyOrder(orderId, required(params, "item"),
+                            Integer.parseInt(required(params, "quantity")));
+                    break;
+                case "pay":
+                    requireMethod(exchange, "POST");
+                    found = orderController.processPayment(orderId);
+                    break;
+                case "cancel":
+                    requireMethod(exchange, "POST");
+                    found = orderController.cancelOrder(orderId);
+                    break;
+                case "status":
+                    requireMethod(exchange, "POST");
+                    found = orderController.markOrderStatus(orderId,
+                            OrderStatus.valueOf(required(params, "status").trim().toUpperCase()));
+                    break;
+                default:
+                    throw new NoSuchElementException("Unknown order action: " + action);
+            }
+            byte[] body;
+            synchronized (orderController) {
+                Order order = orderController.findOrderById(orderId);
+                if (!found || order == null) {
+                    throw new NoSuchElementException("Order ID not found.");
+                }
+                body = orderController.getRenderCache().orderJson(order, CafeHttpServer::renderOrder);
+            }
+            respond(exchange, 200, body);
+        } catch (RuntimeException e) {
+            respondError(exchange, e);
+        }
+    }
+
+    // Blocks this request's virtual thread until a watched status changes or the timeout passes
+    private void watchOrders(HttpExchange exchange, Map<String, String> params) throws IOException {
+        if (statusFeed == null) {
+            throw new NoSuchElementException("Order status feed is not enabled.");
+        }
+        EnumSet<OrderStatus> statuses = EnumSet.noneOf(OrderStatus.class);
+        for (String status : params.getOrDefault("status", "READY").split(",")) {
+            statuses.add(OrderStatus.valueOf(status.trim().toUpperCase()));
+        }
+        long since = Long.parseLong(params.getOrDefault("since", "0"));
+        long timeoutSeconds = Math.min(60, Long.parseLong(params.getOrDefault("timeout", "25")));
+        StatusUpdate update;
+        try {
+            update = statusFeed.await(since, statuses, timeoutSeconds * 1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for status changes.");
+        }
+        respond(exchange, 200, json -> {
+            json.beginObject();
+            json.name("version").value(update.getVersion());
+            json.name("reset").value(update.isReset());
+            json.name("changes").beginArray();
+            for (StatusChange change : update.getChanges()) {
+                json.beginObject();
+                json.name("orderId").value(change.getOrderId());
+                json.name("status").value(change.getStatus().name());
+                json.endObject();
+            }
+            json.endArray();
+            json.endObject();
+        });
+    }
+
+    private void handleRoster(HttpExchange exchange) throws IOException {
+        try {
+            requireMethod(exchange, "GET");
+            String dateParam = queryParams(exchange).get("date");
+            LocalDate date = dateParam == null ? null : LocalDate.parse(dateParam);
+            List<StaffMember> staffList = StaffSchedulingSystem.copyStaffList();
+            respond(exchange, 200, json -> {
+                json.beginArray();
+                for (StaffMember staff : staffList) {
+                    synchronized (staff) {
+                        if (date == null || staff.getAssignedShifts().containsKey(date)) {
+                            writeStaff(json, staff);
+                        }
+                    }
+                }
+                json.endArray();
+            });
+        } catch (RuntimeException e) {
+            respondError(exchange, e);
+        }
+    }
+
+    // === ENCODING ===
+
+    static byte[] renderMenu(List<MenuItem> items) {
+        return render(json -> {
+            json.beginArray();
+            for (MenuItem item : items) {
+                writeMenuItem(json, item);
+            }
+            json.endArray();
+        });
+    }
+
+    static byte[] renderOrder(Order order) {
+        return render(json -> writeOrder(json, order));
+    }
+
+    private static byte[] render(JsonBody body) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (Writer out = new OutputStreamWriter(bytes, StandardCharsets.UTF_8)) {
+            body.write(new JsonWriter(out));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static void writeMenuItem(JsonWriter json, MenuItem item) throws IOException {
+        json.beginObject();
+        json.name("name").value(item.getName());
+        json.name("price").value(item.getPrice());
+        json.name("category").value(item.getCategory());
+        json.name("ingredients").value(item.getIngredients());
+        json.name("available").value(item.isAvailable());
+        json.endObject();
+    }
+
+    private static void writeOrder(JsonWriter json, Order order) throws IOException {
+        json.beginObject();
+        json.name("orderId").value(order.getOrderId());
+        json.name("status").value(order.getStatus().name());
+        json.name("orderTime").value(order.getOrderDate().getTime());
+        json.name("paid").value(order.isPaymentProcessed());
+        json.name("items").beginArray();
+        for (OrderItem item : order.getItems()) {
+            json.beginObject();
+            json.name("name").value(item.getItemName());
+            json.name("quantity").value(item.getQuantity());
+            json.name("price").value(item.getPrice());
+            json.name("modifiers").beginArray();
+            for (String modifier : item.getModifiers()) {
+                json.value(modifier);
+            }
+            json.endArray();
+            json.name("allergenConflicts").beginArray();
+            for (Allergen allergen : SpecialRequestParser.allergens(item.getAllergenConflicts())) {
+                json.value(allergen.name());
+            }
+            json.endArray();
+            json.endObject();
+        }
+        json.endArray();
+        json.name("specialRequests").beginArray();
+        for (String request : order.getSpecialRequests()) {
+            json.value(request);
+        }
+        json.endArray();
+        json.name("promotions").beginArray();
+        for (String promotion : order.getAppliedPromotions()) {
+            json.value(promotion);
+        }
+        json.endArray();
+        json.name("total").value(order.getTotalCost());
+        json.endObject();
+    }
+
+    private static void writeStaff(JsonWriter json, StaffMember staff) throws IOException {
+        json.beginObject();
+        json.name("name").value(staff.getName());
+        json.name("role").value(staff.getRole());
+        json.name("shifts").beginArray();
+        for (Shift shift : staff.getAssignedShifts().values()) {
+            json.beginObject();
+            json.name("date").value(shift.getDate().toString());
+            json.name("shiftType").value(shift.getShiftType());
+            json.endObject();
+        }
+        json.endArray();
+        json.endObject();
+    }
+
+    // === PLUMBING ===
+
+    interface JsonBody {
+        void write(JsonWriter json) throws IOException;
+    }
+
+    // Renders the whole body before the headers go out, so a failure mid-render still gets a
+    // clean error status instead of a truncated 200
+    private static void respond(HttpExchange exchange, int status, JsonBody body) throws IOException {
+        respond(exchange, status, render(body));
+    }
+
+    // Already-rendered body, sent with its length
+    private static void respond(HttpExchange exchange, int status, byte[] body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    // Maps controller exceptions to HTTP statuses: 404 missing, 409 invalid state, 400 bad input
+    private static void respondError(HttpExchange exchange, RuntimeException e) throws IOException {
+        int status;
+        if (e instanceof NoSuchElementException) status = 404;
+        else if (e instanceof UnsupportedOperationException) status = 405;
+        else if (e instanceof IllegalStateException) status = 409;
+        else status = 400; // IllegalArgumentException (incl. NumberFormatException), DateTimeParseException
+        String message = e.getMessage() == null ? e.getClass().getSimpleName() : e.getMessage();
+        respond(exchange, status, json -> {
+            json.beginObject();
+            json.name("error").value(message);
+            json.endObject();
+        });
+    }
+
+    private static void requireMethod(HttpExchange exchange, String method) {
+        if (!exchange.getRequestMethod().equalsIgnoreCase(method)) {
+            throw new UnsupportedOperationException("Use " + method + " for this path.");
+        }
+    }
+
+    private static String required(Map<String, String> params, String name) {
+        String value = params.get(name);
+        if (value == null || value.isEmpty()) {
+            throw new IllegalArgumentException("Missing parameter: " + name);
+        }
+        return value;
+    }
+
+    static OrderQuery parseQuery(Map<String, String> params) {
+        OrderQuery query = new OrderQuery();
+        if (params.containsKey("status")) {
+            for (String status : params.get("status").split(",")) {
+                query.status(OrderStatus.valueOf(status.trim().toUpperCase()));
+            }
+        }
+        if (params.containsKey("olderThan")) query.olderThanMinutes(Integer.parseInt(params.get("olderThan")));
+        if (params.containsKey("item")) query.containsItem(params.get("item"));
+        if (params.containsKey("request")) query.requestMentions(params.get("request"));
+        if (params.containsKey("after")) query.after(Integer.parseInt(params.get("after")));
+        if (params.containsKey("limit")) query.limit(Integer.parseInt(params.get("limit")));
+        return query;
+    }
+
+    // "Burger:2,French Fries:1" -> {Burger=2, French Fries=1}
+    static Map<String, Integer> parseItems(String items) {
+        Map<String, Integer> parsed = new LinkedHashMap<>();
+        for (String entry : items.split(",")) {
+            if (entry.isBlank()) continue;
+            int colon = entry.lastIndexOf(':');
+            String name = colon < 0 ? entry.trim() : entry.substring(0, colon).trim();
+            int quantity = colon < 0 ? 1 : Integer.parseInt(entry.substring(colon + 1).trim());
+            parsed.merge(name, quantity, Integer::sum);
+        }
+        return parsed;
+    }
+
+    private static Map<String, String> requestParams(HttpExchange exchange) throws IOException {
+        Map<String, String> params = queryParams(exchange);
+        String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+        params.putAll(decodeForm(body));
+        return params;
+    }
+
+    private static Map<String, String> queryParams(HttpExchange exchange) {
+        String query = exchange.getRequestURI().getRawQuery();
+        return decodeForm(query == null ? "" : query);
+    }
+
+    private static Map<String, String> decodeForm(String form) {
+        Map<String, String> params = new HashMap<>();
+        for (String pair : form.split("&")) {
+            if (pair.isEmpty()) continue;
+            int eq = pair.indexOf('=');
+            String key = URLDecoder.decode(eq < 0 ? pair : pair.substring(0, eq), StandardCharsets.UTF_8);
+            String value = eq < 0 ? "" : URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8);
+            params.put(key, value);
+        }
+        return params;
+    }
+}
+
+// Minimal streaming JSON encoder: writes tokens as they are produced, tracking only
+// whether a comma is needed at each nesting level (up to 64 levels).
+class JsonWriter {
+    private final Writer out;
+    private long needsComma; // bit n set when the container at depth n already has a member
+    private int depth;
+    private boolean afterName;
+
+    public JsonWriter(Writer out) {
+        this.out = out;
+    }
+
+    public JsonWriter beginObject() throws IOException {
+        return open('{');
+    }
+
+    public JsonWriter endObject() throws IOException {
+        return close('}');
+    }
+
+    public JsonWriter beginArray() throws IOException {
+        return open('[');
+    }
+
+    public JsonWriter endArray() throws IOException {
+        return close(']');
+    }
+
+    public JsonWriter name(String name) throws IOException {
+        separate();
+        writeString(name);
+        out.write(':');
+        afterName = true;
+        return this;
+    }
+
+    public JsonWriter value(String value) throws IOException {
+        separate();
+        if (value == null) out.write("null");
+        else writeString(value);
+        return this;
+    }
+
+    public JsonWriter value(long value) throws IOException {
+        separate();
+        out.write(Long.toString(value));
+        return this;
+    }
+
+    public JsonWriter value(double value) throws IOException {
+        separate();
+        out.write(Double.isFinite(value) ? Double.toString(value) : "null");
+        return this;
+    }
+
+    public JsonWriter value(boolean value) throws IOException {
+        separate();
+        out.write(value ? "true" : "false");
+        return this;
+    }
+
+    private JsonWriter open(char bracket) throws IOException {
+        separate();
+        out.write(bracket);
+        depth++;
+        needsComma &= ~(1L << depth);
+        return this;
+    }
+
+    private JsonWriter close(char bracket) throws IOException {
+        out.write(bracket);
+        depth--;
+        return this;
+    }
+
+    private void separate() throws IOException {
+        if (afterName) {
+            afterName = false;
+            return;
+        }
+        long bit = 1L << depth;
+        if ((needsComma & bit) != 0) out.write(',');
+        needsComma |= bit;
+    }
+
+    private void writeString(String s) throws IOException {
+        out.write('"');
+        int runStart = 0;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            String escape;
+            switch (c) {
+                case '"': escape = "\\\""; break;
+                case '\\': escape = "\\\\"; break;
+                case '\n': escape = "\\n"; break;
+                case '\r': escape = "\\r"; break;
+                case '\t': escape = "\\t"; break;
+                default:
+                    if (c >= 0x20) continue;
+                    escape = String.format("\\u%04x", (int) c);
+            }
+            out.write(s, runStart, i - runStart);
+            out.write(escape);
+            runStart = i + 1;
+        }
+        out.write(s, runStart, s.length() - runStart);
+        out.write('"');
+    }
+}
@@ -0,0 +1,123 @@
+package cafe;
+
+import java.lang.management.ManagementFactory;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.LongSupplier;
+import javax.management.*;
+
+// Process-wide registry of per-operation timers and gauges.
+// Controllers hold their timers in static final fields, so recording an event is two
+// System.nanoTime calls plus a histogram update, with no map lookup on the hot path.
+public class CafeMetrics {
+    private static final Map<String, OperationTimer> timers = new ConcurrentSkipListMap<>();
+    private static final Map<String, LongSupplier> gauges = new ConcurrentSkipListMap<>();
+    private static volatile boolean jmxRegistered = false;
+
+    public static OperationTimer timer(String name) {
+        return timers.computeIfAbsent(name, OperationTimer::new);
+    }
+
+    // Replaces any gauge previously registered under the same name
+    public static void registerGauge(String name, LongSupplier value) {
+        gauges.put(name, value);
+    }
+
+    public static Collection<OperationTimer> getTimers() {
+        return timers.values();
+    }
+
+    public static Map<String, Long> readGauges() {
+        Map<String, Long> values = new TreeMap<>();
+        for (Map.Entry<String, LongSupplier> entry : gauges.entrySet()) {
+            values.put(entry.getKey(), entry.getValue().getAsLong());
+        }
+        return values;
+    }
+
+    public static void reset() {
+        for (OperationTimer timer : timers.values()) {
+            timer.reset();
+        }
+    }
+
+    // Text table shown by the "Stats" option of the console
+    public static String renderStats() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%-36s %10s %10s %10s %10s %10s%n", "Operation", "Count", "Mean(us)", "p50(us)", "p99(us)", "Max(us)"));
+        for (OperationTimer timer : timers.values()) {
+            LatencyHistogram h = timer.getHistogram();
+            if (h.getCount() == 0) continue;
+            sb.append(String.format(Locale.ROOT, "%-36s %10d %10.1f %10.1f %10.1f %10.1f%n", timer.getName(), h.getCount(),
+                    h.getMean() / 1000, h.percentile(50) / 1000.0, h.percentile(99) / 1000.0, h.getMax() / 1000.0));
+        }
+        Map<String, Long> gaugeValues = readGauges();
+        if (!gaugeValues.isEmpty()) {
+            sb.append(String.format("%n%-36s %10s%n", "Gauge", "Value"));
+            for (Map.Entry<String, Long> entry : gaugeValues.entrySet()) {
+                sb.append(String.format("%-36s %10d%n", entry.getKey(), entry.getValue()));
+            }
+        }
+        return sb.toString();
+    }
+
+    // Exposes the registry as cafe:type=Metrics on the platform MBean server (idempotent)
+    public static synchronized void registerJmx() {
+        if (jmxRegistered) return;
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            server.registerMBean(new CafeMetricsBean(), new ObjectName("cafe:type=Metrics"));
+            jmxRegistered = true;
+        } catch (JMException e) {
+            System.out.println("Could not register metrics with JMX: " + e.getMessage());
+        }
+    }
+}
+
+class CafeMetricsBean implements CafeMetricsMXBean {
+    @Override
+    public Map<String, Long> getCounts() {
+        Map<String, Long> values = new TreeMap<>();
+        for (OperationTimer timer : CafeMetrics.getTimers()) {
+            values.put(timer.getName(), timer.getHistogram().getCount());
+        }
+        return values;
+    }
+
+    @Override
+    public Map<String, Double> getMeanLatencies() {
+        Map<String, Double> values = new TreeMap<>();
+        for (OperationTimer timer : CafeMetrics.getTimers()) {
+            values.put(timer.getName(), timer.getHistogram().getMean() / 1000);
+        }
+        return values;
+    }
+
+    @Override
+    public Map<String, Long> getP99Latencies() {
+        Map<String, Long> values = new TreeMap<>();
+        for (OperationTimer timer : CafeMetrics.getTimers()) {
+            values.put(timer.getName(), timer.getHistogram().percentile(99) / 1000);
+        }
+        return values;
+    }
+
+    @Override
+    public Map<String, Long> getMaxLatencies() {
+        Map<String, Long> values = new TreeMap<>();
+        for (OperationTimer timer : CafeMetrics.getTimers()) {
+            values.put(timer.getName(), timer.getHistogram().getMax() / 1000);
+        }
+        return values;
+    }
+
+    @Override
+    public Map<String, Long> getGauges() {
+        return CafeMetrics.readGauges();
+    }
+
+    @Override
+    public void reset() {
+        CafeMetrics.reset();
+    }
+}
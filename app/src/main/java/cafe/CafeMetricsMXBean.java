@@ -0,0 +1,13 @@
+package cafe;
+
+import java.util.Map;
+
+// JMX view of CafeMetrics; latencies are in microseconds
+public interface CafeMetricsMXBean {
+    Map<String, Long> getCounts();
+    Map<String, Double> getMeanLatencies();
+    Map<String, Long> getP99Latencies();
+    Map<String, Long> getMaxLatencies();
+    Map<String, Long> getGauges();
+    void reset();
+}
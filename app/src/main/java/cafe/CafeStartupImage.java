@@ -0,0 +1,151 @@
+package cafe;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.time.LocalDate;
+import java.util.*;
+
+// Prebuilt snapshot of menu and roster state, read with a single file read at startup instead
+// of replaying CSV imports and manual entry. Repeated strings (categories, ingredient lists,
+// roles, shift types) are stored once in a string table and referenced by index.
+// Build one from a menu CSV with: java -cp app/target/cafe-app.jar cafe.CafeStartupImage <menu.csv> [cafe.image]
+// The console app rewrites the image on exit so it always reflects the last session.
+public class CafeStartupImage {
+    private static final int MAGIC = 0xCAFE1A6E;
+    private static final int VERSION = 2; // 2 added staff ids
+
+    private final List<MenuItem> menuItems;
+    private final List<StaffMember> staff;
+
+    public CafeStartupImage(List<MenuItem> menuItems, List<StaffMember> staff) {
+        this.menuItems = menuItems;
+        this.staff = staff;
+    }
+
+    public List<MenuItem> getMenuItems() { return menuItems; }
+    public List<StaffMember> getStaff() { return staff; }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.out.println("Usage: java cafe.CafeStartupImage <menu.csv> [cafe.image]");
+            return;
+        }
+        Path target = Paths.get(args.length > 1 ? args[1] : "cafe.image");
+        List<StaffMember> roster = Files.exists(target) ? load(target).getStaff() : new ArrayList<>();
+        MenuController menu = new MenuController();
+        menu.importMenuFromFile(args[0]);
+        new CafeStartupImage(menu.getMenuItems(), roster).write(target);
+        System.out.println("Wrote " + menu.getMenuItems().size() + " menu items and " + roster.size()
+                + " staff to " + target);
+    }
+
+    // An empty image when the file doesn't exist yet
+    public static CafeStartupImage load(Path path) throws IOException {
+        if (!Files.exists(path)) {
+            return new CafeStartupImage(new ArrayList<>(), new ArrayList<>());
+        }
+        ByteBuffer in = ByteBuffer.wrap(Files.readAllBytes(path));
+        if (in.remaining() < 8 || in.getInt() != MAGIC) {
+            throw new IOException("Not a startup image: " + path);
+        }
+        int version = in.getInt();
+        if (version < 1 || version > VERSION) {
+            throw new IOException("Unsupported startup image version " + version + ": " + path);
+        }
+        String[] strings = new String[in.getInt()];
+        for (int i = 0; i < strings.length; i++) {
+            byte[] bytes = new byte[in.getInt()];
+            in.get(bytes);
+            strings[i] = new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        // Categories and ingredient lists are encoded once per distinct string, not once per item
+        int[] categoryIds = new int[strings.length];
+        IngredientList[] ingredientLists = new IngredientList[strings.length];
+        Arrays.fill(categoryIds, -1);
+        int itemCount = in.getInt();
+        List<MenuItem> menuItems = new ArrayList<>(itemCount);
+        for (int i = 0; i < itemCount; i++) {
+            String name = strings[in.getInt()];
+            double price = in.getDouble();
+            int category = in.getInt();
+            int ingredients = in.getInt();
+            if (categoryIds[category] < 0) categoryIds[category] = MenuDictionary.categoryId(strings[category]);
+            if (ingredientLists[ingredients] == null) ingredientLists[ingredients] = MenuDictionary.ingredients(strings[ingredients]);
+            menuItems.add(new MenuItem(name, price, categoryIds[category], ingredientLists[ingredients], in.get() != 0));
+        }
+
+        int staffCount = in.getInt();
+        List<StaffMember> staff = new ArrayList<>(staffCount);
+        for (int i = 0; i < staffCount; i++) {
+            int id = version >= 2 ? in.getInt() : 0; // version 1 rosters get ids when loaded
+            StaffMember member = new StaffMember(strings[in.getInt()], strings[in.getInt()]);
+            member.setId(id);
+            List<LocalDate> unavailable = new ArrayList<>();
+            for (int d = in.getInt(); d > 0; d--) {
+                unavailable.add(LocalDate.ofEpochDay(in.getInt()));
+            }
+            member.setUnavailableDates(unavailable);
+            // Restored directly so loading doesn't publish a SHIFT_ASSIGNED event per shift
+            for (int s = in.getInt(); s > 0; s--) {
+                LocalDate date = LocalDate.ofEpochDay(in.getInt());
+                member.getAssignedShifts().put(date, new Shift(date, strings[in.getInt()], member));
+            }
+            staff.add(member);
+        }
+        return new CafeStartupImage(menuItems, staff);
+    }
+
+    // Written to a temporary file and moved into place so a crash never leaves half an image
+    public void write(Path path) throws IOException {
+        Map<String, Integer> stringIds = new LinkedHashMap<>();
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(body);
+        out.writeInt(menuItems.size());
+        for (MenuItem item : menuItems) {
+            out.writeInt(stringId(stringIds, item.getName()));
+            out.writeDouble(item.getPrice());
+            out.writeInt(stringId(stringIds, item.getCategory()));
+            out.writeInt(stringId(stringIds, item.getIngredients()));
+            out.writeByte(item.isAvailable() ? 1 : 0);
+        }
+        out.writeInt(staff.size());
+        for (StaffMember member : staff) {
+            out.writeInt(member.getId());
+            out.writeInt(stringId(stringIds, member.getName()));
+            out.writeInt(stringId(stringIds, member.getRole()));
+            out.writeInt(member.getUnavailableDates().size());
+            for (LocalDate date : member.getUnavailableDates()) {
+                out.writeInt((int) date.toEpochDay());
+            }
+            synchronized (member) { // shift edits hold the member's lock
+                out.writeInt(member.getAssignedShifts().size());
+                for (Shift shift : member.getAssignedShifts().values()) {
+                    out.writeInt((int) shift.getDate().toEpochDay());
+                    out.writeInt(stringId(stringIds, shift.getShiftType()));
+                }
+            }
+        }
+        out.flush();
+
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (DataOutputStream file = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+            file.writeInt(MAGIC);
+            file.writeInt(VERSION);
+            file.writeInt(stringIds.size());
+            for (String s : stringIds.keySet()) {
+                byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+                file.writeInt(bytes.length);
+                file.write(bytes);
+            }
+            body.writeTo(file);
+        }
+        Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static int stringId(Map<String, Integer> ids, String s) {
+        return ids.computeIfAbsent(s == null ? "" : s, k -> ids.size());
+    }
+}
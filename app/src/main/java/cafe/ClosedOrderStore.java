@@ -0,0 +1,31 @@
+package cafe;
+
+import java.time.*;
+import java.util.*;
+
+// Where OrderController puts closed orders so they no longer sit in its live map
+interface ClosedOrderStore {
+    // Takes ownership of the orders; they must be findable as soon as this returns
+    void archive(List<Order> batch);
+
+    Order find(int orderId);
+
+    // Stored orders placed on the given day, oldest first
+    List<Order> ordersOn(LocalDate day);
+
+    // Adds the orders placed on the given day to a history segment. Stores that can read their
+    // records without building Order objects override this.
+    default void addOrdersOn(LocalDate day, DaySegment.Builder segment) {
+        for (Order order : ordersOn(day)) {
+            segment.add(order);
+        }
+    }
+
+    // Non-canceled orders placed on the day and revenue of those paid, in cents
+    long[] getDailyTotals(LocalDate day);
+
+    int getArchivedCount();
+
+    // Highest order id stored, 0 when empty; new ids must start above it
+    int getMaxOrderId();
+}
@@ -0,0 +1,12 @@
+package cafe;
+
+import jdk.jfr.*;
+
+@Name("cafe.ConflictScan")
+@Label("Schedule Conflict Scan")
+@Category({"Cafe", "Scheduling"})
+@StackTrace(false)
+class ConflictScanEvent extends Event {
+    @Label("Staff Count") int staffCount;
+    @Label("Conflicts") int conflicts;
+}
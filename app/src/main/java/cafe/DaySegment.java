@@ -0,0 +1,273 @@
+package cafe;
+
+import java.io.*;
+import java.nio.file.*;
+import java.time.*;
+import java.util.*;
+import java.util.function.LongConsumer;
+import java.util.function.ToIntFunction;
+import java.util.stream.IntStream;
+
+// One business day in columnar form. Order columns hold one row per order, line columns one
+// row per order line; rows are sorted by order time.
+class DaySegment {
+    private static final int FORMAT_VERSION = 1;
+
+    private final LocalDate day;
+    // order columns
+    private final long[] orderTimes;
+    private final int[] orderIds;
+    private final byte[] orderStatuses;
+    private final long[] orderTotalCents;
+    // line columns
+    private final long[] lineTimes;
+    private final int[] lineOrderIds;
+    private final int[] lineItemIds;
+    private final int[] lineQuantities;
+    private final long[] lineCents;
+    private final boolean[] linePaid;
+    // segment statistics used for skipping
+    private final long minTime;
+    private final long maxTime;
+    private final int minItemId;
+    private final int maxItemId;
+
+    private DaySegment(LocalDate day, long[] orderTimes, int[] orderIds, byte[] orderStatuses, long[] orderTotalCents,
+                       long[] lineTimes, int[] lineOrderIds, int[] lineItemIds, int[] lineQuantities,
+                       long[] lineCents, boolean[] linePaid) {
+        this.day = day;
+        this.orderTimes = orderTimes;
+        this.orderIds = orderIds;
+        this.orderStatuses = orderStatuses;
+        this.orderTotalCents = orderTotalCents;
+        this.lineTimes = lineTimes;
+        this.lineOrderIds = lineOrderIds;
+        this.lineItemIds = lineItemIds;
+        this.lineQuantities = lineQuantities;
+        this.lineCents = lineCents;
+        this.linePaid = linePaid;
+        this.minTime = orderTimes.length == 0 ? Long.MAX_VALUE : orderTimes[0];
+        this.maxTime = orderTimes.length == 0 ? Long.MIN_VALUE : orderTimes[orderTimes.length - 1];
+        int lo = Integer.MAX_VALUE;
+        int hi = Integer.MIN_VALUE;
+        for (int id : lineItemIds) {
+            lo = Math.min(lo, id);
+            hi = Math.max(hi, id);
+        }
+        this.minItemId = lo;
+        this.maxItemId = hi;
+    }
+
+    // Collects order and line rows in any order, from Order objects or straight from stored
+    // records; build() sorts them by order time
+    static final class Builder {
+        private final LocalDate day;
+        private final ToIntFunction<String> itemIds;
+        private long[] orderTimes = new long[64];
+        private int[] orderIds = new int[64];
+        private byte[] orderStatuses = new byte[64];
+        private long[] orderTotalCents = new long[64];
+        private int[] firstLines = new int[64];
+        private int orders;
+        private int[] lineItemIds = new int[256];
+        private int[] lineQuantities = new int[256];
+        private long[] lineCents = new long[256];
+        private int lines;
+
+        Builder(LocalDate day, ToIntFunction<String> itemIds) {
+            this.day = day;
+            this.itemIds = itemIds;
+        }
+
+        LocalDate getDay() {
+            return day;
+        }
+
+        void add(Order order) {
+            beginOrder(order.getOrderId(), order.getOrderDate().getTime(), order.getStatus());
+            for (OrderItem item : order.getItems()) {
+                line(item.getItemName(), item.getQuantity(), Math.round(item.getPrice() * 100));
+            }
+            if (!order.getAppliedPromotions().isEmpty()) charged(Math.round(order.getTotalCost() * 100));
+        }
+
+        // Starts an order; its total is the sum of its lines unless charged() replaces it
+        void beginOrder(int orderId, long time, OrderStatus status) {
+            if (orders == orderIds.length) {
+                int capacity = orders * 2;
+                orderTimes = Arrays.copyOf(orderTimes, capacity);
+                orderIds = Arrays.copyOf(orderIds, capacity);
+                orderStatuses = Arrays.copyOf(orderStatuses, capacity);
+                orderTotalCents = Arrays.copyOf(orderTotalCents, capacity);
+                firstLines = Arrays.copyOf(firstLines, capacity);
+            }
+            orderTimes[orders] = time;
+            orderIds[orders] = orderId;
+            orderStatuses[orders] = (byte) status.ordinal();
+            orderTotalCents[orders] = 0;
+            firstLines[orders] = lines;
+            orders++;
+        }
+
+        void line(String itemName, int quantity, long unitCents) {
+            if (lines == lineItemIds.length) {
+                int capacity = lines * 2;
+                lineItemIds = Arrays.copyOf(lineItemIds, capacity);
+                lineQuantities = Arrays.copyOf(lineQuantities, capacity);
+                lineCents = Arrays.copyOf(lineCents, capacity);
+            }
+            long cents = unitCents * quantity;
+            lineItemIds[lines] = itemIds.applyAsInt(itemName);
+            lineQuantities[lines] = quantity;
+            lineCents[lines] = cents;
+            lines++;
+            orderTotalCents[orders - 1] += cents;
+        }
+
+        // What the till charged, when promotions made it differ from the lines
+        void charged(long totalCents) {
+            orderTotalCents[orders - 1] = totalCents;
+        }
+
+        DaySegment build() {
+            int[] byTime = IntStream.range(0, orders).boxed()
+                    .sorted(Comparator.comparingLong(i -> orderTimes[i]))
+                    .mapToInt(Integer::intValue).toArray();
+            long[] sortedTimes = new long[orders];
+            int[] sortedIds = new int[orders];
+            byte[] sortedStatuses = new byte[orders];
+            long[] sortedTotals = new long[orders];
+            long[] lineTimes = new long[lines];
+            int[] lineOrderIds = new int[lines];
+            int[] sortedItemIds = new int[lines];
+            int[] sortedQuantities = new int[lines];
+            long[] sortedCents = new long[lines];
+            boolean[] linePaid = new boolean[lines];
+            int row = 0;
+            for (int i = 0; i < orders; i++) {
+                int o = byTime[i];
+                sortedTimes[i] = orderTimes[o];
+                sortedIds[i] = orderIds[o];
+                sortedStatuses[i] = orderStatuses[o];
+                sortedTotals[i] = orderTotalCents[o];
+                boolean paid = orderStatuses[o] == OrderStatus.COMPLETED.ordinal();
+                int end = o + 1 < orders ? firstLines[o + 1] : lines;
+                for (int l = firstLines[o]; l < end; l++) {
+                    lineTimes[row] = orderTimes[o];
+                    lineOrderIds[row] = orderIds[o];
+                    sortedItemIds[row] = lineItemIds[l];
+                    sortedQuantities[row] = lineQuantities[l];
+                    sortedCents[row] = lineCents[l];
+                    linePaid[row] = paid;
+                    row++;
+                }
+            }
+            return new DaySegment(day, sortedTimes, sortedIds, sortedStatuses, sortedTotals,
+                    lineTimes, lineOrderIds, sortedItemIds, sortedQuantities, sortedCents, linePaid);
+        }
+    }
+
+    public LocalDate getDay() { return day; }
+
+    void forEachOrderTime(LongConsumer action) {
+        for (long time : orderTimes) action.accept(time);
+    }
+
+    public int getOrderCount() { return orderIds.length; }
+    public int getLineCount() { return lineItemIds.length; }
+
+    boolean overlaps(long fromMillis, long toMillis) {
+        return orderTimes.length > 0 && maxTime >= fromMillis && minTime <= toMillis;
+    }
+
+    boolean mayContainItem(int itemId) {
+        return itemId >= minItemId && itemId <= maxItemId;
+    }
+
+    // Paid order totals, so promotions and surcharges count as the till charged them
+    long[] revenueByHour(long fromMillis, long toMillis, ZoneId zone) {
+        long[] hours = new long[24];
+        boolean fullyInside = minTime >= fromMillis && maxTime <= toMillis;
+        long midnight = day.atStartOfDay(zone).toInstant().toEpochMilli();
+        byte completed = (byte) OrderStatus.COMPLETED.ordinal();
+        for (int i = 0; i < orderTotalCents.length; i++) {
+            if (orderStatuses[i] != completed) continue;
+            long time = orderTimes[i];
+            if (!fullyInside && (time < fromMillis || time > toMillis)) continue;
+            int hour = (int) Math.min(23, Math.max(0, (time - midnight) / 3_600_000L));
+            hours[hour] += orderTotalCents[i];
+        }
+        return hours;
+    }
+
+    long unitsSold(int itemId) {
+        long units = 0;
+        for (int i = 0; i < lineItemIds.length; i++) {
+            if (lineItemIds[i] == itemId && linePaid[i]) units += lineQuantities[i];
+        }
+        return units;
+    }
+
+    long[] statusCounts() {
+        long[] counts = new long[OrderStatus.values().length];
+        for (byte status : orderStatuses) {
+            counts[status]++;
+        }
+        return counts;
+    }
+
+    void write(Path file) throws IOException {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            out.writeInt(FORMAT_VERSION);
+            out.writeLong(day.toEpochDay());
+            out.writeInt(orderIds.length);
+            for (int i = 0; i < orderIds.length; i++) out.writeLong(orderTimes[i]);
+            for (int i = 0; i < orderIds.length; i++) out.writeInt(orderIds[i]);
+            out.write(orderStatuses);
+            for (int i = 0; i < orderIds.length; i++) out.writeLong(orderTotalCents[i]);
+            out.writeInt(lineItemIds.length);
+            for (int i = 0; i < lineItemIds.length; i++) out.writeLong(lineTimes[i]);
+            for (int i = 0; i < lineItemIds.length; i++) out.writeInt(lineOrderIds[i]);
+            for (int i = 0; i < lineItemIds.length; i++) out.writeInt(lineItemIds[i]);
+            for (int i = 0; i < lineItemIds.length; i++) out.writeInt(lineQuantities[i]);
+            for (int i = 0; i < lineItemIds.length; i++) out.writeLong(lineCents[i]);
+            for (int i = 0; i < lineItemIds.length; i++) out.writeBoolean(linePaid[i]);
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    static DaySegment read(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            int version = in.readInt();
+            if (version != FORMAT_VERSION) {
+                throw new IOException("Unsupported segment format " + version + " in " + file);
+            }
+            LocalDate day = LocalDate.ofEpochDay(in.readLong());
+            int orders = in.readInt();
+            long[] orderTimes = new long[orders];
+            int[] orderIds = new int[orders];
+            byte[] orderStatuses = new byte[orders];
+            long[] orderTotalCents = new long[orders];
+            for (int i = 0; i < orders; i++) orderTimes[i] = in.readLong();
+            for (int i = 0; i < orders; i++) orderIds[i] = in.readInt();
+            in.readFully(orderStatuses);
+            for (int i = 0; i < orders; i++) orderTotalCents[i] = in.readLong();
+            int lines = in.readInt();
+            long[] lineTimes = new long[lines];
+            int[] lineOrderIds = new int[lines];
+            int[] lineItemIds = new int[lines];
+            int[] lineQuantities = new int[lines];
+            long[] lineCents = new long[lines];
+            boolean[] linePaid = new boolean[lines];
+            for (int i = 0; i < lines; i++) lineTimes[i] = in.readLong();
+            for (int i = 0; i < lines; i++) lineOrderIds[i] = in.readInt();
+            for (int i = 0; i < lines; i++) lineItemIds[i] = in.readInt();
+            for (int i = 0; i < lines; i++) lineQuantities[i] = in.readInt();
+            for (int i = 0; i < lines; i++) lineCents[i] = in.readLong();
+            for (int i = 0; i < lines; i++) linePaid[i] = in.readBoolean();
+            return new DaySegment(day, orderTimes, orderIds, orderStatuses, orderTotalCents,
+                    lineTimes, lineOrderIds, lineItemIds, lineQuantities, lineCents, linePaid);
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package cafe;
+
+import java.time.*;
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+
+// Turns the live order stream into staffing suggestions. Every ORDER_PLACED event bumps the
+// current hourly bucket and the running count of the current shift: O(1) per order, nothing
+// is rescanned. When a shift ends its count is folded into an exponentially smoothed forecast
+// for that weekday and shift type, which is what recommendations are based on. A shift ends at
+// its scheduled end time, checked against the clock on every order and every read, so a quiet
+// spell after a shift doesn't leave it open.
+public class DemandForecaster implements CafeEventHandler {
+    // Shift types as used by StaffSchedulingSystem; Night runs past midnight and belongs to the day it starts
+    static final String[] SHIFT_TYPES = {"Morning", "Evening", "Night"};
+    private static final int[] SHIFT_START_HOURS = {6, 14, 22};
+    private static final int SHIFT_HOURS = 8;
+    private static final int WINDOW_HOURS = 7 * 24;
+    // Orders per hour one member of each role can handle, as "role:ordersPerHour,..."
+    static final String DEFAULT_CAPACITIES = "Barista:15,Cashier:25,Kitchen:20";
+
+    private final ZoneId zone;
+    private final double alpha;
+    private final Map<String, Double> ordersPerStaffHour = new LinkedHashMap<>();
+
+    // hourly buckets over the last week, indexed by epoch hour modulo the window
+    private final long[] hourlyOrders = new long[WINDOW_HOURS];
+    private long currentHour = Long.MIN_VALUE;
+
+    // the shift being counted
+    private LocalDate currentShiftDate;
+    private int currentShift = -1;
+    private long currentShiftEnd; // epoch millis
+    private long currentShiftOrders;
+
+    // smoothed orders per shift, by day of week and shift type; NaN until first observed
+    private final double[][] forecast = new double[7][SHIFT_TYPES.length];
+
+    public DemandForecaster(ZoneId zone, double alpha) {
+        this(zone, alpha, parseCapacities(DEFAULT_CAPACITIES));
+    }
+
+    // Recommendations cover exactly the roles in capacities (orders per staff hour, by role)
+    public DemandForecaster(ZoneId zone, double alpha, Map<String, Double> capacities) {
+        if (alpha <= 0 || alpha > 1) {
+            throw new IllegalArgumentException("Smoothing factor must be in (0, 1].");
+        }
+        if (capacities.isEmpty()) {
+            throw new IllegalArgumentException("At least one role capacity is needed.");
+        }
+        this.zone = zone;
+        this.alpha = alpha;
+        for (double[] day : forecast) {
+            Arrays.fill(day, Double.NaN);
+        }
+        for (Map.Entry<String, Double> role : capacities.entrySet()) {
+            if (!(role.getValue() > 0)) {
+                throw new IllegalArgumentException("Capacity must be positive: " + role.getKey());
+            }
+            ordersPerStaffHour.put(role.getKey(), role.getValue());
+        }
+    }
+
+    // "Barista:15,Cashier:25" -> {Barista=15.0, Cashier=25.0}, in the given order
+    static Map<String, Double> parseCapacities(String spec) {
+        Map<String, Double> capacities = new LinkedHashMap<>();
+        for (String entry : spec.split(",")) {
+            if (entry.isBlank()) continue;
+            int colon = entry.lastIndexOf(':');
+            if (colon <= 0) {
+                throw new IllegalArgumentException("Expected role:ordersPerHour, got: " + entry.trim());
+            }
+            capacities.put(entry.substring(0, colon).trim(), Double.parseDouble(entry.substring(colon + 1).trim()));
+        }
+        return capacities;
+    }
+
+    // How many orders per hour one member of the role can handle
+    public synchronized void setRoleCapacity(String role, double ordersPerHour) {
+        if (ordersPerHour <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive.");
+        }
+        ordersPerStaffHour.put(role, ordersPerHour);
+    }
+
+    // Replays closed days so forecasts are available before the first live shift ends
+    public synchronized void seed(OrderHistoryStore history) {
+        for (DaySegment segment : history.getSegments()) {
+            segment.forEachOrderTime(this::recordOrder);
+        }
+    }
+
+    // Seeds on a daemon thread; returns once the replay holds the lock, so live orders recorded
+    // meanwhile wait for it and are still counted after the history, in time order
+    public void seedInBackground(OrderHistoryStore history) {
+        CountDownLatch locked = new CountDownLatch(1);
+        Thread seeder = new Thread(() -> {
+            synchronized (this) {
+                locked.countDown();
+                seed(history);
+            }
+        }, "forecast-seed");
+        seeder.setDaemon(true);
+        seeder.start();
+        boolean interrupted = false;
+        while (locked.getCount() > 0) {
+            try {
+                locked.await();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) Thread.currentThread().interrupt();
+    }
+
+    @Override
+    public void onEvent(CafeEvent event, long sequence) {
+        if (event.getType() == CafeEventType.ORDER_PLACED) {
+            recordOrder(event.getTimestamp());
+        }
+    }
+
+    public synchronized void recordOrder(long epochMillis) {
+        long hour = Math.floorDiv(epochMillis, 3_600_000L);
+        advanceTo(hour);
+        hourlyOrders[(int) Math.floorMod(hour, (long) WINDOW_HOURS)]++;
+
+        closeEndedShift(epochMillis);
+        LocalDateTime time = LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), zone);
+        int shift = shiftOf(time.getHour());
+        LocalDate shiftDate = time.getHour() < SHIFT_START_HOURS[0] ? time.toLocalDate().minusDays(1) : time.toLocalDate();
+        if (shift != currentShift || !shiftDate.equals(currentShiftDate)) {
+            closeCurrentShift();
+            currentShift = shift;
+            currentShiftDate = shiftDate;
+            currentShiftEnd = shiftDate.atTime(SHIFT_START_HOURS[shift], 0).plusHours(SHIFT_HOURS)
+                    .atZone(zone).toInstant().toEpochMilli();
+        }
+        currentShiftOrders++;
+    }
+
+    // Folds the running shift into the forecast once the clock has passed its end
+    private void closeEndedShift(long nowMillis) {
+        if (currentShift >= 0 && nowMillis >= currentShiftEnd) {
+            closeCurrentShift();
+            currentShift = -1;
+            currentShiftDate = null;
+        }
+    }
+
+    // === ROLLING WINDOWS ===
+
+    // Orders placed in the last n hours (up to a week), counting the current hour
+    public synchronized long ordersInLastHours(int hours) {
+        if (currentHour == Long.MIN_VALUE) return 0;
+        advanceTo(Math.max(currentHour, Math.floorDiv(System.currentTimeMillis(), 3_600_000L)));
+        long total = 0;
+        for (int i = 0; i < Math.min(hours, WINDOW_HOURS); i++) {
+            total += hourlyOrders[(int) Math.floorMod(currentHour - i, (long) WINDOW_HOURS)];
+        }
+        return total;
+    }
+
+    // Clears buckets that fell out of the window since the last order
+    private void advanceTo(long hour) {
+        if (hour <= currentHour) return;
+        long from = currentHour == Long.MIN_VALUE ? hour : currentHour + 1;
+        for (long h = Math.max(from, hour - WINDOW_HOURS + 1); h <= hour; h++) {
+            hourlyOrders[(int) Math.floorMod(h, (long) WINDOW_HOURS)] = 0;
+        }
+        currentHour = hour;
+    }
+
+    // === FORECASTS ===
+
+    // Expected orders for a shift, or NaN if that weekday/shift has never been observed
+    public synchronized double forecastOrders(LocalDate date, String shiftType) {
+        int shift = shiftIndex(shiftType);
+        closeEndedShift(System.currentTimeMillis());
+        double smoothed = forecast[date.getDayOfWeek().getValue() - 1][shift];
+        // The running shift is not folded in yet; never forecast less than it already has
+        if (shift == currentShift && date.equals(currentShiftDate)) {
+            return Double.isNaN(smoothed) ? currentShiftOrders : Math.max(smoothed, currentShiftOrders);
+        }
+        return smoothed;
+    }
+
+    // Suggested head count per role; every role gets at least one person
+    public synchronized Map<String, Integer> recommendStaff(LocalDate date, String shiftType) {
+        double orders = forecastOrders(date, shiftType);
+        double perHour = Double.isNaN(orders) ? 0 : orders / SHIFT_HOURS;
+        Map<String, Integer> staffing = new LinkedHashMap<>();
+        for (Map.Entry<String, Double> role : ordersPerStaffHour.entrySet()) {
+            staffing.put(role.getKey(), Math.max(1, (int) Math.ceil(perHour / role.getValue())));
+        }
+        return staffing;
+    }
+
+    private void closeCurrentShift() {
+        if (currentShift < 0) return;
+        double[] day = forecast[currentShiftDate.getDayOfWeek().getValue() - 1];
+        double previous = day[currentShift];
+        day[currentShift] = Double.isNaN(previous)
+                ? currentShiftOrders
+                : alpha * currentShiftOrders + (1 - alpha) * previous;
+        currentShiftOrders = 0;
+    }
+
+    private static int shiftOf(int hour) {
+        for (int i = SHIFT_TYPES.length - 1; i >= 0; i--) {
+            if (hour >= SHIFT_START_HOURS[i]) return i;
+        }
+        return SHIFT_TYPES.length - 1; // before the first shift: still the previous night
+    }
+
+    static int shiftIndex(String shiftType) {
+        for (int i = 0; i < SHIFT_TYPES.length; i++) {
+            if (SHIFT_TYPES[i].equalsIgnoreCase(shiftType.trim())) return i;
+        }
+        throw new IllegalArgumentException("Unknown shift type: " + shiftType);
+    }
+}
@@ -0,0 +1,3 @@
+package cafe;
+
+enum DiscountType { FIXED_PRICE, PERCENT_OFF, FREE_CHEAPEST }
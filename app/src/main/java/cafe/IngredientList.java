@@ -0,0 +1,18 @@
+package cafe;
+
+// One distinct ingredient list, shared by every menu item that has it
+final class IngredientList {
+    private final String text;
+    private final int[] ids;
+    private final int allergenMask;
+
+    IngredientList(String text, int[] ids, int allergenMask) {
+        this.text = text;
+        this.ids = ids;
+        this.allergenMask = allergenMask;
+    }
+
+    public String getText() { return text; }
+    public int[] getIds() { return ids.clone(); }
+    public int getAllergenMask() { return allergenMask; }
+}
@@ -0,0 +1,45 @@
+package cafe;
+
+import java.util.*;
+
+// Open order lines that can be prepared together: same item, same modifiers, same allergy handling
+class KitchenBatch {
+    private final String itemName;
+    private final List<String> modifiers;
+    private final int allergenMask;
+    private int quantity;
+    private final List<Integer> orderIds = new ArrayList<>();
+
+    KitchenBatch(String itemName, List<String> modifiers, int allergenMask) {
+        this.itemName = itemName;
+        this.modifiers = modifiers;
+        this.allergenMask = allergenMask;
+    }
+
+    void add(int orderId, int quantity) {
+        this.quantity += quantity;
+        if (orderIds.isEmpty() || orderIds.get(orderIds.size() - 1) != orderId) orderIds.add(orderId);
+    }
+
+    // Grouping key: item, sorted modifier ids, notes and allergen mask
+    static String key(OrderItem item) {
+        String key = item.getItemName().toLowerCase() + '|' + Arrays.toString(item.getModifierIds()) + '|' + item.getAllergenMask();
+        return item.getNotes().isEmpty() ? key : key + '|' + item.getNotes();
+    }
+
+    public String getItemName() { return itemName; }
+    public int getQuantity() { return quantity; }
+    public List<Integer> getOrderIds() { return orderIds; }
+
+    @Override
+    public String toString() {
+        StringBuilder line = new StringBuilder(itemName + " x " + quantity);
+        for (String modifier : modifiers) {
+            line.append(" [").append(modifier).append("]");
+        }
+        if (allergenMask != 0) {
+            line.append(" {allergy: ").append(SpecialRequestParser.allergens(allergenMask)).append("}");
+        }
+        return line.append(" orders ").append(orderIds).toString();
+    }
+}
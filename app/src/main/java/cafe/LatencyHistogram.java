@@ -0,0 +1,98 @@
+package cafe;
+
+import java.util.concurrent.atomic.*;
+
+// Lock-free log-linear histogram of nanosecond values.
+// Each power of two is split into 32 linear sub-buckets, so recorded values keep ~3% precision.
+// Bucket counts and the total are striped LongAdders, so terminals timing the same operation
+// don't contend on one cache line (an adder only grows stripes once it sees contention);
+// the count is derived from the buckets, keeping a recorded event to two adds. A bucket's adder
+// is created the first time a value lands in it, since an operation's latencies only ever
+// touch a few dozen of the buckets.
+class LatencyHistogram {
+    private static final int SUB_BITS = 5;
+    private static final int SUB_COUNT = 1 << SUB_BITS;
+    private static final int BUCKETS = SUB_COUNT + (63 - SUB_BITS) * SUB_COUNT;
+
+    private final AtomicReferenceArray<LongAdder> counts = new AtomicReferenceArray<>(BUCKETS);
+    private final LongAdder total = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        bucket(bucketIndex(value)).increment();
+        total.add(value);
+        long currentMax;
+        while (value > (currentMax = max.get()) && !max.compareAndSet(currentMax, value)) {
+            // another thread raised the max first, re-check against it
+        }
+    }
+
+    public long getCount() {
+        long n = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            n += countAt(i);
+        }
+        return n;
+    }
+
+    public long getMax() { return max.get(); }
+
+    public double getMean() {
+        long n = getCount();
+        return n == 0 ? 0 : (double) total.sum() / n;
+    }
+
+    // Upper bound of the bucket holding the given percentile (0-100), 0 when empty
+    public long percentile(double percentile) {
+        long n = getCount();
+        if (n == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * n));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += countAt(i);
+            if (seen >= rank) {
+                return Math.min(bucketUpperBound(i), max.get());
+            }
+        }
+        return max.get();
+    }
+
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            LongAdder adder = counts.get(i);
+            if (adder != null) adder.reset();
+        }
+        total.reset();
+        max.set(0);
+    }
+
+    private LongAdder bucket(int index) {
+        LongAdder adder = counts.get(index);
+        if (adder == null) {
+            adder = new LongAdder();
+            if (!counts.compareAndSet(index, null, adder)) adder = counts.get(index);
+        }
+        return adder;
+    }
+
+    private long countAt(int index) {
+        LongAdder adder = counts.get(index);
+        return adder == null ? 0 : adder.sum();
+    }
+
+    static int bucketIndex(long value) {
+        if (value < SUB_COUNT) return (int) value;
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BITS;
+        int sub = (int) (value >>> shift) - SUB_COUNT;
+        return SUB_COUNT + shift * SUB_COUNT + sub;
+    }
+
+    static long bucketUpperBound(int index) {
+        if (index < SUB_COUNT) return index;
+        int shift = (index - SUB_COUNT) / SUB_COUNT;
+        int sub = (index - SUB_COUNT) % SUB_COUNT;
+        long low = (long) (SUB_COUNT + sub) << shift;
+        return low + (1L << shift) - 1;
+    }
+}
@@ -0,0 +1,37 @@
+package cafe;
+
+import java.util.*;
+
+// Merges an order's lines by menu item with a small open-addressing table that is reused
+// from order to order, so duplicates cost a probe instead of a scan of the items so far
+final class LineMerger {
+    private int[] keys = new int[16];     // menu index + 1, 0 = empty
+    private int[] slots = new int[16];    // position in the order's item list
+
+    List<OrderItem> merge(OrderBatch batch, int order, int[] resolved, MenuSnapshot menu) {
+        int lines = batch.lineEnd(order) - batch.lineStart(order);
+        int capacity = Integer.highestOneBit(Math.max(4, lines) * 2 - 1) << 1;
+        if (capacity > keys.length) {
+            keys = new int[capacity];
+            slots = new int[capacity];
+        } else {
+            Arrays.fill(keys, 0, capacity, 0);
+        }
+        int mask = capacity - 1;
+        List<OrderItem> items = new ArrayList<>(lines);
+        for (int line = batch.lineStart(order); line < batch.lineEnd(order); line++) {
+            int item = resolved[line];
+            int h = (item * 0x9E3779B9) >>> 16 & mask;
+            while (keys[h] != 0 && keys[h] != item + 1) h = (h + 1) & mask;
+            if (keys[h] == 0) {
+                keys[h] = item + 1;
+                slots[h] = items.size();
+                items.add(new OrderItem(menu.getItem(item), batch.quantity(line), menu.getPrice(item)));
+            } else {
+                OrderItem existing = items.get(slots[h]);
+                existing.setQuantity(existing.getQuantity() + batch.quantity(line));
+            }
+        }
+        return items;
+    }
+}
@@ -0,0 +1,27 @@
+package cafe;
+
+import java.lang.foreign.MemorySegment;
+
+import static java.lang.foreign.ValueLayout.*;
+
+// Flyweight over one line record
+final class LineRecord {
+    private final OffHeapOrderStore store;
+    private MemorySegment slab;
+    private long at;
+
+    LineRecord(OffHeapOrderStore store) {
+        this.store = store;
+    }
+
+    void moveTo(long line) {
+        slab = store.lineSlabFor(line);
+        at = OffHeapOrderStore.lineOffset(line);
+    }
+
+    public String getItemName() { return store.itemName(slab.get(JAVA_INT, at + OffHeapOrderStore.L_ITEM)); }
+    public int getQuantity() { return slab.get(JAVA_INT, at + OffHeapOrderStore.L_QUANTITY); }
+    public long getPriceCents() { return slab.get(JAVA_LONG, at + OffHeapOrderStore.L_PRICE); }
+    public int getAllergenMask() { return slab.get(JAVA_INT, at + OffHeapOrderStore.L_ALLERGENS); }
+    public String[] getModifiers() { return store.modifierSet(slab.get(JAVA_INT, at + OffHeapOrderStore.L_MODIFIERS)); }
+}
@@ -0,0 +1,275 @@
+package cafe;
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+import java.util.concurrent.locks.LockSupport;
+
+// Synthetic lunch-rush load against the real MenuController/OrderController.
+// Arrivals follow a Poisson process whose rate rises from --base-rate to --peak-rate around the
+// middle of the run (the lunch peak), with occasional bursts of --burst-size simultaneous customers.
+// Latencies are measured from each arrival's scheduled time, not from when a terminal got to it,
+// so queueing behind a slow operation is reported instead of hidden (coordinated omission).
+// Usage: java -cp app/target/cafe-app.jar cafe.LunchRushLoadGenerator
+//            [--duration=60] [--terminals=8] [--base-rate=20] [--peak-rate=200] [--peak-width=0.15]
+//            [--burst-chance=0.02] [--burst-size=10] [--flip-interval-ms=500]
+//            [--menu=menu.csv] [--seed=42] [--label=local] [--out=lunch-rush-report.txt]
+public class LunchRushLoadGenerator {
+
+    enum Operation { PLACE, MODIFY, CANCEL, PAY }
+
+    private final Map<String, String> options;
+    private final MenuController menuController = new MenuController();
+    private final OrderController orderController = new OrderController(menuController);
+    private final Map<Operation, OperationStats> stats = new EnumMap<>(Operation.class);
+    private final List<Integer> openOrders = new ArrayList<>();
+    private final AtomicLong availabilityFlips = new AtomicLong();
+    private List<String> itemNames;
+
+    public LunchRushLoadGenerator(Map<String, String> options) {
+        this.options = options;
+        for (Operation op : Operation.values()) {
+            stats.put(op, new OperationStats());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (arg.startsWith("--") && eq > 2) {
+                options.put(arg.substring(2, eq), arg.substring(eq + 1));
+            }
+        }
+        new LunchRushLoadGenerator(options).run();
+    }
+
+    public void run() throws Exception {
+        loadMenu();
+        double durationSeconds = number("duration", 60);
+        int terminals = (int) number("terminals", 8);
+        long[] arrivals = buildArrivalSchedule(durationSeconds);
+        Operation[] operations = chooseOperations(arrivals.length);
+        System.out.println("Scheduled " + arrivals.length + " arrivals over " + durationSeconds + "s on "
+                + terminals + " terminals");
+
+        ExecutorService terminalPool = Executors.newFixedThreadPool(terminals);
+        ScheduledExecutorService flipper = Executors.newSingleThreadScheduledExecutor();
+        long flipInterval = (long) number("flip-interval-ms", 500);
+        if (flipInterval > 0) {
+            flipper.scheduleAtFixedRate(this::flipAvailability, flipInterval, flipInterval, TimeUnit.MILLISECONDS);
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < arrivals.length; i++) {
+            long intendedStart = start + arrivals[i];
+            long wait;
+            while ((wait = intendedStart - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            Operation op = operations[i];
+            terminalPool.execute(() -> execute(op, intendedStart));
+        }
+        terminalPool.shutdown();
+        terminalPool.awaitTermination(1, TimeUnit.HOURS);
+        long elapsed = System.nanoTime() - start;
+        flipper.shutdownNow();
+
+        String out = options.getOrDefault("out", "lunch-rush-report.txt");
+        writeReport(out, arrivals.length, terminals, elapsed);
+        System.out.println("Report written to " + out);
+    }
+
+    // Offsets (ns from start) of a non-homogeneous Poisson process, generated by thinning at the peak rate
+    private long[] buildArrivalSchedule(double durationSeconds) {
+        Random random = new Random((long) number("seed", 42));
+        double baseRate = number("base-rate", 20);
+        double peakRate = Math.max(baseRate, number("peak-rate", 200));
+        double peakWidth = number("peak-width", 0.15) * durationSeconds;
+        double burstChance = number("burst-chance", 0.02);
+        int burstSize = (int) number("burst-size", 10);
+        double center = durationSeconds / 2;
+
+        List<Long> offsets = new ArrayList<>();
+        double t = 0;
+        while (true) {
+            t += -Math.log(1 - random.nextDouble()) / peakRate;
+            if (t >= durationSeconds) break;
+            double z = (t - center) / peakWidth;
+            double rate = baseRate + (peakRate - baseRate) * Math.exp(-z * z / 2);
+            if (random.nextDouble() * peakRate > rate) continue;
+            int customers = random.nextDouble() < burstChance ? burstSize : 1;
+            for (int c = 0; c < customers; c++) {
+                offsets.add((long) (t * 1_000_000_000L));
+            }
+        }
+        long[] schedule = new long[offsets.size()];
+        for (int i = 0; i < schedule.length; i++) {
+            schedule[i] = offsets.get(i);
+        }
+        return schedule;
+    }
+
+    // Mix per arrival: 45% place, 20% modify, 25% pay, 10% cancel
+    private Operation[] chooseOperations(int count) {
+        Random random = new Random((long) number("seed", 42) + 1);
+        Operation[] operations = new Operation[count];
+        for (int i = 0; i < count; i++) {
+            int roll = random.nextInt(100);
+            operations[i] = roll < 45 ? Operation.PLACE
+                    : roll < 65 ? Operation.MODIFY
+                    : roll < 90 ? Operation.PAY
+                    : Operation.CANCEL;
+        }
+        return operations;
+    }
+
+    private void execute(Operation op, long intendedStart) {
+        Integer orderId = null;
+        if (op != Operation.PLACE) {
+            orderId = pickOpenOrder(op != Operation.MODIFY);
+            if (orderId == null) {
+                op = Operation.PLACE; // nothing open yet, the customer orders instead
+            }
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long serviceStart = System.nanoTime();
+        boolean rejected = false;
+        try {
+            switch (op) {
+                case PLACE:
+                    Order order = orderController.placeOrder(randomBasket(random));
+                    synchronized (openOrders) {
+                        openOrders.add(order.getOrderId());
+                    }
+                    break;
+                case MODIFY:
+                    orderController.modifyOrder(orderId, randomItem(random), 1 + random.nextInt(3));
+                    break;
+                case PAY:
+                    orderController.processPayment(orderId);
+                    break;
+                case CANCEL:
+                    orderController.cancelOrder(orderId);
+                    break;
+            }
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            rejected = true;
+        }
+        long end = System.nanoTime();
+        stats.get(op).record(end - intendedStart, end - serviceStart, rejected);
+    }
+
+    private Integer pickOpenOrder(boolean remove) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        synchronized (openOrders) {
+            if (openOrders.isEmpty()) return null;
+            int index = random.nextInt(openOrders.size());
+            Integer orderId = openOrders.get(index);
+            if (remove) {
+                Integer last = openOrders.remove(openOrders.size() - 1);
+                if (index < openOrders.size()) openOrders.set(index, last);
+            }
+            return orderId;
+        }
+    }
+
+    private Map<String, Integer> randomBasket(ThreadLocalRandom random) {
+        Map<String, Integer> basket = new LinkedHashMap<>();
+        int lines = 1 + random.nextInt(4);
+        for (int i = 0; i < lines; i++) {
+            basket.merge(randomItem(random), 1 + random.nextInt(3), Integer::sum);
+        }
+        return basket;
+    }
+
+    private String randomItem(ThreadLocalRandom random) {
+        return itemNames.get(random.nextInt(itemNames.size()));
+    }
+
+    // Toggles a random item, as the kitchen marking things out of stock and back mid-rush
+    private void flipAvailability() {
+        String name = randomItem(ThreadLocalRandom.current());
+        menuController.updateAvailability(name, !menuController.isAvailable(name));
+        availabilityFlips.incrementAndGet();
+    }
+
+    private void loadMenu() throws IOException {
+        String menuFile = options.get("menu");
+        if (menuFile != null) {
+            menuController.importMenuFromFile(menuFile);
+        } else {
+            menuController.addMenuItem(new MenuItem("Burger", 5.99, "Fast Food", "Beef, Bun, Lettuce", true));
+            menuController.addMenuItem(new MenuItem("Veggie Wrap", 4.99, "Vegetarian", "Lettuce, Tomato, Wrap", true));
+            menuController.addMenuItem(new MenuItem("Gluten-Free Salad", 6.99, "Salad", "Lettuce, Tomato, Cucumber", true));
+            menuController.addMenuItem(new MenuItem("French Fries", 2.99, "Sides", "Potato, Salt", true));
+            menuController.addMenuItem(new MenuItem("Chicken Nuggets", 4.50, "Fast Food", "Chicken, Bread Crumbs", true));
+        }
+        itemNames = new ArrayList<>();
+        for (MenuItem item : menuController.getMenuItems()) {
+            itemNames.add(item.getName());
+        }
+        if (itemNames.isEmpty()) {
+            throw new IllegalStateException("The menu is empty.");
+        }
+    }
+
+    // Fixed-width, one line per operation, so reports from two builds can be diffed directly
+    private void writeReport(String path, int arrivals, int terminals, long elapsedNanos) throws IOException {
+        double seconds = elapsedNanos / 1e9;
+        try (BufferedWriter bw = new BufferedWriter(new FileWriter(path))) {
+            bw.write("# Lunch rush load report (latencies in microseconds)");
+            bw.newLine();
+            bw.write("label=" + options.getOrDefault("label", "local") + " terminals=" + terminals
+                    + " arrivals=" + arrivals + " menuItems=" + itemNames.size()
+                    + " availabilityFlips=" + availabilityFlips.get()
+                    + String.format(Locale.ROOT, " elapsed=%.2fs", seconds));
+            bw.newLine();
+            bw.write("options=" + new TreeMap<>(options));
+            bw.newLine();
+            bw.write(String.format("%-8s %9s %9s %10s | %9s %9s %9s %9s | %9s %9s %9s",
+                    "op", "count", "rejected", "ops/s", "p50", "p99", "p999", "max",
+                    "svc_p50", "svc_p99", "svc_p999"));
+            bw.newLine();
+            for (Map.Entry<Operation, OperationStats> entry : stats.entrySet()) {
+                OperationStats s = entry.getValue();
+                LatencyHistogram response = s.getResponseTimes();
+                LatencyHistogram service = s.getServiceTimes();
+                bw.write(String.format(Locale.ROOT, "%-8s %9d %9d %10.1f | %9d %9d %9d %9d | %9d %9d %9d",
+                        entry.getKey(), response.getCount(), s.getRejected(), response.getCount() / seconds,
+                        micros(response.percentile(50)), micros(response.percentile(99)),
+                        micros(response.percentile(99.9)), micros(response.getMax()),
+                        micros(service.percentile(50)), micros(service.percentile(99)),
+                        micros(service.percentile(99.9))));
+                bw.newLine();
+            }
+        }
+    }
+
+    private static long micros(long nanos) {
+        return nanos / 1000;
+    }
+
+    private double number(String name, double defaultValue) {
+        String value = options.get(name);
+        return value == null ? defaultValue : Double.parseDouble(value);
+    }
+}
+
+// Response time (from scheduled arrival) and service time (from actual start) for one operation type
+class OperationStats {
+    private final LatencyHistogram responseTimes = new LatencyHistogram();
+    private final LatencyHistogram serviceTimes = new LatencyHistogram();
+    private final LongAdder rejected = new LongAdder();
+
+    public void record(long responseNanos, long serviceNanos, boolean wasRejected) {
+        responseTimes.record(responseNanos);
+        serviceTimes.record(serviceNanos);
+        if (wasRejected) rejected.increment();
+    }
+
+    public LatencyHistogram getResponseTimes() { return responseTimes; }
+    public LatencyHistogram getServiceTimes() { return serviceTimes; }
+    public long getRejected() { return rejected.sum(); }
+}
@@ -0,0 +1,325 @@
+package cafe;
+
+import java.io.*;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+// Versioned change log behind MenuController. Every add, update, delete and availability change
+// bumps a monotonic version and is logged with the fields it touched, so a terminal holding
+// version v can pull just what changed since v as a compact binary delta instead of the whole
+// menu. Items are keyed by name, which MenuController keeps unique (ignoring case). The log is
+// compacted to the latest state per item once it grows; deletions are kept as tombstones for
+// TOMBSTONE_RETENTION versions, and terminals older than that (or new ones) get a full snapshot
+// flagged as a reset.
+public class MenuChangeLog {
+    static final int PRICE = 1, CATEGORY = 2, INGREDIENTS = 4, AVAILABLE = 8, ALL_FIELDS = 15;
+    static final int DELETED = 0x80;
+    static final int FORMAT = 1;
+    static final int RESET = 1;
+    private static final long TOMBSTONE_RETENTION = 10_000;
+    private static final int MIN_COMPACT_SIZE = 1_024;
+
+    private final List<MenuChange> log = new ArrayList<>();
+    private long version = 1;     // version 1 is the menu the controller started with
+    private long snapshotBelow = 1; // deltas from versions below this need a full snapshot
+    private int compactAt = MIN_COMPACT_SIZE;
+
+    public synchronized long getVersion() {
+        return version;
+    }
+
+    public synchronized int size() {
+        return log.size();
+    }
+
+    // Records a change to the item; fields is a mask of PRICE, CATEGORY, INGREDIENTS and AVAILABLE
+    public synchronized long record(MenuItem item, int fields) {
+        log.add(new MenuChange(++version, item.getName(), fields, item));
+        compactIfGrown();
+        return version;
+    }
+
+    public synchronized long recordDeleted(String itemName) {
+        log.add(new MenuChange(++version, itemName, DELETED, null));
+        compactIfGrown();
+        return version;
+    }
+
+    private void compactIfGrown() {
+        if (log.size() >= compactAt) {
+            compact();
+            compactAt = Math.max(MIN_COMPACT_SIZE, log.size() * 2);
+        }
+    }
+
+    // Keeps one entry per item with the union of the fields changed, and drops old tombstones
+    public synchronized void compact() {
+        Map<String, MenuChange> latest = new LinkedHashMap<>();
+        for (MenuChange change : log) {
+            latest.merge(change.key, change, MenuChange::mergedWith);
+        }
+        long horizon = version - TOMBSTONE_RETENTION;
+        List<MenuChange> compacted = new ArrayList<>(latest.size());
+        for (MenuChange change : latest.values()) {
+            if (change.isDeleted() && change.version <= horizon) {
+                snapshotBelow = Math.max(snapshotBelow, change.version);
+            } else {
+                compacted.add(change);
+            }
+        }
+        compacted.sort(Comparator.comparingLong(c -> c.version));
+        log.clear();
+        log.addAll(compacted);
+    }
+
+    // Everything that changed after the given version, one record per item; a reset snapshot of
+    // the current menu when the log no longer reaches back that far
+    public synchronized byte[] deltaSince(long since, List<MenuItem> currentMenu) {
+        if (since > version) {
+            throw new IllegalArgumentException("Version " + since + " is ahead of the menu (" + version + ").");
+        }
+        DeltaWriter out = new DeltaWriter();
+        out.header(since, version, since < snapshotBelow);
+        if (since < snapshotBelow) {
+            out.varint(currentMenu.size());
+            for (MenuItem item : currentMenu) {
+                out.item(item.getName(), ALL_FIELDS, item);
+            }
+            return out.toByteArray();
+        }
+        Map<String, MenuChange> changed = new LinkedHashMap<>();
+        for (int i = firstAfter(since); i < log.size(); i++) {
+            MenuChange change = log.get(i);
+            changed.merge(change.key, change, MenuChange::mergedWith);
+        }
+        out.varint(changed.size());
+        for (MenuChange change : changed.values()) {
+            out.item(change.name, change.fields, change.isDeleted() ? null : change.item);
+        }
+        return out.toByteArray();
+    }
+
+    private int firstAfter(long since) {
+        int lo = 0, hi = log.size();
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (log.get(mid).version <= since) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+}
+
+// One logged change; item is the live MenuItem, so a delta always carries its current values
+final class MenuChange {
+    final long version;
+    final String name;
+    final String key;
+    final int fields;
+    final MenuItem item;
+
+    MenuChange(long version, String name, int fields, MenuItem item) {
+        this.version = version;
+        this.name = name;
+        this.key = name.toLowerCase();
+        this.fields = fields;
+        this.item = item;
+    }
+
+    boolean isDeleted() {
+        return (fields & MenuChangeLog.DELETED) != 0;
+    }
+
+    // The later change wins; a re-added item after a delete is sent in full
+    MenuChange mergedWith(MenuChange later) {
+        if (later.isDeleted()) return later;
+        int fields = isDeleted() ? MenuChangeLog.ALL_FIELDS : this.fields | later.fields;
+        return new MenuChange(later.version, later.name, fields, later.item);
+    }
+}
+
+// Delta layout: format, since, version (varints), flags, record count, then per record an op
+// byte (DELETED or the field mask), the item name and the masked fields in bit order: price in
+// cents (varint), category, ingredients, available (byte). Strings are varint length + UTF-8.
+final class DeltaWriter {
+    private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+    void header(long since, long version, boolean reset) {
+        varint(MenuChangeLog.FORMAT);
+        varint(since);
+        varint(version);
+        bytes.write(reset ? MenuChangeLog.RESET : 0);
+    }
+
+    void item(String name, int fields, MenuItem item) {
+        bytes.write(fields);
+        string(name);
+        if ((fields & MenuChangeLog.PRICE) != 0) varint(Math.round(item.getPrice() * 100));
+        if ((fields & MenuChangeLog.CATEGORY) != 0) string(item.getCategory());
+        if ((fields & MenuChangeLog.INGREDIENTS) != 0) string(item.getIngredients());
+        if ((fields & MenuChangeLog.AVAILABLE) != 0) bytes.write(item.isAvailable() ? 1 : 0);
+    }
+
+    void varint(long value) {
+        while ((value & ~0x7FL) != 0) {
+            bytes.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        bytes.write((int) value);
+    }
+
+    private void string(String s) {
+        byte[] utf8 = (s == null ? "" : s).getBytes(StandardCharsets.UTF_8);
+        varint(utf8.length);
+        bytes.write(utf8, 0, utf8.length);
+    }
+
+    byte[] toByteArray() {
+        return bytes.toByteArray();
+    }
+}
+
+// A decoded delta, applied on the terminal side
+class MenuDelta {
+    private final long since;
+    private final long version;
+    private final boolean reset;
+    private final List<Record> records = new ArrayList<>();
+
+    private static final class Record {
+        final String name;
+        final int fields;
+        final double price;
+        final String category;
+        final String ingredients;
+        final boolean available;
+
+        Record(String name, int fields, double price, String category, String ingredients, boolean available) {
+            this.name = name;
+            this.fields = fields;
+            this.price = price;
+            this.category = category;
+            this.ingredients = ingredients;
+            this.available = available;
+        }
+    }
+
+    private MenuDelta(long since, long version, boolean reset) {
+        this.since = since;
+        this.version = version;
+        this.reset = reset;
+    }
+
+    public long getSince() { return since; }
+    public long getVersion() { return version; }
+    public boolean isReset() { return reset; }
+    public int size() { return records.size(); }
+
+    public static MenuDelta decode(byte[] data) {
+        DeltaReader in = new DeltaReader(data);
+        if (in.varint() != MenuChangeLog.FORMAT) {
+            throw new IllegalArgumentException("Unsupported menu delta format.");
+        }
+        MenuDelta delta = new MenuDelta(in.varint(), in.varint(), (in.readByte() & MenuChangeLog.RESET) != 0);
+        for (long n = in.varint(); n > 0; n--) {
+            int fields = in.readByte();
+            String name = in.string();
+            double price = (fields & MenuChangeLog.PRICE) != 0 ? in.varint() / 100.0 : 0;
+            String category = (fields & MenuChangeLog.CATEGORY) != 0 ? in.string() : null;
+            String ingredients = (fields & MenuChangeLog.INGREDIENTS) != 0 ? in.string() : null;
+            boolean available = (fields & MenuChangeLog.AVAILABLE) != 0 && in.readByte() != 0;
+            delta.records.add(new Record(name, fields, price, category, ingredients, available));
+        }
+        return delta;
+    }
+
+    // Brings the terminal's menu to this delta's version and returns it. Throws
+    // IllegalStateException if the delta starts from a version other than the terminal's.
+    public long applyTo(MenuController menu, long terminalVersion) {
+        if (!reset && since != terminalVersion) {
+            throw new IllegalStateException("Delta starts at version " + since + ", terminal is at " + terminalVersion + ".");
+        }
+        if (reset) {
+            Set<String> kept = new HashSet<>();
+            for (Record record : records) kept.add(record.name.toLowerCase());
+            for (MenuItem item : new ArrayList<>(menu.getMenuItems())) {
+                if (!kept.contains(item.getName().toLowerCase())) menu.deleteMenuItem(item.getName());
+            }
+        }
+        for (Record record : records) {
+            menu.applySyncedChange(record.name, record.fields, record.price, record.category,
+                    record.ingredients, record.available);
+        }
+        return version;
+    }
+}
+
+final class DeltaReader {
+    private final byte[] data;
+    private int pos;
+
+    DeltaReader(byte[] data) {
+        this.data = data;
+    }
+
+    int readByte() {
+        if (pos >= data.length) throw new IllegalArgumentException("Truncated menu delta.");
+        return data[pos++] & 0xFF;
+    }
+
+    long varint() {
+        long value = 0;
+        for (int shift = 0; ; shift += 7) {
+            int b = readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return value;
+        }
+    }
+
+    String string() {
+        int length = (int) varint();
+        if (pos + length > data.length) throw new IllegalArgumentException("Truncated menu delta.");
+        String s = new String(data, pos, length, StandardCharsets.UTF_8);
+        pos += length;
+        return s;
+    }
+}
+
+// Keeps a terminal's menu in step with the store server by pulling GET /menu/delta?since=<version>
+class MenuSyncClient {
+    private final MenuController menu;
+    private final URI server;
+    private final HttpClient http = HttpClient.newHttpClient();
+    private long version;
+
+    MenuSyncClient(MenuController menu, URI server) {
+        this.menu = menu;
+        this.server = server;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    // Returns the number of items changed; on a version mismatch the next pull starts from scratch
+    public synchronized int pull() throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(server.resolve("/menu/delta?since=" + version)).GET().build();
+        HttpResponse<byte[]> response = http.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != 200) {
+            version = 0;
+            throw new IOException("Menu sync failed with HTTP " + response.statusCode());
+        }
+        MenuDelta delta = MenuDelta.decode(response.body());
+        try {
+            version = delta.applyTo(menu, version);
+        } catch (IllegalStateException e) {
+            version = 0;
+            throw e;
+        }
+        return delta.size();
+    }
+}
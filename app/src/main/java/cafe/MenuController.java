@@ -0,0 +1,449 @@
+package cafe;
+
+import java.io.*;
+import java.util.*;
+
+// Controller: Coordinates Actions
+class MenuController {
+    private static final OperationTimer FIND_TIMER = CafeMetrics.timer("menu.findMenuItemByName");
+    private static final OperationTimer FILTER_TIMER = CafeMetrics.timer("menu.filterMenu");
+    private static final OperationTimer IMPORT_TIMER = CafeMetrics.timer("menu.importMenuFromFile");
+    private static final OperationTimer EXPORT_TIMER = CafeMetrics.timer("menu.exportMenuToFile");
+    private static final OperationTimer ADD_TIMER = CafeMetrics.timer("menu.addMenuItem");
+    private static final OperationTimer DELETE_TIMER = CafeMetrics.timer("menu.deleteMenuItem");
+    private static final OperationTimer AVAILABILITY_TIMER = CafeMetrics.timer("menu.updateAvailability");
+
+    private List<MenuItem> menuItems;
+    private List<MenuItem> menuItemsView;
+    private MenuView view;
+    private CafeEventBus eventBus = CafeEventBus.shared();
+    private final MenuChangeLog changeLog = new MenuChangeLog();
+    private MenuSnapshot snapshot;
+    private MenuSearchIndex searchIndex; // built on the first suggest(), then kept up to date; guarded by this
+
+    public MenuController() {
+        this(Collections.emptyList());
+    }
+
+    // Starts from the given items; the list is copied, the items themselves are shared.
+    // Item names must be unique, ignoring case: the change log and menu sync key items by name.
+    public MenuController(List<MenuItem> items) {
+        Set<String> names = new HashSet<>();
+        for (MenuItem item : items) {
+            if (!names.add(item.getName().toLowerCase())) {
+                throw new IllegalArgumentException("Duplicate menu item: " + item.getName());
+            }
+        }
+        menuItems = new ArrayList<>(items);
+        menuItemsView = Collections.unmodifiableList(menuItems);
+        view = new MenuView();
+    }
+
+    public void setEventBus(CafeEventBus eventBus) {
+        this.eventBus = eventBus;
+    }
+
+    // Start the menu system loop
+    public void start() {
+        while (true) {
+            view.showMessage("\nMenu Management System:");
+            view.showMessage("1. Add Menu Item");
+            view.showMessage("2. Update Menu Item");
+            view.showMessage("3. Delete Menu Item");
+            view.showMessage("4. Mark Item as Out of Stock");
+            view.showMessage("5. Mark Item as Available");
+            view.showMessage("6. Search for a Menu Item");
+            view.showMessage("7. Filter Menu by Dietary Requirements");
+            view.showMessage("8. Import Menu from File");
+            view.showMessage("9. Export Menu to File");
+            view.showMessage("0. Exit");
+
+            String choice = view.getInput("Choose an option: ");
+
+            switch (choice) {
+                case "1":
+                    addMenuItem();
+                    break;
+                case "2":
+                    updateMenuItem();
+                    break;
+                case "3":
+                    deleteMenuItem();
+                    break;
+                case "4":
+                    markOutOfStock();
+                    break;
+                case "5":
+                    markAvailable();
+                    break;
+                case "6":
+                    searchMenuItem();
+                    break;
+                case "7":
+                    filterMenu();
+                    break;
+                case "8":
+                    importMenuFromFile();
+                    break;
+                case "9":
+                    exportMenuToFile();
+                    break;
+                case "0":
+                    view.showMessage("Exiting the system.");
+                    return;
+                default:
+                    view.showMessage("Invalid option. Please try again.");
+            }
+        }
+    }
+
+    // All public so they can be called from outside if needed
+    public void addMenuItem() {
+        String name = view.getInput("Enter item name: ");
+        if (findMenuItemByName(name) != null) {
+            view.showMessage("An item with that name already exists.");
+            return;
+        }
+        double price = readDouble("Enter price: ");
+        String category = view.getInput("Enter category: ");
+        String ingredients = view.getInput("Enter ingredients: ");
+        long start = System.nanoTime();
+        try {
+            addMenuItem(new MenuItem(name, price, category, ingredients, true));
+        } catch (IllegalArgumentException e) {
+            view.showMessage(e.getMessage());
+            return;
+        } finally {
+            ADD_TIMER.record(start);
+        }
+        view.showMessage("Menu item added successfully.");
+    }
+
+    // Throws IllegalArgumentException if an item with the same name (ignoring case) exists
+    public synchronized void addMenuItem(MenuItem item) {
+        if (indexOf(item.getName()) >= 0) {
+            throw new IllegalArgumentException("Duplicate menu item: " + item.getName());
+        }
+        menuItems.add(item);
+        menuChanged(CafeEventType.MENU_ITEM_ADDED, item, MenuChangeLog.ALL_FIELDS);
+    }
+
+    public void updateMenuItem() {
+        String name = view.getInput("Enter the name of the item to update: ");
+        MenuItem item = findMenuItemByName(name);
+        if (item != null) {
+            double price = readDouble("Enter new price: ");
+            String ingredients = view.getInput("Enter new ingredients: ");
+            synchronized (this) {
+                item.setPrice(price);
+                item.setIngredients(ingredients);
+                menuChanged(CafeEventType.MENU_ITEM_UPDATED, item, MenuChangeLog.PRICE | MenuChangeLog.INGREDIENTS);
+            }
+            view.showMessage("Menu item updated successfully.");
+        } else {
+            view.showMessage("Item not found.");
+        }
+    }
+
+    public void deleteMenuItem() {
+        String name = view.getInput("Enter the name of the item to delete: ");
+        if (deleteMenuItem(name)) {
+            view.showMessage("Menu item deleted successfully.");
+        } else {
+            view.showMessage("Item not found.");
+        }
+    }
+
+    public synchronized boolean deleteMenuItem(String name) {
+        long start = System.nanoTime();
+        List<MenuItem> deleted = new ArrayList<>();
+        boolean removed = menuItems.removeIf(item -> item.getName().equalsIgnoreCase(name) && deleted.add(item));
+        DELETE_TIMER.record(start);
+        for (MenuItem item : deleted) {
+            if (searchIndex != null) searchIndex.remove(item);
+            changeLog.recordDeleted(item.getName());
+            eventBus.publishMenuItem(CafeEventType.MENU_ITEM_DELETED, item);
+        }
+        return removed;
+    }
+
+    public void markOutOfStock() {
+        String name = view.getInput("Enter the name of the item to mark as out of stock: ");
+        MenuItem item = findMenuItemByName(name);
+        if (item != null) {
+            updateAvailability(item.getName(), false);
+            view.showMessage("Menu item marked as out of stock.");
+        } else {
+            view.showMessage("Item not found.");
+        }
+    }
+
+    public void markAvailable() {
+        String name = view.getInput("Enter the name of the item to mark as available: ");
+        MenuItem item = findMenuItemByName(name);
+        if (item != null) {
+            updateAvailability(item.getName(), true);
+            view.showMessage("Menu item marked as available.");
+        } else {
+            view.showMessage("Item not found.");
+        }
+    }
+
+    public void searchMenuItem() {
+        String name = view.getInput("Enter the name of the item to search: ");
+        MenuItem item = findMenuItemByName(name);
+        if (item != null) {
+            view.showMessage(item.toString());
+        } else {
+            view.showMessage("Item not found." + didYouMean(name));
+        }
+    }
+
+    // " Did you mean: A, B?" for a name that didn't match, or "" when nothing is close
+    public String didYouMean(String name) {
+        List<MenuItem> close = suggest(name, 3);
+        if (close.isEmpty()) return "";
+        StringJoiner names = new StringJoiner(", ", " Did you mean: ", "?");
+        for (MenuItem item : close) names.add(item.getName());
+        return names.toString();
+    }
+
+    // Closest items by name or category, tolerating typos (see MenuSearchIndex)
+    public List<MenuItem> suggest(String query, int limit) {
+        return searchIndex().search(query, limit);
+    }
+
+    // Built once; every later add, delete and category change reaches it through menuChanged
+    private synchronized MenuSearchIndex searchIndex() {
+        if (searchIndex == null) {
+            searchIndex = new MenuSearchIndex(menuItems);
+        }
+        return searchIndex;
+    }
+
+    public void filterMenu() {
+        String filter = view.getInput("Enter dietary requirement to filter by (e.g., vegetarian): ");
+        view.displayMenu(filterMenu(filter));
+    }
+
+    // Items whose ingredients contain the given text (case-insensitive)
+    public synchronized List<MenuItem> filterMenu(String filter) {
+        long start = System.nanoTime();
+        String needle = filter.toLowerCase();
+        List<MenuItem> filteredItems = new ArrayList<>();
+        for (MenuItem item : menuItems) {
+            if (item.getIngredients().toLowerCase().contains(needle)) {
+                filteredItems.add(item);
+            }
+        }
+        FILTER_TIMER.record(start);
+        return filteredItems;
+    }
+
+    public void importMenuFromFile() {
+        String filePath = view.getInput("Enter file path to import: ");
+        try {
+            importMenuFromFile(filePath);
+            view.showMessage("Menu imported successfully.");
+        } catch (IOException | NumberFormatException e) {
+            view.showMessage("Error reading file: " + e.getMessage());
+        }
+    }
+
+    // Reads name,price,category,ingredients,available rows; returns the number of items added.
+    // Rows naming an item already on the menu are skipped.
+    public int importMenuFromFile(String filePath) throws IOException {
+        long start = System.nanoTime();
+        MenuImportEvent event = new MenuImportEvent();
+        event.begin();
+        int imported = 0;
+        try (BufferedReader br = new BufferedReader(new FileReader(filePath))) {
+            // Parse the whole file first so the menu is only locked while the items go in
+            List<MenuItem> items = new ArrayList<>();
+            String line;
+            while ((line = br.readLine()) != null) {
+                String[] parts = line.split(",");
+                if (parts.length == 5) {
+                    String name = parts[0];
+                    double price = Double.parseDouble(parts[1]);
+                    String category = parts[2];
+                    String ingredients = parts[3];
+                    boolean isAvailable = Boolean.parseBoolean(parts[4]);
+                    items.add(new MenuItem(name, price, category, ingredients, isAvailable));
+                }
+            }
+            synchronized (this) {
+                for (MenuItem item : items) {
+                    if (indexOf(item.getName()) >= 0) continue;
+                    addMenuItem(item);
+                    imported++;
+                }
+            }
+        } finally {
+            IMPORT_TIMER.record(start);
+            if (event.shouldCommit()) {
+                event.path = filePath;
+                event.rows = imported;
+                event.bytes = new File(filePath).length();
+                event.commit();
+            }
+        }
+        return imported;
+    }
+
+    public void exportMenuToFile() {
+        String filePath = view.getInput("Enter file path to export: ");
+        try {
+            exportMenuToFile(filePath);
+            view.showMessage("Menu exported successfully.");
+        } catch (IOException e) {
+            view.showMessage("Error writing file: " + e.getMessage());
+        }
+    }
+
+    public void exportMenuToFile(String filePath) throws IOException {
+        long start = System.nanoTime();
+        MenuExportEvent event = new MenuExportEvent();
+        event.begin();
+        // Rows are built under the lock; the file is written after it is released
+        List<String> rows = new ArrayList<>();
+        synchronized (this) {
+            for (MenuItem item : menuItems) {
+                rows.add(item.getName() + "," + item.getPrice() + "," + item.getCategory() + "," +
+                        item.getIngredients() + "," + item.isAvailable());
+            }
+        }
+        try (BufferedWriter bw = new BufferedWriter(new FileWriter(filePath))) {
+            for (String row : rows) {
+                bw.write(row);
+                bw.newLine();
+            }
+        } finally {
+            EXPORT_TIMER.record(start);
+            if (event.shouldCommit()) {
+                event.path = filePath;
+                event.rows = rows.size();
+                event.bytes = new File(filePath).length();
+                event.commit();
+            }
+        }
+    }
+
+    // Items whose name or category contains the given text (case-insensitive)
+    public synchronized List<MenuItem> searchMenu(String text) {
+        String needle = text.toLowerCase();
+        List<MenuItem> matches = new ArrayList<>();
+        for (MenuItem item : menuItems) {
+            if (item.getName().toLowerCase().contains(needle) || item.getCategory().toLowerCase().contains(needle)) {
+                matches.add(item);
+            }
+        }
+        return matches;
+    }
+
+    // Helper method: find menu item by name (case-insensitive)
+    public synchronized MenuItem findMenuItemByName(String name) {
+        long start = System.nanoTime();
+        try {
+            int i = indexOf(name);
+            return i >= 0 ? menuItems.get(i) : null;
+        } finally {
+            FIND_TIMER.record(start);
+        }
+    }
+
+    private int indexOf(String name) {
+        for (int i = 0; i < menuItems.size(); i++) {
+            if (menuItems.get(i).getName().equalsIgnoreCase(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public boolean isAvailable(String name) {
+        MenuItem item = findMenuItemByName(name);
+        return item != null && item.isAvailable();
+    }
+
+    public synchronized void updateAvailability(String name, boolean available) {
+        MenuItem item = findMenuItemByName(name);
+        if (item != null) {
+            long start = System.nanoTime();
+            item.setAvailable(available);
+            AVAILABILITY_TIMER.record(start);
+            menuChanged(CafeEventType.MENU_AVAILABILITY_CHANGED, item, MenuChangeLog.AVAILABLE);
+        }
+    }
+
+    // === VERSIONING ===
+
+    // Every mutation goes through here so terminals can sync by version
+    synchronized void menuChanged(CafeEventType type, MenuItem item, int fields) {
+        changeLog.record(item, fields);
+        if (searchIndex != null) {
+            if (type == CafeEventType.MENU_ITEM_ADDED) searchIndex.add(item);
+            else if ((fields & MenuChangeLog.CATEGORY) != 0) searchIndex.update(item);
+        }
+        eventBus.publishMenuItem(type, item);
+    }
+
+    public long getMenuVersion() {
+        return changeLog.getVersion();
+    }
+
+    // Names, prices and availability as of the current version; shared until the menu changes
+    public synchronized MenuSnapshot snapshot() {
+        long version = changeLog.getVersion();
+        if (snapshot == null || snapshot.getVersion() != version) {
+            snapshot = new MenuSnapshot(version, menuItems);
+        }
+        return snapshot;
+    }
+
+    // Binary delta from the given version to the current one (see MenuChangeLog)
+    public synchronized byte[] menuDelta(long sinceVersion) {
+        return changeLog.deltaSince(sinceVersion, menuItems);
+    }
+
+    // Applies one record of a delta pulled from the store server; unset fields keep their value
+    synchronized void applySyncedChange(String name, int fields, double price, String category, String ingredients, boolean available) {
+        if ((fields & MenuChangeLog.DELETED) != 0) {
+            deleteMenuItem(name);
+            return;
+        }
+        MenuItem item = findMenuItemByName(name);
+        if (item == null) {
+            if (fields != MenuChangeLog.ALL_FIELDS) {
+                throw new IllegalStateException("Delta updates unknown item " + name + "; a full sync is needed.");
+            }
+            addMenuItem(new MenuItem(name, price, category, ingredients, available));
+            return;
+        }
+        if ((fields & MenuChangeLog.PRICE) != 0) item.setPrice(price);
+        if ((fields & MenuChangeLog.CATEGORY) != 0) item.setCategory(category);
+        if ((fields & MenuChangeLog.INGREDIENTS) != 0) item.setIngredients(ingredients);
+        if ((fields & MenuChangeLog.AVAILABLE) != 0) item.setAvailable(available);
+        menuChanged(fields == MenuChangeLog.AVAILABLE ? CafeEventType.MENU_AVAILABILITY_CHANGED : CafeEventType.MENU_ITEM_UPDATED,
+                item, fields);
+    }
+
+    // Read-only view of the menu; changes go through addMenuItem, deleteMenuItem and menuChanged so
+    // they are versioned and indexed. Other threads iterate it, or read its items, while holding
+    // this controller's lock.
+    public List<MenuItem> getMenuItems() {
+        return menuItemsView;
+    }
+
+    // Helper method to safely read double input
+    private double readDouble(String prompt) {
+        while (true) {
+            try {
+                String input = view.getInput(prompt);
+                return Double.parseDouble(input);
+            } catch (NumberFormatException e) {
+                view.showMessage("Invalid number format. Please enter a valid decimal number.");
+            }
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package cafe;
+
+import java.lang.ref.WeakReference;
+import java.util.*;
+import java.util.concurrent.*;
+
+// Shared dictionaries behind MenuItem. Categories are stored as small ids into one table,
+// each distinct ingredient list is kept once (with its ingredient ids and allergen mask worked
+// out once), and names go through a string pool. A 100k-item multi-region menu then holds a
+// few hundred category and ingredient strings instead of 100k copies of each, and importing
+// a row that repeats an existing list costs a hash lookup instead of new strings and parsing.
+// The string pool and the ingredient lists are weak: once no menu item uses a name or a list,
+// the collector drops its entry, so menus that come and go (imports, syncs, other stores) don't
+// accumulate. Category and ingredient ids are baked into items and can't be reused, so those
+// two tables are capped instead.
+public final class MenuDictionary {
+    static final int MAX_CATEGORIES = 1 << 16;
+    static final int MAX_INGREDIENTS = 1 << 16;
+
+    private static final Map<String, Integer> CATEGORY_IDS = new ConcurrentHashMap<>();
+    private static volatile String[] categories = new String[16];
+    private static int categoryCount;
+
+    private static final Map<String, Integer> INGREDIENT_IDS = new ConcurrentHashMap<>();
+    private static final List<String> INGREDIENT_NAMES = new CopyOnWriteArrayList<>();
+    private static final Map<String, WeakReference<IngredientList>> INGREDIENT_LISTS = new WeakHashMap<>(); // guarded by itself
+
+    private static final Map<String, WeakReference<String>> STRING_POOL = new WeakHashMap<>(); // guarded by itself
+
+    private MenuDictionary() {
+    }
+
+    public static String pool(String value) {
+        if (value == null) return null;
+        synchronized (STRING_POOL) {
+            WeakReference<String> ref = STRING_POOL.get(value);
+            String pooled = ref == null ? null : ref.get();
+            if (pooled != null) return pooled;
+            STRING_POOL.put(value, new WeakReference<>(value));
+            return value;
+        }
+    }
+
+    public static int categoryId(String category) {
+        if (category == null) category = "";
+        Integer id = CATEGORY_IDS.get(category);
+        return id != null ? id : addCategory(category);
+    }
+
+    public static String category(int categoryId) {
+        return categories[categoryId];
+    }
+
+    public static int categoryCount() {
+        return CATEGORY_IDS.size();
+    }
+
+    public static IngredientList ingredients(String text) {
+        if (text == null) text = "";
+        synchronized (INGREDIENT_LISTS) {
+            WeakReference<IngredientList> ref = INGREDIENT_LISTS.get(text);
+            IngredientList list = ref == null ? null : ref.get();
+            if (list == null) {
+                list = encodeIngredients(text);
+                // keyed by the list's own text, so the entry lives exactly as long as the list
+                INGREDIENT_LISTS.put(list.getText(), new WeakReference<>(list));
+            }
+            return list;
+        }
+    }
+
+    public static String ingredient(int ingredientId) {
+        return INGREDIENT_NAMES.get(ingredientId);
+    }
+
+    // Lower-case ingredient name -> id, or -1 if no menu item uses it
+    public static int ingredientId(String ingredient) {
+        Integer id = INGREDIENT_IDS.get(ingredient.trim().toLowerCase());
+        return id == null ? -1 : id;
+    }
+
+    private static synchronized int addCategory(String category) {
+        Integer existing = CATEGORY_IDS.get(category);
+        if (existing != null) return existing;
+        if (categoryCount == MAX_CATEGORIES) {
+            throw new IllegalStateException("Too many menu categories (" + MAX_CATEGORIES + ").");
+        }
+        if (categoryCount == categories.length) {
+            categories = Arrays.copyOf(categories, categoryCount * 2);
+        }
+        String[] table = categories;
+        table[categoryCount] = pool(category);
+        categories = table; // republish so readers see the new slot
+        CATEGORY_IDS.put(category, categoryCount);
+        return categoryCount++;
+    }
+
+    // Ingredients first seen after MAX_INGREDIENTS get no id; the list's text and allergen mask still cover them
+    private static IngredientList encodeIngredients(String text) {
+        String[] parts = text.split("[,;]"); // CSV imports separate ingredients with ';'
+        int[] ids = new int[parts.length];
+        int count = 0;
+        for (String part : parts) {
+            String ingredient = part.trim();
+            if (ingredient.isEmpty()) continue;
+            int id = ingredientIdFor(ingredient);
+            if (id >= 0) ids[count++] = id;
+        }
+        return new IngredientList(pool(text), Arrays.copyOf(ids, count), SpecialRequestParser.allergenMask(text));
+    }
+
+    private static int ingredientIdFor(String ingredient) {
+        String key = ingredient.toLowerCase();
+        Integer id = INGREDIENT_IDS.get(key);
+        if (id != null) return id;
+        synchronized (INGREDIENT_NAMES) {
+            id = INGREDIENT_IDS.get(key);
+            if (id != null) return id;
+            if (INGREDIENT_NAMES.size() >= MAX_INGREDIENTS) return -1;
+            INGREDIENT_NAMES.add(ingredient); // named before the id is visible
+            INGREDIENT_IDS.put(key, INGREDIENT_NAMES.size() - 1);
+            return INGREDIENT_NAMES.size() - 1;
+        }
+    }
+}
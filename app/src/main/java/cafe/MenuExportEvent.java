@@ -0,0 +1,13 @@
+package cafe;
+
+import jdk.jfr.*;
+
+@Name("cafe.MenuExport")
+@Label("Menu Export")
+@Category({"Cafe", "Menu"})
+@StackTrace(false)
+class MenuExportEvent extends Event {
+    @Label("File") String path;
+    @Label("Rows") int rows;
+    @Label("File Size") @DataAmount long bytes;
+}
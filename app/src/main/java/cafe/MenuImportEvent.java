@@ -0,0 +1,13 @@
+package cafe;
+
+import jdk.jfr.*;
+
+@Name("cafe.MenuImport")
+@Label("Menu Import")
+@Category({"Cafe", "Menu"})
+@StackTrace(false)
+class MenuImportEvent extends Event {
+    @Label("File") String path;
+    @Label("Rows") int rows;
+    @Label("File Size") @DataAmount long bytes;
+}
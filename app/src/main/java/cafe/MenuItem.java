@@ -0,0 +1,55 @@
+package cafe;
+
+// Model: Represents a Menu Item
+// Category and ingredient list are dictionary-encoded through MenuDictionary and the name comes
+// from its string pool, so large menus share one copy of each repeated value.
+class MenuItem {
+    private String name;
+    private double price;
+    private int categoryId;
+    private IngredientList ingredients;
+    private volatile boolean isAvailable;
+
+    public MenuItem(String name, double price, String category, String ingredients, boolean isAvailable) {
+        this.name = MenuDictionary.pool(name);
+        this.price = price;
+        this.categoryId = MenuDictionary.categoryId(category);
+        this.ingredients = MenuDictionary.ingredients(ingredients);
+        this.isAvailable = isAvailable;
+    }
+
+    // Used by CafeStartupImage, whose string table already holds each name once
+    MenuItem(String name, double price, int categoryId, IngredientList ingredients, boolean isAvailable) {
+        this.name = name;
+        this.price = price;
+        this.categoryId = categoryId;
+        this.ingredients = ingredients;
+        this.isAvailable = isAvailable;
+    }
+
+    // Independent copy that shares the dictionary-encoded values; each store edits its own copies
+    MenuItem(MenuItem other) {
+        this(other.name, other.price, other.categoryId, other.ingredients, other.isAvailable);
+    }
+
+    // Getters and setters
+    public String getName() { return name; }
+    public void setName(String name) { this.name = MenuDictionary.pool(name); }
+    public double getPrice() { return price; }
+    public void setPrice(double price) { this.price = price; }
+    public String getCategory() { return MenuDictionary.category(categoryId); }
+    public void setCategory(String category) { this.categoryId = MenuDictionary.categoryId(category); }
+    public int getCategoryId() { return categoryId; }
+    public String getIngredients() { return ingredients.getText(); }
+    public void setIngredients(String ingredients) { this.ingredients = MenuDictionary.ingredients(ingredients); }
+    public int[] getIngredientIds() { return ingredients.getIds(); }
+    public int getAllergenMask() { return ingredients.getAllergenMask(); }
+    public boolean isAvailable() { return isAvailable; }
+    public void setAvailable(boolean available) { this.isAvailable = available; }
+
+    @Override
+    public String toString() {
+        return String.format("Name: %s | Price: $%.2f | Category: %s | Ingredients: %s | Available: %s",
+                name, price, getCategory(), getIngredients(), isAvailable ? "Yes" : "No");
+    }
+}
@@ -0,0 +1,28 @@
+package cafe;
+
+// Main class to start the menu system (to hold the single instance)
+public class MenuManagement {
+    private MenuController controller;
+
+    public MenuManagement() {
+        this(new MenuController());
+    }
+
+    public MenuManagement(MenuController controller) {
+        this.controller = controller;
+    }
+
+    public static void main(String[] args) {
+        MenuManagement menuManagement = new MenuManagement();
+        menuManagement.runMenuManagement();
+    }
+
+    public void runMenuManagement() {
+        controller.start();
+    }
+
+    // Shared with order management so orders are placed against the managed menu
+    public MenuController getController() {
+        return controller;
+    }
+}
@@ -0,0 +1,240 @@
+package cafe;
+
+import java.util.*;
+
+// Typo-tolerant lookup over menu item names and categories. Every item gets a slot id and each
+// trigram of its lower-cased, space-padded name points at the slots containing it. A query counts
+// shared trigrams per slot, keeps the best-overlapping candidates (a match within k edits shares
+// all but at most 3k of the query's trigrams) and ranks them by edit distance to the whole name,
+// its start or any single word of it, stopping each distance once it exceeds the bound. Trigrams
+// found in more than a sixteenth of a large menu (the "ite" of a thousand "Item ..." names) say
+// little and would dominate the counting, so they are skipped unless the query has nothing else.
+// Categories are few, so they are matched directly and keep a slot list each.
+// Adds, category updates and deletes touch only that item's postings.
+public final class MenuSearchIndex {
+    private static final int MAX_CANDIDATES = 64;
+    private static final int MIN_STOP_POSTING = 1024;
+
+    private final Map<Integer, IntList> postings = new HashMap<>();
+    private final Map<Integer, IntList> byCategory = new HashMap<>();
+    private final Map<MenuItem, Integer> slots = new IdentityHashMap<>();
+    private MenuItem[] items = new MenuItem[16];
+    private String[] indexedNames = new String[16];  // what the postings were built from, for removal
+    private int[] indexedCategories = new int[16];
+    private int[] counts = new int[16];
+    private final IntList freeSlots = new IntList();
+    private int slotCount;
+
+    public MenuSearchIndex(List<MenuItem> menu) {
+        for (MenuItem item : menu) add(item);
+    }
+
+    // === MAINTENANCE ===
+
+    public synchronized void add(MenuItem item) {
+        if (slots.containsKey(item)) return;
+        int slot = freeSlots.size() > 0 ? freeSlots.removeLast() : slotCount++;
+        if (slot == items.length) {
+            items = Arrays.copyOf(items, slot * 2);
+            indexedNames = Arrays.copyOf(indexedNames, slot * 2);
+            indexedCategories = Arrays.copyOf(indexedCategories, slot * 2);
+            counts = new int[slot * 2];
+        }
+        String name = pad(item.getName().toLowerCase());
+        items[slot] = item;
+        indexedNames[slot] = name;
+        indexedCategories[slot] = item.getCategoryId();
+        slots.put(item, slot);
+        for (int trigram : trigrams(name)) {
+            postings.computeIfAbsent(trigram, t -> new IntList()).add(slot);
+        }
+        byCategory.computeIfAbsent(item.getCategoryId(), c -> new IntList()).add(slot);
+    }
+
+    public synchronized void remove(MenuItem item) {
+        Integer slot = slots.remove(item);
+        if (slot == null) return;
+        for (int trigram : trigrams(indexedNames[slot])) {
+            IntList posting = postings.get(trigram);
+            posting.removeValue(slot);
+            if (posting.size() == 0) postings.remove(trigram);
+        }
+        byCategory.get(indexedCategories[slot]).removeValue(slot);
+        items[slot] = null;
+        indexedNames[slot] = null;
+        freeSlots.add(slot);
+    }
+
+    // Re-indexes an item whose name or category changed
+    public synchronized void update(MenuItem item) {
+        remove(item);
+        add(item);
+    }
+
+    // === SEARCH ===
+
+    // Name matches first, by edit distance, then shared trigrams, then shorter names;
+    // items of a category within the same distance come after them
+    public synchronized List<MenuItem> search(String query, int limit) {
+        String q = query.trim().toLowerCase();
+        if (q.isEmpty() || limit <= 0) return Collections.emptyList();
+        int maxEdits = q.length() <= 4 ? 1 : q.length() <= 10 ? 2 : 3;
+        List<int[]> ranked = matchNames(q, maxEdits); // slot, distance, shared
+        for (Map.Entry<Integer, IntList> category : byCategory.entrySet()) {
+            String name = MenuDictionary.category(category.getKey()).toLowerCase();
+            int distance = boundedDistance(q, name, maxEdits);
+            IntList members = category.getValue();
+            for (int i = 0; distance <= maxEdits && i < members.size() && i < limit; i++) {
+                ranked.add(new int[]{members.get(i), distance, 0});
+            }
+        }
+        ranked.sort((a, b) -> a[1] != b[1] ? a[1] - b[1]
+                : a[2] != b[2] ? b[2] - a[2]
+                : items[a[0]].getName().length() - items[b[0]].getName().length());
+        List<MenuItem> matches = new ArrayList<>(Math.min(limit, ranked.size()));
+        Set<Integer> seen = new HashSet<>();
+        for (int i = 0; i < ranked.size() && matches.size() < limit; i++) {
+            if (seen.add(ranked.get(i)[0])) matches.add(items[ranked.get(i)[0]]);
+        }
+        return matches;
+    }
+
+    private List<int[]> matchNames(String q, int maxEdits) {
+        int stopSize = Math.max(MIN_STOP_POSTING, slots.size() / 16);
+        List<IntList> informative = new ArrayList<>();
+        IntList rarest = null;
+        int trigramCount = 0;
+        for (int trigram : trigrams(pad(q))) {
+            trigramCount++;
+            IntList posting = postings.get(trigram);
+            if (posting == null) continue;
+            if (posting.size() <= stopSize) informative.add(posting);
+            if (rarest == null || posting.size() < rarest.size()) rarest = posting;
+        }
+        if (informative.isEmpty() && rarest != null) informative.add(rarest);
+        int skipped = trigramCount - informative.size();
+        int minShared = Math.max(1, trigramCount - skipped - 3 * maxEdits);
+
+        IntList touched = new IntList();
+        for (IntList posting : informative) {
+            for (int i = 0; i < posting.size(); i++) {
+                int slot = posting.get(i);
+                if (counts[slot]++ == 0) touched.add(slot);
+            }
+        }
+
+        // Bucket by shared trigrams, then take the best-overlapping slots that could be within maxEdits
+        IntList[] byShared = new IntList[informative.size() + 1];
+        for (int i = 0; i < touched.size(); i++) {
+            int slot = touched.get(i);
+            int shared = counts[slot];
+            counts[slot] = 0;
+            if (shared < minShared) continue;
+            if (byShared[shared] == null) byShared[shared] = new IntList();
+            byShared[shared].add(slot);
+        }
+        List<int[]> ranked = new ArrayList<>();
+        int examined = 0;
+        for (int shared = byShared.length - 1; shared >= minShared && examined < MAX_CANDIDATES; shared--) {
+            IntList bucket = byShared[shared];
+            for (int i = 0; bucket != null && i < bucket.size() && examined < MAX_CANDIDATES; i++, examined++) {
+                int distance = distance(q, items[bucket.get(i)].getName().toLowerCase(), maxEdits);
+                if (distance <= maxEdits) ranked.add(new int[]{bucket.get(i), distance, shared});
+            }
+        }
+        return ranked;
+    }
+
+    // Smallest distance from the query to the name, its start or one of its words
+    private static int distance(String q, String name, int maxEdits) {
+        int distance = boundedDistance(q, name, maxEdits);
+        if (distance > 0 && name.length() > q.length()) {
+            distance = Math.min(distance, boundedDistance(q, name.substring(0, q.length()), maxEdits));
+        }
+        if (distance > 0 && name.indexOf(' ') >= 0) {
+            for (String word : name.split(" +")) {
+                distance = Math.min(distance, boundedDistance(q, word, maxEdits));
+            }
+        }
+        return distance;
+    }
+
+    // Levenshtein distance, or max + 1 as soon as it is certain to exceed max
+    static int boundedDistance(String a, String b, int max) {
+        if (Math.abs(a.length() - b.length()) > max) return max + 1;
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) previous[j] = j;
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = i;
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > max) return max + 1;
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return Math.min(previous[b.length()], max + 1);
+    }
+
+    // === TRIGRAMS ===
+
+    // Padded so short words and word starts get their own trigrams
+    private static String pad(String text) {
+        return "  " + text + " ";
+    }
+
+    // Distinct trigrams packed as 10 bits per char; rare collisions only add candidates,
+    // which the edit distance then rejects
+    private static int[] trigrams(String text) {
+        int count = Math.max(0, text.length() - 2);
+        int[] trigrams = new int[count];
+        for (int i = 0; i < count; i++) {
+            trigrams[i] = (text.charAt(i) & 0x3FF) << 20 | (text.charAt(i + 1) & 0x3FF) << 10 | (text.charAt(i + 2) & 0x3FF);
+        }
+        Arrays.sort(trigrams);
+        int distinct = 0;
+        for (int i = 0; i < count; i++) {
+            if (i == 0 || trigrams[i] != trigrams[i - 1]) trigrams[distinct++] = trigrams[i];
+        }
+        return Arrays.copyOf(trigrams, distinct);
+    }
+}
+
+// Growable int array for postings; order is not kept on removal
+final class IntList {
+    private int[] values = new int[4];
+    private int size;
+
+    void add(int value) {
+        if (size == values.length) values = Arrays.copyOf(values, size * 2);
+        values[size++] = value;
+    }
+
+    int get(int index) {
+        return values[index];
+    }
+
+    int size() {
+        return size;
+    }
+
+    int removeLast() {
+        return values[--size];
+    }
+
+    // Swaps the last value into the removed one's place
+    void removeValue(int value) {
+        for (int i = 0; i < size; i++) {
+            if (values[i] == value) {
+                values[i] = values[--size];
+                return;
+            }
+        }
+    }
+
+}
@@ -0,0 +1,48 @@
+package cafe;
+
+import java.util.*;
+
+// Immutable view of the menu at one version: name lookup plus the price and availability
+// each item had when the snapshot was taken
+final class MenuSnapshot {
+    private final long version;
+    private final MenuItem[] items;
+    private final double[] prices;
+    private final boolean[] available;
+    private final Map<String, Integer> byName;
+
+    MenuSnapshot(long version, List<MenuItem> menu) {
+        this.version = version;
+        items = menu.toArray(new MenuItem[0]);
+        prices = new double[items.length];
+        available = new boolean[items.length];
+        byName = new HashMap<>(items.length * 2);
+        for (int i = 0; i < items.length; i++) {
+            prices[i] = items[i].getPrice();
+            available[i] = items[i].isAvailable();
+            byName.putIfAbsent(items[i].getName().toLowerCase(Locale.ROOT), i); // first match wins, as in findMenuItemByName
+        }
+    }
+
+    long getVersion() {
+        return version;
+    }
+
+    // -1 when no item has this name (case-insensitive)
+    int indexOf(String name) {
+        Integer index = byName.get(name.toLowerCase(Locale.ROOT));
+        return index == null ? -1 : index;
+    }
+
+    MenuItem getItem(int index) {
+        return items[index];
+    }
+
+    double getPrice(int index) {
+        return prices[index];
+    }
+
+    boolean isAvailable(int index) {
+        return available[index];
+    }
+}
@@ -0,0 +1,28 @@
+package cafe;
+
+import java.util.*;
+
+// View: Handles Display and Input
+class MenuView {
+    private Scanner scanner = new Scanner(System.in);
+
+    public void displayMenu(List<MenuItem> menuItems) {
+        if (menuItems.isEmpty()) {
+            System.out.println("No menu items available.");
+        } else {
+            System.out.println("\nMenu Items:");
+            for (MenuItem item : menuItems) {
+                System.out.println(item);
+            }
+        }
+    }
+
+    public void showMessage(String message) {
+        System.out.println(message);
+    }
+
+    public String getInput(String prompt) {
+        System.out.print(prompt);
+        return scanner.nextLine();
+    }
+}
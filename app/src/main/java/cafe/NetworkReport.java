@@ -0,0 +1,49 @@
+package cafe;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+class NetworkReport {
+    private final Map<String, Double> revenueByStore = new TreeMap<>();
+    private final Map<String, Long> itemsSold = new HashMap<>();
+    private List<Map.Entry<String, Long>> topItems = new ArrayList<>();
+    private double totalRevenue;
+    private long totalOrders;
+
+    void merge(StoreSummary summary) {
+        revenueByStore.put(summary.storeId, summary.revenue);
+        totalRevenue += summary.revenue;
+        totalOrders += summary.orderCount;
+        for (Map.Entry<String, Long> entry : summary.itemsSold.entrySet()) {
+            itemsSold.merge(entry.getKey(), entry.getValue(), Long::sum);
+        }
+    }
+
+    void trimTopItems(int limit) {
+        topItems = itemsSold.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+
+    public Map<String, Double> getRevenueByStore() { return revenueByStore; }
+    public List<Map.Entry<String, Long>> getTopItems() { return topItems; }
+    public double getTotalRevenue() { return totalRevenue; }
+    public long getTotalOrders() { return totalOrders; }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("----- NETWORK REPORT -----\n");
+        sb.append("Stores: ").append(revenueByStore.size()).append("\n");
+        sb.append("Total Orders: ").append(totalOrders).append("\n");
+        sb.append(String.format("Total Revenue: $%.2f%n", totalRevenue));
+        for (Map.Entry<String, Double> entry : revenueByStore.entrySet()) {
+            sb.append(String.format("  %s: $%.2f%n", entry.getKey(), entry.getValue()));
+        }
+        sb.append("Top Items:\n");
+        for (Map.Entry<String, Long> entry : topItems) {
+            sb.append("  ").append(entry.getKey()).append(": ").append(entry.getValue()).append(" sold\n");
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,343 @@
+package cafe;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.nio.charset.StandardCharsets;
+import java.time.*;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import static java.lang.foreign.ValueLayout.*;
+
+// Off-heap home for closed orders (requires JDK 22 for the Foreign Function and Memory API).
+// Orders and their lines are laid out as fixed-size records in MemorySegment slabs, with
+// special requests and promotions in a variable-length text area, and an open-addressing
+// order id -> record table also off heap. The heap only holds the slab references and small
+// dictionaries (item names, modifier sets), so tens of millions of line items add almost
+// nothing for the garbage collector to trace. Records are read through reusable flyweights
+// (OrderRecord, LineRecord); Order objects are only built when a caller asks for one by id.
+// All access goes through this object's lock; flyweights must not be shared between threads.
+public class OffHeapOrderStore implements ClosedOrderStore, AutoCloseable {
+    // order record: id, status, paid, time, total, first line, line count, text ref, text length, allergens
+    static final int ORDER_BYTES = 48;
+    static final int O_ID = 0, O_STATUS = 4, O_PAID = 5, O_TIME = 8, O_TOTAL = 16,
+            O_FIRST_LINE = 24, O_LINE_COUNT = 28, O_TEXT = 32, O_TEXT_LENGTH = 40, O_ALLERGENS = 44;
+    // line record: item id, quantity, unit price, allergens, modifier set
+    static final int LINE_BYTES = 24;
+    static final int L_ITEM = 0, L_QUANTITY = 4, L_PRICE = 8, L_ALLERGENS = 16, L_MODIFIERS = 20;
+
+    private static final int ORDERS_PER_SLAB = 1 << 16;
+    private static final int LINES_PER_SLAB = 1 << 18;
+    private static final int TEXT_SLAB_BYTES = 4 << 20;
+    static final char PROMOTIONS_SEPARATOR = '\u0001';
+
+    private final Arena arena = Arena.ofShared();
+    private final List<MemorySegment> orderSlabs = new ArrayList<>();
+    private final List<MemorySegment> lineSlabs = new ArrayList<>();
+    private final List<MemorySegment> textSlabs = new ArrayList<>();
+    private int orderCount;
+    private int maxOrderId;
+    private long lineCount;
+    private long textUsed = TEXT_SLAB_BYTES; // forces a slab on first use
+
+    private Arena indexArena;
+    private MemorySegment idIndex; // (order id, record) int pairs, id 0 = empty slot
+    private int indexCapacity;
+
+    private final Map<String, Integer> itemIds = new HashMap<>();
+    private final List<String> itemNames = new ArrayList<>();
+    private final Map<String, Integer> modifierSetIds = new HashMap<>();
+    private final List<String[]> modifierSets = new ArrayList<>(); // modifier names and notes
+    private final Map<LocalDate, long[]> dailyTotals = new HashMap<>(); // [orders, revenue cents]
+
+    private final Function<String, MenuItem> menuLookup;
+    private final ZoneId zone;
+    private OrderRecord lookupCursor; // created by the first find
+
+    public OffHeapOrderStore(Function<String, MenuItem> menuLookup, ZoneId zone) {
+        this.menuLookup = menuLookup;
+        this.zone = zone;
+        modifierSets.add(new String[0]);
+        modifierSetIds.put("", 0);
+        resizeIndex(1 << 16);
+    }
+
+    // === WRITING ===
+
+    @Override
+    public synchronized void archive(List<Order> batch) {
+        for (Order order : batch) {
+            append(order);
+        }
+    }
+
+    public synchronized void append(Order order) {
+        long record = (long) orderCount;
+        MemorySegment slab = orderSlab(orderCount);
+        long at = (record % ORDERS_PER_SLAB) * ORDER_BYTES;
+        slab.set(JAVA_INT, at + O_ID, order.getOrderId());
+        maxOrderId = Math.max(maxOrderId, order.getOrderId());
+        slab.set(JAVA_BYTE, at + O_STATUS, (byte) order.getStatus().ordinal());
+        slab.set(JAVA_BYTE, at + O_PAID, (byte) (order.isPaymentProcessed() ? 1 : 0));
+        slab.set(JAVA_LONG, at + O_TIME, order.getOrderDate().getTime());
+        slab.set(JAVA_LONG, at + O_TOTAL, Math.round(order.getTotalCost() * 100));
+        slab.set(JAVA_INT, at + O_ALLERGENS, order.getDeclaredAllergens());
+
+        slab.set(JAVA_INT, at + O_FIRST_LINE, (int) lineCount);
+        slab.set(JAVA_INT, at + O_LINE_COUNT, order.getItems().size());
+        for (OrderItem item : order.getItems()) {
+            MemorySegment lines = lineSlab(lineCount);
+            long l = (lineCount % LINES_PER_SLAB) * LINE_BYTES;
+            lines.set(JAVA_INT, l + L_ITEM, itemId(item.getItemName()));
+            lines.set(JAVA_INT, l + L_QUANTITY, item.getQuantity());
+            lines.set(JAVA_LONG, l + L_PRICE, Math.round(item.getPrice() * 100));
+            lines.set(JAVA_INT, l + L_ALLERGENS, item.getAllergenMask());
+            lines.set(JAVA_INT, l + L_MODIFIERS, modifierSetId(item.getModifiers()));
+            lineCount++;
+        }
+
+        String text = String.join("\n", order.getSpecialRequests()) + PROMOTIONS_SEPARATOR
+                + String.join("\n", order.getAppliedPromotions());
+        if (text.length() == 1) {
+            slab.set(JAVA_LONG, at + O_TEXT, -1);
+            slab.set(JAVA_INT, at + O_TEXT_LENGTH, 0);
+        } else {
+            byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+            slab.set(JAVA_LONG, at + O_TEXT, writeText(bytes));
+            slab.set(JAVA_INT, at + O_TEXT_LENGTH, bytes.length);
+        }
+
+        indexPut(order.getOrderId(), orderCount);
+        orderCount++;
+        if (order.getStatus() != OrderStatus.CANCELED) {
+            long[] totals = dailyTotals.computeIfAbsent(order.getOrderDate().toInstant().atZone(zone).toLocalDate(), d -> new long[2]);
+            totals[0]++;
+            if (order.isPaymentProcessed()) totals[1] += Math.round(order.getTotalCost() * 100);
+        }
+    }
+
+    // === READING ===
+
+    // Positions the flyweight on the order; false if the store doesn't hold it
+    public synchronized boolean read(int orderId, OrderRecord cursor) {
+        int record = indexGet(orderId);
+        if (record < 0) return false;
+        cursor.moveTo(record);
+        return true;
+    }
+
+    // Visits every stored order with one reused flyweight
+    public synchronized void forEach(Consumer<OrderRecord> action) {
+        OrderRecord cursor = new OrderRecord(this);
+        for (int record = 0; record < orderCount; record++) {
+            cursor.moveTo(record);
+            action.accept(cursor);
+        }
+    }
+
+    @Override
+    public synchronized Order find(int orderId) {
+        if (lookupCursor == null) lookupCursor = new OrderRecord(this);
+        return read(orderId, lookupCursor) ? lookupCursor.toOrder() : null;
+    }
+
+    @Override
+    public synchronized List<Order> ordersOn(LocalDate day) {
+        long from = day.atStartOfDay(zone).toInstant().toEpochMilli();
+        long to = day.plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli();
+        List<Order> found = new ArrayList<>();
+        forEach(record -> {
+            long time = record.getOrderTime();
+            if (time >= from && time < to) found.add(record.toOrder());
+        });
+        found.sort(Comparator.comparingInt(Order::getOrderId));
+        return found;
+    }
+
+    // Reads the records through the flyweights; no Order objects are built
+    @Override
+    public synchronized void addOrdersOn(LocalDate day, DaySegment.Builder segment) {
+        long from = day.atStartOfDay(zone).toInstant().toEpochMilli();
+        long to = day.plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli();
+        LineRecord line = new LineRecord(this);
+        forEach(record -> {
+            long time = record.getOrderTime();
+            if (time < from || time >= to) return;
+            segment.beginOrder(record.getOrderId(), time, record.getStatus());
+            for (int i = 0; i < record.getLineCount(); i++) {
+                record.line(i, line);
+                segment.line(line.getItemName(), line.getQuantity(), line.getPriceCents());
+            }
+            if (record.hasPromotions()) segment.charged(record.getTotalCents());
+        });
+    }
+
+    @Override
+    public synchronized long[] getDailyTotals(LocalDate day) {
+        return dailyTotals.getOrDefault(day, new long[2]).clone();
+    }
+
+    @Override
+    public synchronized int getArchivedCount() {
+        return orderCount;
+    }
+
+    @Override
+    public synchronized int getMaxOrderId() {
+        return maxOrderId;
+    }
+
+    public synchronized long getLineCount() {
+        return lineCount;
+    }
+
+    public synchronized long getOffHeapBytes() {
+        return (long) orderSlabs.size() * ORDERS_PER_SLAB * ORDER_BYTES
+                + (long) lineSlabs.size() * LINES_PER_SLAB * LINE_BYTES
+                + textSlabs.stream().mapToLong(MemorySegment::byteSize).sum()
+                + (long) indexCapacity * 8;
+    }
+
+    // Frees all off-heap memory; the store is unusable afterwards
+    @Override
+    public synchronized void close() {
+        indexArena.close();
+        arena.close();
+    }
+
+    // === RECORD ACCESS (used by the flyweights) ===
+
+    MemorySegment orderSlabFor(int record) {
+        return orderSlabs.get(record / ORDERS_PER_SLAB);
+    }
+
+    static long orderOffset(int record) {
+        return (long) (record % ORDERS_PER_SLAB) * ORDER_BYTES;
+    }
+
+    MemorySegment lineSlabFor(long line) {
+        return lineSlabs.get((int) (line / LINES_PER_SLAB));
+    }
+
+    static long lineOffset(long line) {
+        return (line % LINES_PER_SLAB) * LINE_BYTES;
+    }
+
+    String itemName(int itemId) {
+        return itemNames.get(itemId);
+    }
+
+    String[] modifierSet(int setId) {
+        return modifierSets.get(setId);
+    }
+
+    String readText(long ref, int length) {
+        if (ref < 0) return String.valueOf(PROMOTIONS_SEPARATOR);
+        byte[] bytes = new byte[length];
+        MemorySegment.copy(textSlabs.get((int) (ref >>> 32)), JAVA_BYTE, ref & 0xFFFFFFFFL, bytes, 0, length);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    MenuItem menuItem(String name, double price) {
+        MenuItem menuItem = menuLookup.apply(name);
+        return menuItem != null ? menuItem : new MenuItem(name, price, "", "", false);
+    }
+
+    // === ALLOCATION ===
+
+    private MemorySegment orderSlab(int record) {
+        if (record / ORDERS_PER_SLAB == orderSlabs.size()) {
+            orderSlabs.add(arena.allocate((long) ORDERS_PER_SLAB * ORDER_BYTES, 8));
+        }
+        return orderSlabs.get(record / ORDERS_PER_SLAB);
+    }
+
+    private MemorySegment lineSlab(long line) {
+        if (line / LINES_PER_SLAB == lineSlabs.size()) {
+            lineSlabs.add(arena.allocate((long) LINES_PER_SLAB * LINE_BYTES, 8));
+        }
+        return lineSlabs.get((int) (line / LINES_PER_SLAB));
+    }
+
+    // Returns (slab << 32 | offset)
+    private long writeText(byte[] bytes) {
+        MemorySegment slab = textSlabs.isEmpty() ? null : textSlabs.get(textSlabs.size() - 1);
+        if (slab == null || textUsed + bytes.length > slab.byteSize()) {
+            slab = arena.allocate(Math.max(TEXT_SLAB_BYTES, bytes.length), 8);
+            textSlabs.add(slab);
+            textUsed = 0;
+        }
+        long ref = ((long) (textSlabs.size() - 1) << 32) | textUsed;
+        MemorySegment.copy(bytes, 0, slab, JAVA_BYTE, textUsed, bytes.length);
+        textUsed += bytes.length;
+        return ref;
+    }
+
+    private int itemId(String itemName) {
+        Integer id = itemIds.get(itemName);
+        if (id == null) {
+            id = itemNames.size();
+            itemNames.add(itemName);
+            itemIds.put(itemName, id);
+        }
+        return id;
+    }
+
+    private int modifierSetId(List<String> modifiers) {
+        String key = String.join("\n", modifiers);
+        Integer id = modifierSetIds.get(key);
+        if (id == null) {
+            id = modifierSets.size();
+            modifierSets.add(modifiers.toArray(new String[0]));
+            modifierSetIds.put(key, id);
+        }
+        return id;
+    }
+
+    // === ID INDEX (linear probing, kept at most half full) ===
+
+    private void indexPut(int orderId, int record) {
+        if ((orderCount + 1) * 2L > indexCapacity) {
+            resizeIndex(indexCapacity * 2);
+        }
+        insert(idIndex, indexCapacity, orderId, record);
+    }
+
+    private int indexGet(int orderId) {
+        int mask = indexCapacity - 1;
+        for (int slot = mix(orderId) & mask; ; slot = (slot + 1) & mask) {
+            int key = idIndex.get(JAVA_INT, slot * 8L);
+            if (key == orderId) return idIndex.get(JAVA_INT, slot * 8L + 4);
+            if (key == 0) return -1;
+        }
+    }
+
+    private void resizeIndex(int capacity) {
+        Arena newArena = Arena.ofShared();
+        MemorySegment table = newArena.allocate(capacity * 8L, 8);
+        for (int slot = 0; slot < indexCapacity; slot++) {
+            int key = idIndex.get(JAVA_INT, slot * 8L);
+            if (key != 0) insert(table, capacity, key, idIndex.get(JAVA_INT, slot * 8L + 4));
+        }
+        if (indexArena != null) indexArena.close();
+        indexArena = newArena;
+        idIndex = table;
+        indexCapacity = capacity;
+    }
+
+    private static void insert(MemorySegment table, int capacity, int orderId, int record) {
+        int mask = capacity - 1;
+        int slot = mix(orderId) & mask;
+        while (table.get(JAVA_INT, slot * 8L) != 0) {
+            slot = (slot + 1) & mask;
+        }
+        table.set(JAVA_INT, slot * 8L, orderId);
+        table.set(JAVA_INT, slot * 8L + 4, record);
+    }
+
+    private static int mix(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
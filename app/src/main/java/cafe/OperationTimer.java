@@ -0,0 +1,23 @@
+package cafe;
+
+// Latency histogram and call count for one named operation
+class OperationTimer {
+    private final String name;
+    private final LatencyHistogram histogram = new LatencyHistogram();
+
+    public OperationTimer(String name) {
+        this.name = name;
+    }
+
+    public String getName() { return name; }
+    public LatencyHistogram getHistogram() { return histogram; }
+
+    // Records the time since startNanos, a value previously read from System.nanoTime()
+    public void record(long startNanos) {
+        histogram.record(System.nanoTime() - startNanos);
+    }
+
+    public void reset() {
+        histogram.reset();
+    }
+}
@@ -0,0 +1,126 @@
+package cafe;
+
+import java.util.*;
+
+class Order {
+    private int orderId;
+    private List<OrderItem> items;
+    private OrderStatus status;
+    private double totalCost;
+    private Date orderDate;
+    private boolean paymentProcessed;
+    private List<String> specialRequests = new ArrayList<>();
+    private int declaredAllergens;
+    private List<String> appliedPromotions = Collections.emptyList();
+    // Bumped by every setter. OrderController's item and request changes always end in
+    // reprice or declareAllergens, so a changed order never keeps its old stamp.
+    private int modificationStamp;
+
+    public Order(int orderId) {
+        this(orderId, new Date());
+    }
+
+    // Used when restoring archived orders
+    Order(int orderId, Date orderDate) {
+        this.orderId = orderId;
+        this.items = new ArrayList<>();
+        this.status = OrderStatus.PLACED;
+        this.orderDate = orderDate;
+    }
+
+    public int getOrderId() {
+        return orderId;
+    }
+
+    public List<OrderItem> getItems() {
+        return items;
+    }
+
+    public OrderStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(OrderStatus status) {
+        this.status = status;
+        modificationStamp++;
+    }
+
+    public Date getOrderDate() {
+        return orderDate;
+    }
+
+    public boolean isPaymentProcessed() {
+        return paymentProcessed;
+    }
+
+    public void setPaymentProcessed(boolean paymentProcessed) {
+        this.paymentProcessed = paymentProcessed;
+        modificationStamp++;
+    }
+
+    public double getTotalCost() {
+        return totalCost;
+    }
+
+    public List<String> getSpecialRequests() {
+        return specialRequests;
+    }
+
+    public int getDeclaredAllergens() {
+        return declaredAllergens;
+    }
+
+    public void declareAllergens(int mask) {
+        declaredAllergens |= mask;
+        modificationStamp++;
+    }
+
+    // Lines whose ingredients contain a declared allergen, e.g. "Burger contains [MILK]"
+    public List<String> findAllergenConflicts() {
+        List<String> conflicts = new ArrayList<>();
+        for (OrderItem item : items) {
+            int conflict = item.getAllergenConflicts();
+            if (conflict != 0) {
+                conflicts.add(item.getItemName() + " contains " + SpecialRequestParser.allergens(conflict));
+            }
+        }
+        return conflicts;
+    }
+
+    public void updateTotalCost() {
+        totalCost = items.stream().mapToDouble(item -> item.getPrice() * item.getQuantity()).sum();
+        appliedPromotions = Collections.emptyList();
+        modificationStamp++;
+    }
+
+    // Replaces the plain sum with the promotion-aware price
+    public void applyQuote(PriceQuote quote) {
+        totalCost = quote.getTotalCents() / 100.0;
+        appliedPromotions = quote.getAppliedPromotions();
+        modificationStamp++;
+    }
+
+    public int getModificationStamp() {
+        return modificationStamp;
+    }
+
+    public List<String> getAppliedPromotions() {
+        return appliedPromotions;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder details = new StringBuilder("Order ID: " + orderId + "\nStatus: " + status + "\nItems:\n");
+        for (OrderItem item : items) {
+            details.append(item).append("\n");
+        }
+        for (String request : specialRequests) {
+            details.append("Special request: ").append(request).append("\n");
+        }
+        for (String promotion : appliedPromotions) {
+            details.append("Promotion: ").append(promotion).append("\n");
+        }
+        details.append("Total Cost: $").append(totalCost);
+        return details.toString();
+    }
+}
@@ -0,0 +1,339 @@
+package cafe;
+
+import java.io.*;
+import java.nio.file.*;
+import java.time.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Function;
+import java.util.zip.*;
+
+// Compressed on-disk home for closed (COMPLETED or CANCELED) orders, so the live order map only
+// holds what is still in play. Each archival batch becomes one gzip segment under <dir>. The
+// segment starts with a small header (sorted order ids, time range, per-day totals) followed by
+// the orders. Only the headers are kept on heap, about four bytes per archived order. Lookups by
+// id binary-search the headers and decompress the one segment that holds the order; the last
+// segment read is cached.
+// Batches are handed over in memory and written on a background thread, so archiving never
+// holds the controller's lock for disk writes. Orders stay findable while their segment is being
+// written, and a batch whose write fails stays in memory and is retried with a growing delay.
+// Reads decompress on the caller's thread: OrderController looks orders up outside its lock,
+// but the end-of-day roll reads the day's segments while holding it.
+public class OrderArchive implements ClosedOrderStore {
+    private static final int FORMAT_VERSION = 1;
+
+    private final Path directory;
+    private final Function<String, MenuItem> menuLookup;
+    private final ZoneId zone;
+    private final List<ArchiveSegment> segments = new CopyOnWriteArrayList<>();
+    private final Map<Integer, Order> pending = new ConcurrentHashMap<>();
+    private final Map<LocalDate, long[]> dailyTotals = new ConcurrentHashMap<>(); // [orders, revenue cents]
+    private static final long FIRST_RETRY_SECONDS = 5;
+    private static final long MAX_RETRY_SECONDS = 300;
+
+    private final ScheduledExecutorService writer = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "order-archive-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile CachedSegment lastRead;
+    private int nextSegment;
+
+    // menuLookup resolves item names back to menu items when orders are read; unknown names get a stand-in
+    public OrderArchive(Path directory, Function<String, MenuItem> menuLookup, ZoneId zone) throws IOException {
+        this.directory = directory;
+        this.menuLookup = menuLookup;
+        this.zone = zone;
+        Files.createDirectories(directory);
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "orders-*.seg.gz")) {
+            stream.forEach(files::add);
+        }
+        files.sort(Comparator.naturalOrder());
+        for (Path file : files) {
+            segments.add(readHeader(file));
+            nextSegment++;
+        }
+    }
+
+    // Takes ownership of closed orders; they are findable at once and written in the background
+    @Override
+    public void archive(List<Order> batch) {
+        if (batch.isEmpty()) return;
+        for (Order order : batch) {
+            pending.put(order.getOrderId(), order);
+            addToTotals(dailyTotals, order);
+        }
+        Path file = directory.resolve(String.format("orders-%08d.seg.gz", nextSegment++));
+        writer.execute(() -> writeBatch(file, batch, FIRST_RETRY_SECONDS));
+    }
+
+    // Runs on the writer thread. On failure the orders stay in pending, still findable, and the
+    // write is requeued with double the delay, up to MAX_RETRY_SECONDS between attempts.
+    private void writeBatch(Path file, List<Order> batch, long retrySeconds) {
+        try {
+            segments.add(write(file, batch));
+        } catch (IOException | RuntimeException e) {
+            System.out.println("Could not write order archive " + file + ", retrying in " + retrySeconds + "s: " + e.getMessage());
+            writer.schedule(() -> writeBatch(file, batch, Math.min(retrySeconds * 2, MAX_RETRY_SECONDS)),
+                    retrySeconds, TimeUnit.SECONDS);
+            return;
+        }
+        for (Order order : batch) {
+            pending.remove(order.getOrderId());
+        }
+    }
+
+    // Blocks until every batch handed over so far has been written, or has failed and been requeued
+    public void flush() {
+        try {
+            writer.submit(() -> { }).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    @Override
+    public Order find(int orderId) {
+        Order order = pending.get(orderId);
+        if (order != null) return order;
+        for (int i = segments.size() - 1; i >= 0; i--) {
+            ArchiveSegment segment = segments.get(i);
+            if (segment.contains(orderId)) {
+                return load(segment).get(orderId);
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public List<Order> ordersOn(LocalDate day) {
+        long from = day.atStartOfDay(zone).toInstant().toEpochMilli();
+        long to = day.plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli();
+        Map<Integer, Order> found = new TreeMap<>();
+        for (ArchiveSegment segment : segments) {
+            if (segment.maxTime < from || segment.minTime >= to) continue;
+            for (Order order : load(segment).values()) {
+                long time = order.getOrderDate().getTime();
+                if (time >= from && time < to) found.put(order.getOrderId(), order);
+            }
+        }
+        for (Order order : pending.values()) {
+            long time = order.getOrderDate().getTime();
+            if (time >= from && time < to) found.put(order.getOrderId(), order);
+        }
+        return new ArrayList<>(found.values());
+    }
+
+    @Override
+    public long[] getDailyTotals(LocalDate day) {
+        return dailyTotals.getOrDefault(day, new long[2]).clone();
+    }
+
+    @Override
+    public int getArchivedCount() {
+        int count = pending.size();
+        for (ArchiveSegment segment : segments) count += segment.ids.length;
+        return count;
+    }
+
+    @Override
+    public int getMaxOrderId() {
+        int max = 0;
+        for (int id : pending.keySet()) max = Math.max(max, id);
+        for (ArchiveSegment segment : segments) {
+            if (segment.ids.length > 0) max = Math.max(max, segment.ids[segment.ids.length - 1]);
+        }
+        return max;
+    }
+
+    // === FORMAT ===
+
+    private ArchiveSegment write(Path file, List<Order> batch) throws IOException {
+        int[] ids = new int[batch.size()];
+        long minTime = Long.MAX_VALUE;
+        long maxTime = Long.MIN_VALUE;
+        Map<LocalDate, long[]> totals = new TreeMap<>();
+        for (int i = 0; i < ids.length; i++) {
+            Order order = batch.get(i);
+            ids[i] = order.getOrderId();
+            minTime = Math.min(minTime, order.getOrderDate().getTime());
+            maxTime = Math.max(maxTime, order.getOrderDate().getTime());
+            addToTotals(totals, order);
+        }
+        Arrays.sort(ids);
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                new GZIPOutputStream(Files.newOutputStream(temp), 64 * 1024)))) {
+            out.writeInt(FORMAT_VERSION);
+            out.writeInt(ids.length);
+            for (int id : ids) out.writeInt(id);
+            out.writeLong(minTime);
+            out.writeLong(maxTime);
+            out.writeInt(totals.size());
+            for (Map.Entry<LocalDate, long[]> day : totals.entrySet()) {
+                out.writeLong(day.getKey().toEpochDay());
+                out.writeLong(day.getValue()[0]);
+                out.writeLong(day.getValue()[1]);
+            }
+            for (Order order : batch) {
+                writeOrder(out, order);
+            }
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return new ArchiveSegment(file, ids, minTime, maxTime);
+    }
+
+    private ArchiveSegment readHeader(Path file) throws IOException {
+        try (DataInputStream in = open(file)) {
+            int[] ids = new int[in.readInt()];
+            for (int i = 0; i < ids.length; i++) ids[i] = in.readInt();
+            long minTime = in.readLong();
+            long maxTime = in.readLong();
+            int days = in.readInt();
+            for (int i = 0; i < days; i++) {
+                LocalDate day = LocalDate.ofEpochDay(in.readLong());
+                long[] totals = dailyTotals.computeIfAbsent(day, d -> new long[2]);
+                totals[0] += in.readLong();
+                totals[1] += in.readLong();
+            }
+            return new ArchiveSegment(file, ids, minTime, maxTime);
+        }
+    }
+
+    private Map<Integer, Order> load(ArchiveSegment segment) {
+        CachedSegment cached = lastRead;
+        if (cached != null && cached.segment == segment) return cached.orders;
+        Map<Integer, Order> orders = new HashMap<>();
+        try (DataInputStream in = open(segment.file)) {
+            int count = in.readInt();
+            in.skipNBytes(4L * count + 16);
+            int days = in.readInt();
+            in.skipNBytes(24L * days);
+            for (int i = 0; i < count; i++) {
+                Order order = readOrder(in);
+                orders.put(order.getOrderId(), order);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read order archive " + segment.file, e);
+        }
+        lastRead = new CachedSegment(segment, orders);
+        return orders;
+    }
+
+    private static DataInputStream open(Path file) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(Files.newInputStream(file))));
+        int version = in.readInt();
+        if (version != FORMAT_VERSION) {
+            in.close();
+            throw new IOException("Unsupported archive format " + version + " in " + file);
+        }
+        return in;
+    }
+
+    private static void writeOrder(DataOutputStream out, Order order) throws IOException {
+        out.writeInt(order.getOrderId());
+        out.writeLong(order.getOrderDate().getTime());
+        out.writeByte(order.getStatus().ordinal());
+        out.writeBoolean(order.isPaymentProcessed());
+        out.writeInt(order.getDeclaredAllergens());
+        out.writeLong(Math.round(order.getTotalCost() * 100));
+        out.writeInt(order.getItems().size());
+        for (OrderItem item : order.getItems()) {
+            out.writeUTF(item.getItemName());
+            out.writeInt(item.getQuantity());
+            out.writeDouble(item.getPrice());
+            out.writeInt(item.getAllergenMask());
+            List<String> modifiers = item.getModifiers();
+            out.writeInt(modifiers.size());
+            for (String modifier : modifiers) {
+                out.writeUTF(modifier);
+            }
+        }
+        writeStrings(out, order.getSpecialRequests());
+        writeStrings(out, order.getAppliedPromotions());
+    }
+
+    private Order readOrder(DataInputStream in) throws IOException {
+        Order order = new Order(in.readInt(), new Date(in.readLong()));
+        order.setStatus(OrderStatus.values()[in.readByte()]);
+        order.setPaymentProcessed(in.readBoolean());
+        order.declareAllergens(in.readInt());
+        long totalCents = in.readLong();
+        int items = in.readInt();
+        long listCents = 0;
+        for (int i = 0; i < items; i++) {
+            String name = in.readUTF();
+            int quantity = in.readInt();
+            double price = in.readDouble();
+            MenuItem menuItem = menuLookup.apply(name);
+            if (menuItem == null) menuItem = new MenuItem(name, price, "", "", false);
+            OrderItem item = new OrderItem(menuItem, quantity, price);
+            item.addAllergens(in.readInt());
+            int modifiers = in.readInt();
+            for (int m = 0; m < modifiers; m++) {
+                SpecialRequestParser.addModifier(item, in.readUTF());
+            }
+            order.getItems().add(item);
+            listCents += Math.round(price * 100) * quantity;
+        }
+        order.getSpecialRequests().addAll(readStrings(in));
+        order.applyQuote(new PriceQuote(listCents, totalCents, readStrings(in)));
+        return order;
+    }
+
+    private static void writeStrings(DataOutputStream out, List<String> values) throws IOException {
+        out.writeInt(values.size());
+        for (String value : values) out.writeUTF(value);
+    }
+
+    private static List<String> readStrings(DataInputStream in) throws IOException {
+        int count = in.readInt();
+        if (count == 0) return Collections.emptyList();
+        List<String> values = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) values.add(in.readUTF());
+        return values;
+    }
+
+    private void addToTotals(Map<LocalDate, long[]> totals, Order order) {
+        if (order.getStatus() == OrderStatus.CANCELED) return;
+        LocalDate day = order.getOrderDate().toInstant().atZone(zone).toLocalDate();
+        long[] dayTotals = totals.computeIfAbsent(day, d -> new long[2]);
+        synchronized (dayTotals) {
+            dayTotals[0]++;
+            if (order.isPaymentProcessed()) dayTotals[1] += Math.round(order.getTotalCost() * 100);
+        }
+    }
+}
+
+// On-heap header of one archive file
+final class ArchiveSegment {
+    final Path file;
+    final int[] ids; // sorted
+    final long minTime;
+    final long maxTime;
+
+    ArchiveSegment(Path file, int[] ids, long minTime, long maxTime) {
+        this.file = file;
+        this.ids = ids;
+        this.minTime = minTime;
+        this.maxTime = maxTime;
+    }
+
+    boolean contains(int orderId) {
+        return ids.length > 0 && orderId >= ids[0] && orderId <= ids[ids.length - 1]
+                && Arrays.binarySearch(ids, orderId) >= 0;
+    }
+}
+
+final class CachedSegment {
+    final ArchiveSegment segment;
+    final Map<Integer, Order> orders;
+
+    CachedSegment(ArchiveSegment segment, Map<Integer, Order> orders) {
+        this.segment = segment;
+        this.orders = orders;
+    }
+}
@@ -0,0 +1,96 @@
+package cafe;
+
+import java.util.*;
+
+// A batch of orders for OrderController.placeOrders, kept as flat arrays of lines:
+// the lines of order o are names[starts[o]] .. names[starts[o + 1] - 1].
+// Names may repeat within an order and differ in case; placeOrders merges them.
+public class OrderBatch {
+    private String[] names = new String[16];
+    private int[] quantities = new int[16];
+    private int[] starts = new int[9];
+    private int orderCount;
+    private int lineCount;
+
+    public static OrderBatch of(List<Map<String, Integer>> baskets) {
+        OrderBatch batch = new OrderBatch();
+        for (Map<String, Integer> basket : baskets) {
+            batch.addOrder();
+            for (Map.Entry<String, Integer> line : basket.entrySet()) {
+                batch.addLine(line.getKey(), line.getValue());
+            }
+        }
+        return batch;
+    }
+
+    // Starts the next order; the following lines belong to it
+    public OrderBatch addOrder() {
+        if (orderCount + 2 > starts.length) starts = Arrays.copyOf(starts, starts.length * 2);
+        orderCount++;
+        starts[orderCount] = lineCount;
+        return this;
+    }
+
+    public OrderBatch addLine(String itemName, int quantity) {
+        if (orderCount == 0) {
+            throw new IllegalStateException("addOrder() must come before the first line.");
+        }
+        if (lineCount == names.length) {
+            names = Arrays.copyOf(names, lineCount * 2);
+            quantities = Arrays.copyOf(quantities, lineCount * 2);
+        }
+        names[lineCount] = itemName;
+        quantities[lineCount] = quantity;
+        lineCount++;
+        starts[orderCount] = lineCount;
+        return this;
+    }
+
+    public int size() {
+        return orderCount;
+    }
+
+    public int getLineCount() {
+        return lineCount;
+    }
+
+    int lineStart(int order) {
+        return starts[order];
+    }
+
+    int lineEnd(int order) {
+        return starts[order + 1];
+    }
+
+    int quantity(int line) {
+        return quantities[line];
+    }
+
+    // Menu index of every line, -1 when not on the menu. Each distinct spelling is looked up once.
+    int[] resolve(MenuSnapshot menu) {
+        int[] resolved = new int[lineCount];
+        Map<String, Integer> seen = new HashMap<>();
+        for (int line = 0; line < lineCount; line++) {
+            Integer index = seen.get(names[line]);
+            if (index == null) {
+                index = menu.indexOf(names[line]);
+                seen.put(names[line], index);
+            }
+            resolved[line] = index;
+        }
+        return resolved;
+    }
+
+    // Same checks and messages as placeOrder(Map); null when the order can be placed
+    String validate(int order, int[] resolved, MenuSnapshot menu) {
+        if (lineStart(order) == lineEnd(order)) {
+            return "No items added.";
+        }
+        for (int line = lineStart(order); line < lineEnd(order); line++) {
+            if (resolved[line] < 0) return "Item not found: " + names[line];
+            if (!menu.isAvailable(resolved[line])) return "Item is currently out of stock: " + names[line];
+            if (quantities[line] <= 0) return "Quantity must be positive.";
+        }
+        return null;
+    }
+}
@@ -0,0 +1,50 @@
+package cafe;
+
+import java.util.*;
+
+// Outcome per batch position: the placed order, or why it was rejected
+class OrderBatchResult {
+    private final Order[] placed;
+    private final String[] rejections;
+    private int placedCount;
+
+    OrderBatchResult(int size) {
+        placed = new Order[size];
+        rejections = new String[size];
+    }
+
+    void placed(int position, Order order) {
+        placed[position] = order;
+        placedCount++;
+    }
+
+    void reject(int position, String reason) {
+        rejections[position] = reason;
+    }
+
+    // Null when the order at this position was rejected
+    public Order getOrder(int position) {
+        return placed[position];
+    }
+
+    // Null when the order at this position was placed
+    public String getRejection(int position) {
+        return rejections[position];
+    }
+
+    public List<Order> getPlacedOrders() {
+        List<Order> orders = new ArrayList<>(placedCount);
+        for (Order order : placed) {
+            if (order != null) orders.add(order);
+        }
+        return orders;
+    }
+
+    public int getPlacedCount() {
+        return placedCount;
+    }
+
+    public int getRejectedCount() {
+        return placed.length - placedCount;
+    }
+}
@@ -0,0 +1,12 @@
+package cafe;
+
+import jdk.jfr.*;
+
+@Name("cafe.OrderCanceled")
+@Label("Order Canceled")
+@Category({"Cafe", "Orders"})
+@StackTrace(false)
+class OrderCanceledEvent extends Event {
+    @Label("Order Id") int orderId;
+    @Label("Item Count") int itemCount;
+}
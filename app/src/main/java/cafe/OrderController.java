@@ -0,0 +1,821 @@
+package cafe;
+
+import java.io.IOException;
+import java.time.*;
+import java.util.*;
+
+// Controller: Coordinates User Actions
+// The non-interactive methods are synchronized so several terminals can share one controller.
+// They signal a missing order with null/false and reject invalid input with
+// IllegalArgumentException (bad items) or IllegalStateException (paid or canceled orders).
+class OrderController {
+    private static final OperationTimer PLACE_TIMER = CafeMetrics.timer("order.placeOrder");
+    private static final OperationTimer MODIFY_TIMER = CafeMetrics.timer("order.modifyOrder");
+    private static final OperationTimer CANCEL_TIMER = CafeMetrics.timer("order.cancelOrder");
+    private static final OperationTimer PAYMENT_TIMER = CafeMetrics.timer("order.processPayment");
+    private static final OperationTimer RECEIPT_TIMER = CafeMetrics.timer("order.generateReceipt");
+    private static final OperationTimer REPORT_TIMER = CafeMetrics.timer("order.generateDailyReport");
+    private static final OperationTimer BATCH_TIMER = CafeMetrics.timer("order.placeOrders");
+
+    private Map<Integer, Order> orders;
+    private OrderView view;
+    private MenuController menuController;
+    private int nextOrderId;
+    private volatile int openOrderCount; // placed but neither paid nor canceled
+    private OrderIndex index = new OrderIndex();
+    private int closedOrderCount; // COMPLETED or CANCELED orders still in the live map
+    private ClosedOrderStore archive;
+    private int maxClosedOrders = Integer.MAX_VALUE;
+    private OrderHistoryStore historyStore;
+    private final Set<LocalDate> rolledDays = new HashSet<>(); // days with a segment in the history store
+    private PricingEngine pricingEngine;
+    private OutOfStockBoard outOfStockBoard;
+    private CafeEventBus eventBus = CafeEventBus.shared();
+    private final RenderCache renderCache;
+
+    public OrderController(MenuController menuController) {
+        this.menuController = menuController;
+        orders = new LinkedHashMap<>();
+        view = new OrderView();
+        nextOrderId = 1;
+        renderCache = new RenderCache(menuController, RenderCache.DEFAULT_ORDER_ENTRIES);
+    }
+
+    public void start() {
+        while (true) {
+            view.displayMessage("\nOrder Management System:");
+            view.displayMessage("1. Place an Order");
+            view.displayMessage("2. Modify an Existing Order");
+            view.displayMessage("3. Cancel an Order");
+            view.displayMessage("4. View Order Summary");
+            view.displayMessage("5. Process Payment for an Order");
+            view.displayMessage("6. Track Order Status");
+            view.displayMessage("7. Handle Special Requests");
+            view.displayMessage("8. Generate Order Receipt");
+            view.displayMessage("9. Daily Order Report");
+            view.displayMessage("10. Close Day (roll into history)");
+            view.displayMessage("11. Sales History");
+            view.displayMessage("12. Search Orders");
+            view.displayMessage("13. Kitchen Batches");
+            view.displayMessage("14. Active Promotions");
+            view.displayMessage("15. Archive Closed Orders");
+            view.displayMessage("16. Mark Order In Progress / Ready");
+            view.displayMessage("0. Exit");
+
+            String choice = view.getInput("Choose an option: ");
+
+            switch (choice) {
+                case "1":
+                    placeOrder();
+                    break;
+                case "2":
+                    modifyOrder();
+                    break;
+                case "3":
+                    cancelOrder();
+                    break;
+                case "4":
+                    viewOrderSummaryById();
+                    break;
+                case "5":
+                    processPayment();
+                    break;
+                case "6":
+                    trackOrderStatus();
+                    break;
+                case "7":
+                    handleSpecialRequests();
+                    break;
+                case "8":
+                    generateOrderReceipt();
+                    break;
+                case "9":
+                    generateDailyReport();
+                    break;
+                case "10":
+                    closeDay();
+                    break;
+                case "11":
+                    showSalesHistory();
+                    break;
+                case "12":
+                    searchOrders();
+                    break;
+                case "13":
+                    showKitchenBatches();
+                    break;
+                case "14":
+                    showPromotions();
+                    break;
+                case "15":
+                    archiveClosedOrders();
+                    break;
+                case "16":
+                    markOrderStatus();
+                    break;
+                case "0":
+                    view.displayMessage("Exiting the system.");
+                    return;
+                default:
+                    view.displayMessage("Invalid option. Please try again.");
+            }
+        }
+    }
+
+    public void setEventBus(CafeEventBus eventBus) {
+        this.eventBus = eventBus;
+    }
+
+    public synchronized void setHistoryStore(OrderHistoryStore historyStore) {
+        this.historyStore = historyStore;
+        rolledDays.clear();
+        for (DaySegment segment : historyStore.getSegments()) {
+            rolledDays.add(segment.getDay());
+        }
+    }
+
+    // Closed orders move to the archive (on disk or off heap) once more than maxClosedOrders of them are on heap.
+    // Order ids continue after the archive's, so an archived order is never shadowed by a new one.
+    public synchronized void setArchive(ClosedOrderStore archive, int maxClosedOrders) {
+        this.archive = archive;
+        this.maxClosedOrders = maxClosedOrders;
+        int archivedMax = archive.getMaxOrderId();
+        if (archivedMax >= nextOrderId) {
+            nextOrderId = archivedMax + 1;
+            index = OrderIndex.rebuild(orders.values(), nextOrderId);
+        }
+    }
+
+    // Without a pricing engine, totals are the plain sum of price x quantity
+    public void setPricingEngine(PricingEngine pricingEngine) {
+        this.pricingEngine = pricingEngine;
+    }
+
+    private void reprice(Order order) {
+        order.updateTotalCost();
+        if (pricingEngine != null) {
+            order.applyQuote(pricingEngine.quote(order));
+        }
+    }
+
+    // Shows the current out-of-stock items before each order, fed from the event bus
+    public void setOutOfStockBoard(OutOfStockBoard outOfStockBoard) {
+        this.outOfStockBoard = outOfStockBoard;
+    }
+
+    private void placeOrder() {
+        if (outOfStockBoard != null && !outOfStockBoard.getOutOfStock().isEmpty()) {
+            view.displayMessage("Currently out of stock: " + String.join(", ", outOfStockBoard.getOutOfStock()));
+        }
+        Map<String, Integer> items = new LinkedHashMap<>();
+        while (true) {
+            String itemName = view.getInput("Enter item name (or type 'done' to finish): ");
+            if (itemName.equalsIgnoreCase("done")) break;
+            MenuItem menuItem = menuController.findMenuItemByName(itemName);
+            if (menuItem == null) {
+                view.displayMessage("Item not found." + menuController.didYouMean(itemName));
+                continue;
+            }
+            if (!menuItem.isAvailable()) {
+                view.displayMessage("Item is currently out of stock.");
+                continue;
+            }
+            int quantity = Integer.parseInt(view.getInput("Enter quantity: "));
+            items.merge(menuItem.getName(), quantity, Integer::sum);
+        }
+        if (items.isEmpty()) {
+            view.displayMessage("No items added. Order cancelled.");
+            return;
+        }
+        try {
+            Order order = placeOrder(items);
+            view.displayMessage("Order placed successfully! Order ID: " + order.getOrderId());
+        } catch (IllegalArgumentException e) {
+            view.displayMessage(e.getMessage());
+        }
+    }
+
+    // Non-interactive core of "Place an Order"; every item must exist on the menu and be available
+    public synchronized Order placeOrder(Map<String, Integer> items) {
+        long start = System.nanoTime();
+        OrderPlacedEvent event = new OrderPlacedEvent();
+        event.begin();
+        try {
+            if (items.isEmpty()) {
+                throw new IllegalArgumentException("No items added.");
+            }
+            Order order = new Order(nextOrderId);
+            for (Map.Entry<String, Integer> entry : items.entrySet()) {
+                order.getItems().add(new OrderItem(availableMenuItem(entry.getKey()), positive(entry.getValue())));
+            }
+            nextOrderId++;
+            reprice(order);
+            orders.put(order.getOrderId(), order);
+            index.orderPlaced(order);
+            openOrderCount++;
+            eventBus.publishOrder(CafeEventType.ORDER_PLACED, order, null, 0);
+            if (event.shouldCommit()) {
+                event.orderId = order.getOrderId();
+                event.itemCount = order.getItems().size();
+                event.total = order.getTotalCost();
+                event.commit();
+            }
+            return order;
+        } finally {
+            PLACE_TIMER.record(start);
+        }
+    }
+
+    // Bulk intake for kiosks and delivery feeds. Item names are resolved once for the whole batch
+    // against one menu snapshot, so every order sees the same prices and availability. Orders with
+    // a bad line are rejected on their own; the rest get consecutive ids in batch order.
+    // Each placed order is also timed and recorded like placeOrder, without the shared resolve.
+    public synchronized OrderBatchResult placeOrders(OrderBatch batch) {
+        long start = System.nanoTime();
+        try {
+            MenuSnapshot menu = menuController.snapshot();
+            int[] resolved = batch.resolve(menu);
+            OrderBatchResult result = new OrderBatchResult(batch.size());
+            List<List<OrderItem>> accepted = new ArrayList<>(batch.size());
+            int[] acceptedAt = new int[batch.size()];
+            LineMerger merger = new LineMerger();
+            for (int o = 0; o < batch.size(); o++) {
+                String problem = batch.validate(o, resolved, menu);
+                if (problem != null) {
+                    result.reject(o, problem);
+                    continue;
+                }
+                acceptedAt[accepted.size()] = o;
+                accepted.add(merger.merge(batch, o, resolved, menu));
+            }
+
+            int firstId = nextOrderId;
+            nextOrderId += accepted.size();
+            for (int a = 0; a < accepted.size(); a++) {
+                long placed = System.nanoTime();
+                OrderPlacedEvent event = new OrderPlacedEvent();
+                event.begin();
+                Order order = new Order(firstId + a);
+                order.getItems().addAll(accepted.get(a));
+                reprice(order);
+                orders.put(order.getOrderId(), order);
+                index.orderPlaced(order);
+                openOrderCount++;
+                eventBus.publishOrder(CafeEventType.ORDER_PLACED, order, null, 0);
+                result.placed(acceptedAt[a], order);
+                if (event.shouldCommit()) {
+                    event.orderId = order.getOrderId();
+                    event.itemCount = order.getItems().size();
+                    event.total = order.getTotalCost();
+                    event.batched = true;
+                    event.commit();
+                }
+                PLACE_TIMER.record(placed);
+            }
+            return result;
+        } finally {
+            BATCH_TIMER.record(start);
+        }
+    }
+
+    private void modifyOrder() {
+        int orderId = Integer.parseInt(view.getInput("Enter Order ID to modify: "));
+        Order order = findOrderById(orderId);
+        if (order == null) {
+            view.displayMessage("Order ID not found.");
+            return;
+        }
+
+        while (true) {
+            view.displayOrderDetails(renderCache.orderSummary(order));
+            String itemName = view.getInput("Enter item name to add/remove (or 'done' to finish): ");
+            if (itemName.equalsIgnoreCase("done")) break;
+            boolean inOrder = order.getItems().stream().anyMatch(i -> i.getItemName().equalsIgnoreCase(itemName));
+            int quantity = inOrder
+                    ? Integer.parseInt(view.getInput("Enter new quantity (0 to remove): "))
+                    : Integer.parseInt(view.getInput("Enter quantity: "));
+            try {
+                modifyOrder(orderId, itemName, quantity);
+                view.displayMessage("Order modified successfully.");
+            } catch (IllegalArgumentException | IllegalStateException e) {
+                view.displayMessage(e.getMessage());
+                if (e instanceof IllegalStateException) return;
+            }
+        }
+    }
+
+    // Sets an item's quantity (0 removes it, new items are added); false if the order doesn't exist
+    public synchronized boolean modifyOrder(int orderId, String itemName, int quantity) {
+        long start = System.nanoTime();
+        OrderModifiedEvent event = new OrderModifiedEvent();
+        event.begin();
+        try {
+            Order order = findOrderById(orderId);
+            if (order == null) {
+                return false;
+            }
+            if (order.isPaymentProcessed()) {
+                throw new IllegalStateException("Cannot modify an order that has been paid.");
+            }
+            if (order.getStatus() == OrderStatus.CANCELED) {
+                throw new IllegalStateException("Order is canceled and cannot be modified.");
+            }
+            Optional<OrderItem> item = order.getItems().stream().filter(i -> i.getItemName().equalsIgnoreCase(itemName)).findFirst();
+            if (item.isPresent()) {
+                if (quantity == 0) order.getItems().remove(item.get());
+                else item.get().setQuantity(positive(quantity));
+            } else {
+                OrderItem added = new OrderItem(availableMenuItem(itemName), positive(quantity));
+                added.addAllergens(order.getDeclaredAllergens());
+                if (added.getAllergenConflicts() != 0) {
+                    throw new IllegalArgumentException(added.getItemName() + " contains "
+                            + SpecialRequestParser.allergens(added.getAllergenConflicts()) + ", which the customer declared.");
+                }
+                order.getItems().add(added);
+            }
+            reprice(order);
+            index.itemChanged(order, itemName);
+            eventBus.publishOrder(CafeEventType.ORDER_MODIFIED, order, itemName, quantity);
+            if (event.shouldCommit()) {
+                event.orderId = orderId;
+                event.itemName = itemName;
+                event.quantity = quantity;
+                event.itemCount = order.getItems().size();
+                event.commit();
+            }
+            return true;
+        } finally {
+            MODIFY_TIMER.record(start);
+        }
+    }
+
+    private void cancelOrder() {
+        int orderId = Integer.parseInt(view.getInput("Enter Order ID to cancel: "));
+        try {
+            if (cancelOrder(orderId)) {
+                view.displayMessage("Order canceled successfully.");
+            } else {
+                view.displayMessage("Order ID not found.");
+            }
+        } catch (IllegalStateException e) {
+            view.displayMessage(e.getMessage());
+        }
+    }
+
+    public synchronized boolean cancelOrder(int orderId) {
+        long start = System.nanoTime();
+        OrderCanceledEvent event = new OrderCanceledEvent();
+        event.begin();
+        try {
+            Order order = findOrderById(orderId);
+            if (order == null) {
+                return false;
+            }
+            if (order.getStatus() == OrderStatus.CANCELED) {
+                throw new IllegalStateException("Order is already canceled.");
+            }
+            if (order.getStatus() == OrderStatus.COMPLETED) {
+                throw new IllegalStateException("Cannot cancel a completed order.");
+            }
+            OrderStatus previous = order.getStatus();
+            order.setStatus(OrderStatus.CANCELED);
+            index.statusChanged(order, previous);
+            openOrderCount--;
+            orderClosed(order);
+            eventBus.publishOrder(CafeEventType.ORDER_CANCELED, order, null, 0);
+            if (event.shouldCommit()) {
+                event.orderId = orderId;
+                event.itemCount = order.getItems().size();
+                event.commit();
+            }
+            return true;
+        } finally {
+            CANCEL_TIMER.record(start);
+        }
+    }
+
+    private void viewOrderSummaryById() {
+        int orderId = Integer.parseInt(view.getInput("Enter Order ID to view: "));
+        Order order = findOrderById(orderId);
+        if (order == null) {
+            view.displayMessage("Order ID not found.");
+        } else {
+            view.displayOrderDetails(renderCache.orderSummary(order));
+        }
+    }
+
+    private void processPayment() {
+        int orderId = Integer.parseInt(view.getInput("Enter Order ID to process payment: "));
+        try {
+            if (!processPayment(orderId)) {
+                view.displayMessage("Order ID not found.");
+                return;
+            }
+            view.displayMessage("Payment processed successfully. Order marked as Completed.");
+        } catch (IllegalStateException e) {
+            view.displayMessage(e.getMessage());
+        }
+    }
+
+    public synchronized boolean processPayment(int orderId) {
+        long start = System.nanoTime();
+        OrderPaidEvent event = new OrderPaidEvent();
+        event.begin();
+        try {
+            Order order = findOrderById(orderId);
+            if (order == null) {
+                return false;
+            }
+            if (order.isPaymentProcessed()) {
+                throw new IllegalStateException("Payment already processed.");
+            }
+            if (order.getStatus() == OrderStatus.CANCELED) {
+                throw new IllegalStateException("Cannot process payment for canceled order.");
+            }
+            OrderStatus previous = order.getStatus();
+            order.setPaymentProcessed(true);
+            order.setStatus(OrderStatus.COMPLETED);
+            index.statusChanged(order, previous);
+            openOrderCount--;
+            orderClosed(order);
+            eventBus.publishOrder(CafeEventType.ORDER_PAID, order, null, 0);
+            if (event.shouldCommit()) {
+                event.orderId = orderId;
+                event.itemCount = order.getItems().size();
+                event.total = order.getTotalCost();
+                event.commit();
+            }
+            return true;
+        } finally {
+            PAYMENT_TIMER.record(start);
+        }
+    }
+
+    private void markOrderStatus() {
+        int orderId = Integer.parseInt(view.getInput("Enter Order ID: "));
+        String status = view.getInput("New status (IN_PROGRESS/READY): ").trim().toUpperCase();
+        try {
+            if (markOrderStatus(orderId, OrderStatus.valueOf(status))) {
+                view.displayMessage("Order " + orderId + " is now " + status + ".");
+            } else {
+                view.displayMessage("Order ID not found.");
+            }
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            view.displayMessage(e.getMessage());
+        }
+    }
+
+    // Kitchen progress, forward only: PLACED -> IN_PROGRESS -> READY. Paying or canceling closes the order.
+    public synchronized boolean markOrderStatus(int orderId, OrderStatus status) {
+        if (status != OrderStatus.IN_PROGRESS && status != OrderStatus.READY) {
+            throw new IllegalArgumentException("Only IN_PROGRESS or READY can be set; pay or cancel to close an order.");
+        }
+        Order order = findOrderById(orderId);
+        if (order == null) {
+            return false;
+        }
+        OrderStatus previous = order.getStatus();
+        if (previous == OrderStatus.COMPLETED || previous == OrderStatus.CANCELED) {
+            throw new IllegalStateException("Order is " + previous + ".");
+        }
+        if (previous.compareTo(status) >= 0) {
+            throw new IllegalStateException("Order is already " + previous + ".");
+        }
+        order.setStatus(status);
+        index.statusChanged(order, previous);
+        eventBus.publishOrder(CafeEventType.ORDER_STATUS_CHANGED, order, null, 0);
+        return true;
+    }
+
+    private void trackOrderStatus() {
+        int orderId = Integer.parseInt(view.getInput("Enter Order ID to track: "));
+        Order order = findOrderById(orderId);
+        if (order == null) {
+            view.displayMessage("Order ID not found.");
+        } else {
+            view.displayMessage("Order Status: " + order.getStatus());
+        }
+    }
+
+    private void handleSpecialRequests() {
+        int orderId = Integer.parseInt(view.getInput("Enter Order ID for the request: "));
+        String request = view.getInput("Enter the special request: ");
+        try {
+            if (addSpecialRequest(orderId, request)) {
+                view.displayMessage("Special request noted: " + request);
+                for (String conflict : findOrderById(orderId).findAllergenConflicts()) {
+                    view.displayMessage("WARNING: " + conflict);
+                }
+            } else {
+                view.displayMessage("Order ID not found.");
+            }
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            view.displayMessage(e.getMessage());
+        }
+    }
+
+    // Attaches a note such as "nut allergy, no sauce" to an order; false if the order doesn't exist
+    public synchronized boolean addSpecialRequest(int orderId, String request) {
+        Order order = orders.get(orderId);
+        if (order == null) {
+            if (findOrderById(orderId) != null) {
+                throw new IllegalStateException("Order is closed and archived.");
+            }
+            return false;
+        }
+        if (request.isBlank()) {
+            throw new IllegalArgumentException("Special request is empty.");
+        }
+        if (order.getStatus() == OrderStatus.CANCELED) {
+            throw new IllegalStateException("Order is canceled.");
+        }
+        order.getSpecialRequests().add(request.trim());
+        order.declareAllergens(SpecialRequestParser.apply(order, request));
+        index.requestAdded(order, request);
+        return true;
+    }
+
+    private void showPromotions() {
+        if (pricingEngine == null || pricingEngine.getPromotions().isEmpty()) {
+            view.displayMessage("No promotions configured.");
+            return;
+        }
+        for (Promotion promotion : pricingEngine.getPromotions()) {
+            view.displayMessage(promotion.toString());
+        }
+    }
+
+    private void showKitchenBatches() {
+        List<KitchenBatch> batches = buildKitchenBatches();
+        if (batches.isEmpty()) {
+            view.displayMessage("Nothing to prepare.");
+            return;
+        }
+        view.displayMessage("----- KITCHEN BATCHES -----");
+        for (KitchenBatch batch : batches) {
+            view.displayMessage(batch.toString());
+        }
+    }
+
+    // Lines of unpaid, uncanceled orders grouped by item, modifiers and allergy handling, largest first
+    public synchronized List<KitchenBatch> buildKitchenBatches() {
+        Map<String, KitchenBatch> batches = new LinkedHashMap<>();
+        for (Order order : orders.values()) {
+            if (order.getStatus() != OrderStatus.PLACED && order.getStatus() != OrderStatus.IN_PROGRESS) continue;
+            for (OrderItem item : order.getItems()) {
+                batches.computeIfAbsent(KitchenBatch.key(item),
+                        key -> new KitchenBatch(item.getItemName(), item.getModifiers(), item.getAllergenMask()))
+                        .add(order.getOrderId(), item.getQuantity());
+            }
+        }
+        List<KitchenBatch> sorted = new ArrayList<>(batches.values());
+        sorted.sort(Comparator.comparingInt(KitchenBatch::getQuantity).reversed());
+        return sorted;
+    }
+
+    private void generateOrderReceipt() {
+        int orderId = Integer.parseInt(view.getInput("Enter Order ID for receipt: "));
+        Order order = findOrderById(orderId);
+        if (order == null) {
+            view.displayMessage("Order ID not found.");
+            return;
+        }
+        long start = System.nanoTime();
+        ReceiptWrittenEvent event = new ReceiptWrittenEvent();
+        event.begin();
+        String receipt = renderCache.orderSummary(order);
+        RECEIPT_TIMER.record(start); // generation only, not the console output
+        view.displayMessage("Order Receipt:");
+        view.displayMessage(receipt);
+        if (event.shouldCommit()) {
+            event.orderId = orderId;
+            event.itemCount = order.getItems().size();
+            event.characters = receipt.length();
+            event.commit();
+        }
+    }
+
+    private void generateDailyReport() {
+        view.displayMessage(buildDailyReport());
+    }
+
+    // Today's orders only; canceled orders are not counted and revenue only includes paid orders
+    public synchronized String buildDailyReport() {
+        long start = System.nanoTime();
+        LocalDate today = LocalDate.now();
+        long totalOrders = 0;
+        double totalRevenue = 0;
+        for (Order order : orders.values()) {
+            if (order.getStatus() == OrderStatus.CANCELED || !today.equals(dayOf(order))) continue;
+            totalOrders++;
+            if (order.isPaymentProcessed()) {
+                totalRevenue += order.getTotalCost();
+            }
+        }
+        if (archive != null) {
+            long[] archived = archive.getDailyTotals(LocalDate.now());
+            totalOrders += archived[0];
+            totalRevenue += archived[1] / 100.0;
+        }
+        REPORT_TIMER.record(start);
+        if (totalOrders == 0) {
+            return "No orders for today.";
+        }
+        return "Daily Report:\nTotal Orders: " + totalOrders + "\nTotal Revenue: $" + totalRevenue;
+    }
+
+    private void closeDay() {
+        if (historyStore == null) {
+            view.displayMessage("Order history is not configured.");
+            return;
+        }
+        LocalDate today = LocalDate.now();
+        try {
+            DaySegment segment = closeDay(today);
+            view.displayMessage("Rolled " + segment.getOrderCount() + " closed orders (" + segment.getLineCount()
+                    + " lines) for " + today + " into history; open orders are added as they close.");
+        } catch (IOException e) {
+            view.displayMessage("Error writing order history: " + e.getMessage());
+        }
+    }
+
+    // Writes the day's paid and canceled orders to the history store, replacing any earlier segment
+    // for the day. Orders still open are left out; when one of them closes later the day is
+    // rolled again, so history never keeps an order frozen as unpaid.
+    public synchronized DaySegment closeDay(LocalDate day) throws IOException {
+        DaySegment.Builder rows = historyStore.newSegment(day);
+        for (Order order : orders.values()) {
+            if ((order.getStatus() == OrderStatus.COMPLETED || order.getStatus() == OrderStatus.CANCELED)
+                    && day.equals(dayOf(order))) {
+                rows.add(order);
+            }
+        }
+        if (archive != null) {
+            archive.addOrdersOn(day, rows);
+        }
+        DaySegment segment = historyStore.rollDay(rows);
+        rolledDays.add(day);
+        return segment;
+    }
+
+    private static LocalDate dayOf(Order order) {
+        return order.getOrderDate().toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
+    }
+
+    private void showSalesHistory() {
+        if (historyStore == null) {
+            view.displayMessage("Order history is not configured.");
+            return;
+        }
+        int days = Integer.parseInt(view.getInput("Number of days to include: "));
+        LocalDate to = LocalDate.now();
+        LocalDate from = to.minusDays(Math.max(1, days) - 1);
+        long[] hours = historyStore.revenueByHour(from, to, ZoneId.systemDefault());
+        view.displayMessage("----- SALES HISTORY " + from + " to " + to + " -----");
+        view.displayMessage("Revenue by hour:");
+        for (int hour = 0; hour < 24; hour++) {
+            if (hours[hour] > 0) {
+                view.displayMessage(String.format("  %02d:00  $%.2f", hour, hours[hour] / 100.0));
+            }
+        }
+        view.displayMessage("Order status mix:");
+        for (Map.Entry<OrderStatus, Long> entry : historyStore.statusMix(from, to).entrySet()) {
+            view.displayMessage("  " + entry.getKey() + ": " + entry.getValue());
+        }
+        String item = view.getInput("Item to chart by week (blank to skip): ");
+        if (!item.isBlank()) {
+            for (Map.Entry<LocalDate, Long> week : historyStore.itemByWeek(item, from, to).entrySet()) {
+                view.displayMessage("  Week of " + week.getKey() + ": " + week.getValue() + " sold");
+            }
+        }
+    }
+
+    private void searchOrders() {
+        OrderQuery query = new OrderQuery().limit(20);
+        try {
+            String status = view.getInput("Status (blank for any): ").trim();
+            if (!status.isEmpty()) query.status(OrderStatus.valueOf(status.toUpperCase()));
+            String minutes = view.getInput("Older than minutes (blank for any): ").trim();
+            if (!minutes.isEmpty()) query.olderThanMinutes(Integer.parseInt(minutes));
+            String item = view.getInput("Contains item (blank for any): ").trim();
+            if (!item.isEmpty()) query.containsItem(item);
+            String word = view.getInput("Special request mentions (blank for any): ").trim();
+            if (!word.isEmpty()) query.requestMentions(word);
+        } catch (IllegalArgumentException e) {
+            view.displayMessage("Invalid criteria: " + e.getMessage());
+            return;
+        }
+        while (true) {
+            OrderPage page = searchOrders(query);
+            if (page.getOrders().isEmpty()) {
+                view.displayMessage("No matching orders.");
+                return;
+            }
+            for (Order order : page.getOrders()) {
+                view.displayMessage("#" + order.getOrderId() + " " + order.getStatus() + " " + order.getOrderDate()
+                        + " $" + order.getTotalCost() + " (" + order.getItems().size() + " items)");
+            }
+            if (!page.hasMore() || !view.getInput("More? (y/n): ").equalsIgnoreCase("y")) return;
+            query.after(page.getNextCursor());
+        }
+    }
+
+    // Evaluates the query against the status, time, item and special-request indexes
+    public synchronized OrderPage searchOrders(OrderQuery query) {
+        return index.search(query, orders);
+    }
+
+    // Scheduled at the store's close time: roll the day into history, then archive closed orders
+    public synchronized void endOfDay(LocalDate day) throws IOException {
+        if (historyStore != null) {
+            closeDay(day);
+        }
+        if (archive != null) {
+            archiveClosedOrdersNow();
+        }
+    }
+
+    // Live orders first, then the archive. The archive is read outside this controller's lock,
+    // since it may decompress a segment; callers that already hold the lock still wait for it.
+    public Order findOrderById(int orderId) {
+        ClosedOrderStore archived;
+        synchronized (this) {
+            Order order = orders.get(orderId);
+            if (order != null || archive == null) return order;
+            archived = archive;
+        }
+        return archived.find(orderId);
+    }
+
+    private void orderClosed(Order order) {
+        closedOrderCount++;
+        if (archive != null && closedOrderCount > maxClosedOrders) {
+            archiveClosedOrdersNow();
+        }
+        // Closed after its day was rolled: roll the day again so history sees the payment
+        LocalDate day = dayOf(order);
+        if (historyStore != null && rolledDays.contains(day)) {
+            try {
+                closeDay(day);
+            } catch (IOException e) {
+                System.out.println("Could not update order history for " + day + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private void archiveClosedOrders() {
+        if (archive == null) {
+            view.displayMessage("Order archive is not configured.");
+            return;
+        }
+        view.displayMessage("Archived " + archiveClosedOrdersNow() + " closed orders.");
+    }
+
+    // Moves every COMPLETED and CANCELED order to the archive and rebuilds the search index over what is left
+    public synchronized int archiveClosedOrdersNow() {
+        List<Order> closed = new ArrayList<>();
+        Iterator<Order> live = orders.values().iterator();
+        while (live.hasNext()) {
+            Order order = live.next();
+            if (order.getStatus() == OrderStatus.COMPLETED || order.getStatus() == OrderStatus.CANCELED) {
+                closed.add(order);
+                live.remove();
+            }
+        }
+        archive.archive(closed);
+        index = OrderIndex.rebuild(orders.values(), nextOrderId);
+        closedOrderCount = 0;
+        return closed.size();
+    }
+
+    public Collection<Order> getOrders() {
+        return orders.values();
+    }
+
+    public int getOpenOrderCount() {
+        return openOrderCount;
+    }
+
+    // Rendered order summaries and menu board shared by the console and the HTTP front-end
+    public RenderCache getRenderCache() {
+        return renderCache;
+    }
+
+    private MenuItem availableMenuItem(String itemName) {
+        MenuItem menuItem = menuController.findMenuItemByName(itemName);
+        if (menuItem == null) {
+            throw new IllegalArgumentException("Item not found: " + itemName);
+        }
+        if (!menuItem.isAvailable()) {
+            throw new IllegalArgumentException("Item is currently out of stock: " + itemName);
+        }
+        return menuItem;
+    }
+
+    private static int positive(int quantity) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Quantity must be positive.");
+        }
+        return quantity;
+    }
+}
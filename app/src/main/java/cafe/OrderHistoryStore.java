@@ -0,0 +1,125 @@
+package cafe;
+
+import java.io.*;
+import java.nio.file.*;
+import java.time.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+// Columnar history of closed business days. At end of day the day's orders are rolled into a
+// DaySegment of primitive arrays (one row per order line plus one per order) and written to
+// <dir>/<date>.seg. Queries scan segments in parallel and skip whole segments whose
+// time or menu item id range can't match, so months of history never become Order objects.
+public class OrderHistoryStore {
+    private final Path directory;
+    private final ConcurrentSkipListMap<LocalDate, DaySegment> segments = new ConcurrentSkipListMap<>();
+    // Menu items are dictionary-encoded: ids are stable for the life of the store
+    private final Map<String, Integer> itemIds = new ConcurrentHashMap<>();
+    private final List<String> itemNames = new CopyOnWriteArrayList<>();
+
+    public OrderHistoryStore(Path directory) throws IOException {
+        this.directory = directory;
+        Files.createDirectories(directory);
+        loadDictionary();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*.seg")) {
+            for (Path file : files) {
+                DaySegment segment = DaySegment.read(file);
+                segments.put(segment.getDay(), segment);
+            }
+        }
+    }
+
+    // Rows for one day's segment, encoded with this store's item ids; hand them to rollDay
+    public DaySegment.Builder newSegment(LocalDate day) {
+        return new DaySegment.Builder(day, this::itemId);
+    }
+
+    // Rolls the rows into the day's segment, replacing any earlier roll of the same day
+    public synchronized DaySegment rollDay(DaySegment.Builder rows) throws IOException {
+        DaySegment segment = rows.build();
+        saveDictionary();
+        segment.write(directory.resolve(segment.getDay() + ".seg"));
+        segments.put(segment.getDay(), segment);
+        return segment;
+    }
+
+    public Collection<DaySegment> getSegments() {
+        return segments.values();
+    }
+
+    // === QUERIES (ranges are inclusive days in the given zone) ===
+
+    // Revenue of completed orders per hour of day, in cents
+    public long[] revenueByHour(LocalDate from, LocalDate to, ZoneId zone) {
+        long fromMillis = startOfDay(from, zone);
+        long toMillis = startOfDay(to.plusDays(1), zone) - 1;
+        return range(from, to).parallelStream()
+                .filter(segment -> segment.overlaps(fromMillis, toMillis))
+                .map(segment -> segment.revenueByHour(fromMillis, toMillis, zone))
+                .reduce(new long[24], OrderHistoryStore::add);
+    }
+
+    // Units sold of one item per week (keyed by the Monday starting the week)
+    public SortedMap<LocalDate, Long> itemByWeek(String itemName, LocalDate from, LocalDate to) {
+        Integer itemId = itemIds.get(itemName.toLowerCase());
+        SortedMap<LocalDate, Long> weeks = new TreeMap<>();
+        if (itemId == null) return weeks;
+        Map<LocalDate, Long> units = range(from, to).parallelStream()
+                .filter(segment -> segment.mayContainItem(itemId))
+                .collect(ConcurrentHashMap::new,
+                        (map, segment) -> {
+                            long sold = segment.unitsSold(itemId);
+                            if (sold > 0) map.merge(segment.getDay().with(DayOfWeek.MONDAY), sold, Long::sum);
+                        },
+                        (left, right) -> right.forEach((week, sold) -> left.merge(week, sold, Long::sum)));
+        weeks.putAll(units);
+        return weeks;
+    }
+
+    // Number of orders per final status
+    public Map<OrderStatus, Long> statusMix(LocalDate from, LocalDate to) {
+        long[] counts = range(from, to).parallelStream()
+                .map(DaySegment::statusCounts)
+                .reduce(new long[OrderStatus.values().length], OrderHistoryStore::add);
+        Map<OrderStatus, Long> mix = new EnumMap<>(OrderStatus.class);
+        for (OrderStatus status : OrderStatus.values()) {
+            mix.put(status, counts[status.ordinal()]);
+        }
+        return mix;
+    }
+
+    private Collection<DaySegment> range(LocalDate from, LocalDate to) {
+        return segments.subMap(from, true, to, true).values();
+    }
+
+    private static long startOfDay(LocalDate day, ZoneId zone) {
+        return day.atStartOfDay(zone).toInstant().toEpochMilli();
+    }
+
+    private static long[] add(long[] left, long[] right) {
+        long[] sum = new long[left.length];
+        for (int i = 0; i < sum.length; i++) {
+            sum[i] = left[i] + right[i];
+        }
+        return sum;
+    }
+
+    private int itemId(String itemName) {
+        return itemIds.computeIfAbsent(itemName.toLowerCase(), key -> {
+            itemNames.add(itemName);
+            return itemNames.size() - 1;
+        });
+    }
+
+    private void loadDictionary() throws IOException {
+        Path file = directory.resolve("items.dict");
+        if (!Files.exists(file)) return;
+        for (String name : Files.readAllLines(file)) {
+            itemId(name);
+        }
+    }
+
+    private void saveDictionary() throws IOException {
+        Files.write(directory.resolve("items.dict"), itemNames);
+    }
+}
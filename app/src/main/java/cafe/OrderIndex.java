@@ -0,0 +1,175 @@
+package cafe;
+
+import java.util.*;
+
+// Secondary indexes over one OrderController's orders, keyed by order id. Status, menu item and
+// special-request words each map to a bitmap of order ids; a query ANDs the bitmaps it needs,
+// starting from the smallest. Order ids are handed out in placement order, so the time index is
+// an append-only array of placement times that turns a time range into an id range by binary
+// search. Bits are offset by the lowest live order id, so once old orders are archived and the
+// index is rebuilt, bitmaps stay sized to the live orders rather than to every id ever issued.
+// Not thread-safe: OrderController only touches it while holding its own lock.
+class OrderIndex {
+    private final int base;
+    private final Map<OrderStatus, BitSet> byStatus = new EnumMap<>(OrderStatus.class);
+    private final Map<String, BitSet> byItem = new HashMap<>();
+    private final Map<String, BitSet> byRequestToken = new HashMap<>();
+    private int[] timeIds = new int[1024];
+    private long[] times = new long[1024];
+    private int timeCount;
+
+    OrderIndex() {
+        this(0);
+    }
+
+    private OrderIndex(int base) {
+        this.base = base;
+        for (OrderStatus status : OrderStatus.values()) {
+            byStatus.put(status, new BitSet());
+        }
+    }
+
+    // Fresh index over the given orders (in id order); ids from nextOrderId on may be added later
+    static OrderIndex rebuild(Collection<Order> orders, int nextOrderId) {
+        int base = nextOrderId;
+        for (Order order : orders) {
+            base = Math.min(base, order.getOrderId());
+        }
+        OrderIndex index = new OrderIndex(base);
+        for (Order order : orders) {
+            index.orderPlaced(order);
+            for (String request : order.getSpecialRequests()) {
+                index.requestAdded(order, request);
+            }
+        }
+        return index;
+    }
+
+    void orderPlaced(Order order) {
+        int bit = order.getOrderId() - base;
+        byStatus.get(order.getStatus()).set(bit);
+        for (OrderItem item : order.getItems()) {
+            posting(byItem, item.getItemName().toLowerCase()).set(bit);
+        }
+        if (timeCount == times.length) {
+            times = Arrays.copyOf(times, timeCount * 2);
+            timeIds = Arrays.copyOf(timeIds, timeCount * 2);
+        }
+        // Keep the array sorted even if the wall clock steps back
+        long time = order.getOrderDate().getTime();
+        times[timeCount] = timeCount == 0 ? time : Math.max(time, times[timeCount - 1]);
+        timeIds[timeCount] = order.getOrderId();
+        timeCount++;
+    }
+
+    void statusChanged(Order order, OrderStatus previous) {
+        byStatus.get(previous).clear(order.getOrderId() - base);
+        byStatus.get(order.getStatus()).set(order.getOrderId() - base);
+    }
+
+    // Re-syncs one item's posting after the order's lines changed
+    void itemChanged(Order order, String itemName) {
+        boolean present = false;
+        for (OrderItem item : order.getItems()) {
+            if (item.getItemName().equalsIgnoreCase(itemName)) present = true;
+        }
+        String key = itemName.toLowerCase();
+        if (present) {
+            posting(byItem, key).set(order.getOrderId() - base);
+        } else if (byItem.containsKey(key)) {
+            byItem.get(key).clear(order.getOrderId() - base);
+        }
+    }
+
+    void requestAdded(Order order, String request) {
+        for (String token : tokenize(request)) {
+            posting(byRequestToken, token).set(order.getOrderId() - base);
+        }
+    }
+
+    OrderPage search(OrderQuery query, Map<Integer, Order> orders) {
+        // Nothing indexed: without this the id walk below would run up to Integer.MAX_VALUE
+        if (timeCount == 0) return new OrderPage(new ArrayList<>(), 0);
+        int firstId = Math.max(Math.max(idAtOrAfter(query.getPlacedAfter()), query.getAfterOrderId() + 1), base);
+        int lastId = Math.min(idBefore(query.getPlacedBefore()), timeIds[timeCount - 1]);
+
+        List<BitSet> postings = new ArrayList<>();
+        if (!query.getStatuses().isEmpty()) {
+            BitSet anyStatus = new BitSet();
+            for (OrderStatus status : query.getStatuses()) {
+                anyStatus.or(byStatus.get(status));
+            }
+            postings.add(anyStatus);
+        }
+        for (String item : query.getItems()) {
+            postings.add(byItem.getOrDefault(item.toLowerCase(), new BitSet()));
+        }
+        for (String token : query.getRequestTokens()) {
+            postings.add(byRequestToken.getOrDefault(token, new BitSet()));
+        }
+
+        List<Order> page = new ArrayList<>();
+        int nextCursor = 0;
+        if (postings.isEmpty()) {
+            // Time range only: walk the ids in range
+            for (int id = firstId; id <= lastId; id++) {
+                Order order = orders.get(id);
+                if (order == null) continue;
+                if (page.size() == query.getLimit()) { nextCursor = page.get(page.size() - 1).getOrderId(); break; }
+                page.add(order);
+            }
+            return new OrderPage(page, nextCursor);
+        }
+        postings.sort(Comparator.comparingInt(BitSet::cardinality));
+        BitSet matches = (BitSet) postings.get(0).clone();
+        for (int i = 1; i < postings.size() && !matches.isEmpty(); i++) {
+            matches.and(postings.get(i));
+        }
+        for (int bit = matches.nextSetBit(firstId - base); bit >= 0 && bit + base <= lastId; bit = matches.nextSetBit(bit + 1)) {
+            if (page.size() == query.getLimit()) {
+                nextCursor = page.get(page.size() - 1).getOrderId();
+                break;
+            }
+            page.add(orders.get(bit + base));
+        }
+        return new OrderPage(page, nextCursor);
+    }
+
+    // Smallest id placed at or after the time; beyond the last id if none
+    private int idAtOrAfter(long time) {
+        if (time == Long.MIN_VALUE) return 0;
+        int pos = lowerBound(time);
+        return pos == timeCount ? Integer.MAX_VALUE : timeIds[pos];
+    }
+
+    // Largest id placed strictly before the time; -1 if none
+    private int idBefore(long time) {
+        if (time == Long.MAX_VALUE) return Integer.MAX_VALUE - 1;
+        int pos = lowerBound(time);
+        return pos == 0 ? -1 : timeIds[pos - 1];
+    }
+
+    private int lowerBound(long time) {
+        int lo = 0;
+        int hi = timeCount;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (times[mid] < time) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    private static BitSet posting(Map<String, BitSet> index, String key) {
+        return index.computeIfAbsent(key, k -> new BitSet());
+    }
+
+    // Lower-case words of two or more letters or digits
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        for (String word : text.toLowerCase().split("[^\\p{L}\\p{N}]+")) {
+            if (word.length() >= 2) tokens.add(word);
+        }
+        return tokens;
+    }
+}
@@ -0,0 +1,103 @@
+package cafe;
+
+import java.util.*;
+
+// Model: Represents an Order and an Order Item
+class OrderItem {
+    private static final int[] NO_MODIFIERS = new int[0];
+
+    private MenuItem menuItem;
+    private int quantity;
+    private double price;
+    private int allergenMask;               // allergens the customer declared
+    private int[] modifierIds = NO_MODIFIERS; // sorted, interned by SpecialRequestParser
+    private List<String> notes = Collections.emptyList(); // modifiers outside the interned vocabulary
+
+    public OrderItem(MenuItem menuItem, int quantity) {
+        this(menuItem, quantity, menuItem.getPrice()); // price is fixed when the item is ordered
+    }
+
+    OrderItem(MenuItem menuItem, int quantity, double price) {
+        this.menuItem = menuItem;
+        this.quantity = quantity;
+        this.price = price;
+    }
+
+    public MenuItem getMenuItem() {
+        return menuItem;
+    }
+
+    public String getItemName() {
+        return menuItem.getName();
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(int quantity) {
+        this.quantity = quantity;
+    }
+
+    public double getPrice() {
+        return price;
+    }
+
+    public int getAllergenMask() {
+        return allergenMask;
+    }
+
+    public void addAllergens(int mask) {
+        allergenMask |= mask;
+    }
+
+    // Declared allergens that the item's ingredients contain; 0 when safe
+    public int getAllergenConflicts() {
+        return allergenMask & menuItem.getAllergenMask();
+    }
+
+    public int[] getModifierIds() {
+        return modifierIds;
+    }
+
+    public void addModifier(int modifierId) {
+        int pos = Arrays.binarySearch(modifierIds, modifierId);
+        if (pos >= 0) return;
+        int insert = -pos - 1;
+        int[] grown = new int[modifierIds.length + 1];
+        System.arraycopy(modifierIds, 0, grown, 0, insert);
+        grown[insert] = modifierId;
+        System.arraycopy(modifierIds, insert, grown, insert + 1, modifierIds.length - insert);
+        modifierIds = grown;
+    }
+
+    public List<String> getNotes() {
+        return notes;
+    }
+
+    public void addNote(String note) {
+        if (notes.contains(note)) return;
+        if (notes.isEmpty()) notes = new ArrayList<>(1);
+        notes.add(note);
+    }
+
+    // Interned modifier names followed by the notes
+    public List<String> getModifiers() {
+        List<String> modifiers = new ArrayList<>(modifierIds.length + notes.size());
+        for (int id : modifierIds) modifiers.add(SpecialRequestParser.modifierName(id));
+        modifiers.addAll(notes);
+        return modifiers;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder line = new StringBuilder(getItemName() + " x " + quantity + " @ $" + price + " each");
+        for (String modifier : getModifiers()) {
+            line.append(" [").append(modifier).append("]");
+        }
+        if (getAllergenConflicts() != 0) {
+            line.append(" !! contains ").append(SpecialRequestParser.allergens(getAllergenConflicts()));
+        }
+        return line.toString();
+    }
+}
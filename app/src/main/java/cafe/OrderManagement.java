@@ -0,0 +1,24 @@
+package cafe;
+
+// Main Class: OrderManagement
+public class OrderManagement {
+    private OrderController controller;
+
+    public OrderManagement(MenuController menuController) {
+        controller = new OrderController(menuController);
+    }
+
+    // Method to start the order management system
+    public void runOrderManagement() {
+        controller.start();
+    }
+
+    public OrderController getController() {
+        return controller;
+    }
+
+    public static void main(String[] args) {
+        OrderManagement orderManagement = new OrderManagement(new MenuController());
+        orderManagement.runOrderManagement();
+    }
+}
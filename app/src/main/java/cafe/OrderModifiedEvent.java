@@ -0,0 +1,14 @@
+package cafe;
+
+import jdk.jfr.*;
+
+@Name("cafe.OrderModified")
+@Label("Order Modified")
+@Category({"Cafe", "Orders"})
+@StackTrace(false)
+class OrderModifiedEvent extends Event {
+    @Label("Order Id") int orderId;
+    @Label("Item") String itemName;
+    @Label("Quantity") int quantity;
+    @Label("Item Count") int itemCount;
+}
@@ -0,0 +1,18 @@
+package cafe;
+
+import java.util.*;
+
+// One page of search results; nextCursor is 0 when there are no more matches
+class OrderPage {
+    private final List<Order> orders;
+    private final int nextCursor;
+
+    OrderPage(List<Order> orders, int nextCursor) {
+        this.orders = orders;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<Order> getOrders() { return orders; }
+    public int getNextCursor() { return nextCursor; }
+    public boolean hasMore() { return nextCursor != 0; }
+}
@@ -0,0 +1,13 @@
+package cafe;
+
+import jdk.jfr.*;
+
+@Name("cafe.OrderPaid")
+@Label("Order Paid")
+@Category({"Cafe", "Orders"})
+@StackTrace(false)
+class OrderPaidEvent extends Event {
+    @Label("Order Id") int orderId;
+    @Label("Item Count") int itemCount;
+    @Label("Total") double total;
+}
@@ -0,0 +1,14 @@
+package cafe;
+
+import jdk.jfr.*;
+
+@Name("cafe.OrderPlaced")
+@Label("Order Placed")
+@Category({"Cafe", "Orders"})
+@StackTrace(false)
+class OrderPlacedEvent extends Event {
+    @Label("Order Id") int orderId;
+    @Label("Item Count") int itemCount;
+    @Label("Total") double total;
+    @Label("Batched") boolean batched; // placed through placeOrders
+}
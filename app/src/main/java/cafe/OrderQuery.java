@@ -0,0 +1,72 @@
+package cafe;
+
+import java.util.*;
+
+// Multi-criteria order search, e.g. "PLACED orders older than 10 minutes containing Chicken Nuggets".
+// Criteria are combined with AND; results come back in order id order, one page at a time.
+public class OrderQuery {
+    private final EnumSet<OrderStatus> statuses = EnumSet.noneOf(OrderStatus.class);
+    private final List<String> items = new ArrayList<>();
+    private final List<String> requestTokens = new ArrayList<>();
+    private long placedAfter = Long.MIN_VALUE;
+    private long placedBefore = Long.MAX_VALUE;
+    private int afterOrderId = 0;
+    private int limit = 50;
+
+    // Any of the given statuses
+    public OrderQuery status(OrderStatus... statuses) {
+        this.statuses.addAll(Arrays.asList(statuses));
+        return this;
+    }
+
+    // Orders placed at or after the given time (epoch millis)
+    public OrderQuery placedAfter(long epochMillis) {
+        placedAfter = epochMillis;
+        return this;
+    }
+
+    // Orders placed before the given time (epoch millis)
+    public OrderQuery placedBefore(long epochMillis) {
+        placedBefore = epochMillis;
+        return this;
+    }
+
+    public OrderQuery olderThanMinutes(int minutes) {
+        return placedBefore(System.currentTimeMillis() - minutes * 60_000L);
+    }
+
+    public OrderQuery containsItem(String itemName) {
+        items.add(itemName);
+        return this;
+    }
+
+    // A word that must appear in one of the order's special requests, e.g. "allergy"
+    public OrderQuery requestMentions(String word) {
+        for (String token : OrderIndex.tokenize(word)) {
+            requestTokens.add(token);
+        }
+        return this;
+    }
+
+    // Keyset paging: pass the previous page's next cursor to continue
+    public OrderQuery after(int orderId) {
+        afterOrderId = orderId;
+        return this;
+    }
+
+    public OrderQuery limit(int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Page size must be positive.");
+        }
+        this.limit = limit;
+        return this;
+    }
+
+    EnumSet<OrderStatus> getStatuses() { return statuses; }
+    List<String> getItems() { return items; }
+    List<String> getRequestTokens() { return requestTokens; }
+    long getPlacedAfter() { return placedAfter; }
+    long getPlacedBefore() { return placedBefore; }
+    int getAfterOrderId() { return afterOrderId; }
+    int getLimit() { return limit; }
+}
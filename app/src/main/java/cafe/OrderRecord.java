@@ -0,0 +1,71 @@
+package cafe;
+
+import java.lang.foreign.MemorySegment;
+import java.util.*;
+
+import static java.lang.foreign.ValueLayout.*;
+
+// Flyweight over one order record; moveTo repositions it without allocating
+final class OrderRecord {
+    private final OffHeapOrderStore store;
+    private MemorySegment slab;
+    private long at;
+
+    OrderRecord(OffHeapOrderStore store) {
+        this.store = store;
+    }
+
+    void moveTo(int record) {
+        slab = store.orderSlabFor(record);
+        at = OffHeapOrderStore.orderOffset(record);
+    }
+
+    public int getOrderId() { return slab.get(JAVA_INT, at + OffHeapOrderStore.O_ID); }
+    public OrderStatus getStatus() { return OrderStatus.values()[slab.get(JAVA_BYTE, at + OffHeapOrderStore.O_STATUS)]; }
+    public boolean isPaid() { return slab.get(JAVA_BYTE, at + OffHeapOrderStore.O_PAID) != 0; }
+    public long getOrderTime() { return slab.get(JAVA_LONG, at + OffHeapOrderStore.O_TIME); }
+    public long getTotalCents() { return slab.get(JAVA_LONG, at + OffHeapOrderStore.O_TOTAL); }
+    public int getLineCount() { return slab.get(JAVA_INT, at + OffHeapOrderStore.O_LINE_COUNT); }
+    public int getDeclaredAllergens() { return slab.get(JAVA_INT, at + OffHeapOrderStore.O_ALLERGENS); }
+
+    // Positions the line flyweight on this order's i-th line
+    public LineRecord line(int i, LineRecord cursor) {
+        cursor.moveTo(slab.get(JAVA_INT, at + OffHeapOrderStore.O_FIRST_LINE) + (long) i);
+        return cursor;
+    }
+
+    // Special requests, then promotions, separated by PROMOTIONS_SEPARATOR
+    String text() {
+        return store.readText(slab.get(JAVA_LONG, at + OffHeapOrderStore.O_TEXT),
+                slab.get(JAVA_INT, at + OffHeapOrderStore.O_TEXT_LENGTH));
+    }
+
+    boolean hasPromotions() {
+        if (slab.get(JAVA_INT, at + OffHeapOrderStore.O_TEXT_LENGTH) == 0) return false;
+        String text = text();
+        return text.indexOf(OffHeapOrderStore.PROMOTIONS_SEPARATOR) < text.length() - 1;
+    }
+
+    Order toOrder() {
+        Order order = new Order(getOrderId(), new Date(getOrderTime()));
+        order.setStatus(getStatus());
+        order.setPaymentProcessed(isPaid());
+        order.declareAllergens(getDeclaredAllergens());
+        LineRecord line = new LineRecord(store);
+        long listCents = 0;
+        for (int i = 0; i < getLineCount(); i++) {
+            line(i, line);
+            OrderItem item = new OrderItem(store.menuItem(line.getItemName(), line.getPriceCents() / 100.0),
+                    line.getQuantity(), line.getPriceCents() / 100.0);
+            item.addAllergens(line.getAllergenMask());
+            for (String modifier : line.getModifiers()) SpecialRequestParser.addModifier(item, modifier);
+            order.getItems().add(item);
+            listCents += line.getPriceCents() * line.getQuantity();
+        }
+        String[] text = text().split(String.valueOf(OffHeapOrderStore.PROMOTIONS_SEPARATOR), -1);
+        if (!text[0].isEmpty()) order.getSpecialRequests().addAll(Arrays.asList(text[0].split("\n")));
+        List<String> promotions = text[1].isEmpty() ? Collections.emptyList() : Arrays.asList(text[1].split("\n"));
+        order.applyQuote(new PriceQuote(listCents, getTotalCents(), promotions));
+        return order;
+    }
+}
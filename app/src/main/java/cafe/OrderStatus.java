@@ -0,0 +1,6 @@
+package cafe;
+
+// Order Status Enum
+enum OrderStatus {
+    PLACED, IN_PROGRESS, READY, COMPLETED, CANCELED
+}
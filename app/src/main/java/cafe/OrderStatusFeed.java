@@ -0,0 +1,178 @@
+package cafe;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Order statuses for pickup screens, fed from the event bus. The feed keeps one entry per order,
+// ordered by the version of its latest change, so "what changed since version N" is a tail of
+// that map: a screen that falls behind gets each order's current status once, not every step in
+// between, and nobody scans the orders. Closed orders stay long enough for screens to drop them;
+// beyond RETAINED_CLOSED the oldest are pruned, and a screen still behind them gets a reset
+// with the full current set instead (as with MenuChangeLog's tombstones). Waiting screens park
+// on a lock condition rather than a monitor, so long-polls on virtual threads don't pin carriers.
+public class OrderStatusFeed implements CafeEventHandler {
+    static final int RETAINED_CLOSED = 4096;
+
+    private final TreeMap<Long, StatusChange> byVersion = new TreeMap<>();
+    private final Map<Integer, StatusChange> byOrder = new HashMap<>();
+    private final ArrayDeque<StatusChange> closed = new ArrayDeque<>();
+    private long version = 1; // 0 is what a screen that has never synced asks for
+    private long horizon; // changes at or below this version may have been pruned
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+    private final OrderController orders; // source to resync from after missing events, or null
+
+    public OrderStatusFeed() {
+        this(null);
+    }
+
+    public OrderStatusFeed(OrderController orders) {
+        this.orders = orders;
+    }
+
+    @Override
+    public void onEvent(CafeEvent event, long sequence) {
+        switch (event.getType()) {
+            case ORDER_PLACED:
+            case ORDER_STATUS_CHANGED:
+            case ORDER_PAID:
+            case ORDER_CANCELED:
+                record(event.getOrderId(), event.getStatus());
+                break;
+            default:
+                break;
+        }
+    }
+
+    // Missed transitions are recovered by re-reading every order's current status; orders whose
+    // status did not change are no-ops, the rest reach screens as ordinary changes
+    @Override
+    public void onDropped(long count) {
+        if (orders == null) return;
+        Map<Integer, OrderStatus> current = new HashMap<>();
+        synchronized (orders) {
+            for (Order order : orders.getOrders()) {
+                current.put(order.getOrderId(), order.getStatus());
+            }
+        }
+        for (Map.Entry<Integer, OrderStatus> entry : current.entrySet()) {
+            record(entry.getKey(), entry.getValue());
+        }
+    }
+
+    void record(int orderId, OrderStatus status) {
+        lock.lock();
+        try {
+            StatusChange previous = byOrder.get(orderId);
+            if (previous != null) {
+                if (previous.getStatus() == status) return;
+                byVersion.remove(previous.getVersion());
+            }
+            int seen = (previous == null ? 0 : previous.getSeenMask()) | mask(status);
+            StatusChange change = new StatusChange(orderId, status, seen, ++version);
+            byOrder.put(orderId, change);
+            byVersion.put(change.getVersion(), change);
+            if (status == OrderStatus.COMPLETED || status == OrderStatus.CANCELED) {
+                closed.add(change);
+                if (closed.size() > RETAINED_CLOSED) {
+                    StatusChange oldest = closed.poll();
+                    byVersion.remove(oldest.getVersion());
+                    byOrder.remove(oldest.getOrderId());
+                    horizon = Math.max(horizon, oldest.getVersion());
+                }
+            }
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getVersion() {
+        lock.lock();
+        try {
+            return version;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Orders that hold, or have held, one of the statuses and changed after the given version.
+    // Version 0, a version from before the pruning horizon or one the feed never reached (a screen
+    // that synced before a restart) gets a reset: every open order currently in one of the statuses.
+    public StatusUpdate changesSince(long since, Set<OrderStatus> statuses) {
+        lock.lock();
+        try {
+            int watched = mask(statuses);
+            List<StatusChange> changes = new ArrayList<>();
+            if (needsReset(since)) {
+                for (StatusChange change : byVersion.values()) {
+                    if ((mask(change.getStatus()) & watched) != 0 && !change.isClosed()) changes.add(change);
+                }
+                return new StatusUpdate(version, true, changes);
+            }
+            for (StatusChange change : byVersion.tailMap(since, false).values()) {
+                if ((change.getSeenMask() & watched) != 0) changes.add(change);
+            }
+            return new StatusUpdate(version, false, changes);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Waits up to the timeout for a relevant change; an empty update means nothing happened
+    public StatusUpdate await(long since, Set<OrderStatus> statuses, long timeoutMillis)
+            throws InterruptedException {
+        long remaining = TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        lock.lockInterruptibly();
+        try {
+            while (true) {
+                StatusUpdate update = version > since || needsReset(since) ? changesSince(since, statuses) : null;
+                if (update != null && (update.isReset() || !update.getChanges().isEmpty())) return update;
+                if (remaining <= 0) return new StatusUpdate(Math.max(since, version), false, Collections.emptyList());
+                if (update != null) since = update.getVersion(); // irrelevant changes don't need rescanning
+                remaining = changed.awaitNanos(remaining);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean needsReset(long since) {
+        return since <= 0 || since < horizon || since > version;
+    }
+
+    // A screen's subscription: remembers its own version so each call returns what is new
+    public OrderStatusWatch watch(Set<OrderStatus> statuses) {
+        return new OrderStatusWatch(this, EnumSet.copyOf(statuses));
+    }
+
+    private static int mask(OrderStatus status) {
+        return 1 << status.ordinal();
+    }
+
+    private static int mask(Set<OrderStatus> statuses) {
+        int mask = 0;
+        for (OrderStatus status : statuses) mask |= mask(status);
+        return mask;
+    }
+}
+
+class OrderStatusWatch {
+    private final OrderStatusFeed feed;
+    private final Set<OrderStatus> statuses;
+    private long version;
+
+    OrderStatusWatch(OrderStatusFeed feed, Set<OrderStatus> statuses) {
+        this.feed = feed;
+        this.statuses = statuses;
+    }
+
+    // The first call, and any call after falling behind the pruning horizon, is a reset
+    public StatusUpdate next(long timeoutMillis) throws InterruptedException {
+        StatusUpdate update = feed.await(version, statuses, timeoutMillis);
+        version = update.getVersion();
+        return update;
+    }
+}
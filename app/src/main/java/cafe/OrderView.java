@@ -0,0 +1,21 @@
+package cafe;
+
+import java.util.*;
+
+// View: Handles User Interaction
+class OrderView {
+    private Scanner scanner = new Scanner(System.in);
+
+    public void displayMessage(String message) {
+        System.out.println(message);
+    }
+
+    public String getInput(String prompt) {
+        System.out.print(prompt);
+        return scanner.nextLine();
+    }
+
+    public void displayOrderDetails(String summary) {
+        System.out.println(summary);
+    }
+}
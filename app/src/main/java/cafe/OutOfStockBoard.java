@@ -0,0 +1,53 @@
+package cafe;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+// Terminal-side view of which menu items are currently out of stock, kept up to date from the bus
+class OutOfStockBoard implements CafeEventHandler {
+    private final Set<String> outOfStock = ConcurrentHashMap.newKeySet();
+    private final MenuController menuController;
+
+    public OutOfStockBoard(MenuController menuController) {
+        this.menuController = menuController;
+        resync();
+    }
+
+    // Missed events may have flipped any item, so the board is rebuilt from the menu
+    @Override
+    public void onDropped(long count) {
+        resync();
+    }
+
+    private void resync() {
+        Set<String> current = new HashSet<>();
+        synchronized (menuController) {
+            for (MenuItem item : menuController.getMenuItems()) {
+                if (!item.isAvailable()) current.add(item.getName());
+            }
+        }
+        outOfStock.retainAll(current);
+        outOfStock.addAll(current);
+    }
+
+    @Override
+    public void onEvent(CafeEvent event, long sequence) {
+        switch (event.getType()) {
+            case MENU_ITEM_ADDED:
+            case MENU_ITEM_UPDATED:
+            case MENU_AVAILABILITY_CHANGED:
+                if (event.isAvailable()) outOfStock.remove(event.getItemName());
+                else outOfStock.add(event.getItemName());
+                break;
+            case MENU_ITEM_DELETED:
+                outOfStock.remove(event.getItemName());
+                break;
+            default:
+                break;
+        }
+    }
+
+    public Set<String> getOutOfStock() {
+        return Collections.unmodifiableSet(outOfStock);
+    }
+}
@@ -0,0 +1,41 @@
+package cafe;
+
+// One staff member's hours and pay for the period
+class PayStub {
+    private final StaffMember staff;
+    private final double rate;
+    private double regularHours;
+    private double overtimeHours;
+    private double nightHours;
+    private double weekendHours;
+
+    PayStub(StaffMember staff, double rate) {
+        this.staff = staff;
+        this.rate = rate;
+    }
+
+    void addDay(double regular, double overtime, boolean night, boolean weekend) {
+        regularHours += regular;
+        overtimeHours += overtime;
+        if (night) nightHours += regular + overtime;
+        if (weekend) weekendHours += regular + overtime;
+    }
+
+    public StaffMember getStaff() { return staff; }
+    public double getRegularHours() { return regularHours; }
+    public double getOvertimeHours() { return overtimeHours; }
+    public double getTotalHours() { return regularHours + overtimeHours; }
+    public double getNightHours() { return nightHours; }
+    public double getWeekendHours() { return weekendHours; }
+
+    public double getGrossPay() {
+        return rate * (regularHours + overtimeHours * PayrollEngine.OVERTIME_FACTOR
+                + nightHours * PayrollEngine.NIGHT_PREMIUM + weekendHours * PayrollEngine.WEEKEND_PREMIUM);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("#%d %-24s %6.1f h (%5.1f OT, %5.1f night, %5.1f weekend)  $%,10.2f",
+                staff.getId(), staff.toString(), getTotalHours(), overtimeHours, nightHours, weekendHours, getGrossPay());
+    }
+}
@@ -0,0 +1,146 @@
+package cafe;
+
+import java.time.*;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.IsoFields;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+// Hours, overtime and premiums for a pay period, computed from assigned shifts. Recorded
+// attendance replaces the scheduled length of a shift when present. The roster is split across
+// the fork-join pool; each task works on a slice of staff and the partial reports are merged.
+//
+//   - Hours over 40 in an ISO week are overtime, paid at 1.5x. When the period starts mid-week,
+//     hours worked earlier that week count toward the 40 but are not paid again
+//   - Night shifts earn a 15% premium, Saturday and Sunday shifts 25%, on the hours of those shifts
+//   - Hourly rates come from the role, DEFAULT_RATE for roles without one
+public class PayrollEngine {
+    static final double SHIFT_HOURS = 8;
+    static final double WEEKLY_HOURS = 40;
+    static final double OVERTIME_FACTOR = 1.5;
+    static final double NIGHT_PREMIUM = 0.15;
+    static final double WEEKEND_PREMIUM = 0.25;
+    static final double DEFAULT_RATE = 13.00;
+    private static final int SLICE = 64;
+
+    private final Map<String, Double> hourlyRates = new HashMap<>();
+
+    public PayrollEngine() {
+        hourlyRates.put("barista", 14.00);
+        hourlyRates.put("cashier", 13.50);
+        hourlyRates.put("kitchen", 15.00);
+        hourlyRates.put("manager", 22.00);
+    }
+
+    public void setHourlyRate(String role, double rate) {
+        if (rate <= 0) {
+            throw new IllegalArgumentException("Hourly rate must be positive.");
+        }
+        hourlyRates.put(role.toLowerCase(), rate);
+    }
+
+    public double hourlyRate(String role) {
+        return hourlyRates.getOrDefault(role.toLowerCase(), DEFAULT_RATE);
+    }
+
+    // Pay for every staff member with work in [from, to]; revenueCents (may be 0) gives the labor cost ratio
+    public PayrollReport run(List<StaffMember> staff, LocalDate from, LocalDate to, long revenueCents) {
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("Pay period ends before it starts.");
+        }
+        List<StaffMember> roster = new ArrayList<>(staff);
+        PayrollReport report = ForkJoinPool.commonPool().invoke(new PayrollTask(roster, 0, roster.size(), from, to));
+        report.setPeriod(from, to, revenueCents);
+        return report;
+    }
+
+    private final class PayrollTask extends RecursiveTask<PayrollReport> {
+        private static final long serialVersionUID = 1L;
+
+        private final transient List<StaffMember> roster; // tasks only run in this JVM
+        private final int start;
+        private final int end;
+        private final LocalDate from;
+        private final LocalDate to;
+
+        PayrollTask(List<StaffMember> roster, int start, int end, LocalDate from, LocalDate to) {
+            this.roster = roster;
+            this.start = start;
+            this.end = end;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected PayrollReport compute() {
+            if (end - start <= SLICE) {
+                PayrollReport report = new PayrollReport();
+                for (int i = start; i < end; i++) {
+                    PayStub stub = payStub(roster.get(i), from, to);
+                    if (stub.getTotalHours() > 0) report.add(stub);
+                }
+                return report;
+            }
+            int mid = (start + end) >>> 1;
+            PayrollTask left = new PayrollTask(roster, start, mid, from, to);
+            left.fork();
+            PayrollReport right = new PayrollTask(roster, mid, end, from, to).compute();
+            return left.join().merge(right);
+        }
+    }
+
+    PayStub payStub(StaffMember staff, LocalDate from, LocalDate to) {
+        double rate = hourlyRate(staff.getRole());
+        PayStub stub = new PayStub(staff, rate);
+        Map<LocalDate, Shift> shifts = staff.getAssignedShifts();
+        Map<LocalDate, Double> attended = staff.getAttendance();
+        // Walk whichever is smaller: the period's days or the staff member's shifts
+        boolean byDay = ChronoUnit.DAYS.between(from, to) + 1 < shifts.size();
+        List<LocalDate> days = new ArrayList<>();
+        if (byDay) {
+            for (LocalDate d = from; !d.isAfter(to); d = d.plusDays(1)) {
+                if (shifts.containsKey(d) || attended.containsKey(d)) days.add(d);
+            }
+        } else {
+            for (LocalDate d : shifts.keySet()) {
+                if (!d.isBefore(from) && !d.isAfter(to)) days.add(d);
+            }
+            for (LocalDate d : attended.keySet()) {
+                if (!d.isBefore(from) && !d.isAfter(to) && !shifts.containsKey(d)) days.add(d);
+            }
+        }
+        Collections.sort(days);
+
+        // The first week starts with whatever was worked from its Monday up to the period start
+        long week = isoWeek(from);
+        double weekHours = 0;
+        for (LocalDate d = from.with(DayOfWeek.MONDAY); d.isBefore(from); d = d.plusDays(1)) {
+            weekHours += hoursOn(d, shifts, attended);
+        }
+        for (LocalDate day : days) {
+            long dayWeek = isoWeek(day);
+            if (dayWeek != week) {
+                week = dayWeek;
+                weekHours = 0;
+            }
+            Shift shift = shifts.get(day);
+            double hours = hoursOn(day, shifts, attended);
+            double overtime = Math.max(0, Math.min(hours, weekHours + hours - WEEKLY_HOURS));
+            weekHours += hours;
+            boolean night = shift != null && shift.getShiftType().equalsIgnoreCase("Night");
+            boolean weekend = day.getDayOfWeek() == DayOfWeek.SATURDAY || day.getDayOfWeek() == DayOfWeek.SUNDAY;
+            stub.addDay(hours - overtime, overtime, night, weekend);
+        }
+        return stub;
+    }
+
+    // Recorded attendance, else the scheduled shift length, else nothing
+    private static double hoursOn(LocalDate day, Map<LocalDate, Shift> shifts, Map<LocalDate, Double> attended) {
+        return attended.getOrDefault(day, shifts.containsKey(day) ? SHIFT_HOURS : 0);
+    }
+
+    private static long isoWeek(LocalDate day) {
+        return day.get(IsoFields.WEEK_BASED_YEAR) * 100L + day.get(IsoFields.WEEK_OF_WEEK_BASED_YEAR);
+    }
+}
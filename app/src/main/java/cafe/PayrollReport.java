@@ -0,0 +1,68 @@
+package cafe;
+
+import java.time.*;
+import java.util.*;
+
+// Pay stubs for a period with totals per role; partial reports from the fork-join tasks merge
+class PayrollReport {
+    private final List<PayStub> stubs = new ArrayList<>();
+    private final Map<String, Double> costByRole = new TreeMap<>();
+    private double totalHours;
+    private double overtimeHours;
+    private double laborCost;
+    private LocalDate from;
+    private LocalDate to;
+    private long revenueCents;
+
+    void add(PayStub stub) {
+        stubs.add(stub);
+        costByRole.merge(stub.getStaff().getRole(), stub.getGrossPay(), Double::sum);
+        totalHours += stub.getTotalHours();
+        overtimeHours += stub.getOvertimeHours();
+        laborCost += stub.getGrossPay();
+    }
+
+    PayrollReport merge(PayrollReport other) {
+        stubs.addAll(other.stubs);
+        other.costByRole.forEach((role, cost) -> costByRole.merge(role, cost, Double::sum));
+        totalHours += other.totalHours;
+        overtimeHours += other.overtimeHours;
+        laborCost += other.laborCost;
+        return this;
+    }
+
+    void setPeriod(LocalDate from, LocalDate to, long revenueCents) {
+        this.from = from;
+        this.to = to;
+        this.revenueCents = revenueCents;
+    }
+
+    public List<PayStub> getStubs() { return stubs; }
+    public Map<String, Double> getCostByRole() { return costByRole; }
+    public double getTotalHours() { return totalHours; }
+    public double getOvertimeHours() { return overtimeHours; }
+    public double getLaborCost() { return laborCost; }
+    public double getRevenue() { return revenueCents / 100.0; }
+
+    // Labor cost as a share of revenue; NaN when there was no revenue to compare with
+    public double getLaborCostRatio() {
+        return revenueCents > 0 ? laborCost / getRevenue() : Double.NaN;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("Payroll ").append(from).append(" to ").append(to).append('\n');
+        sb.append(String.format("Staff paid: %d, hours: %.1f (%.1f overtime), labor cost: $%,.2f%n",
+                stubs.size(), totalHours, overtimeHours, laborCost));
+        for (Map.Entry<String, Double> role : costByRole.entrySet()) {
+            sb.append(String.format("  %-12s $%,12.2f%n", role.getKey(), role.getValue()));
+        }
+        if (revenueCents > 0) {
+            sb.append(String.format("Revenue: $%,.2f, labor cost ratio: %.1f%%%n", getRevenue(), getLaborCostRatio() * 100));
+        } else {
+            sb.append("No order revenue recorded for the period.\n");
+        }
+        return sb.toString();
+    }
+}
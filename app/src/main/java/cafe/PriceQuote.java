@@ -0,0 +1,20 @@
+package cafe;
+
+import java.util.*;
+
+// Result of pricing one order, in cents
+class PriceQuote {
+    private final long listCents;
+    private final long totalCents;
+    private final List<String> appliedPromotions;
+
+    PriceQuote(long listCents, long totalCents, List<String> appliedPromotions) {
+        this.listCents = listCents;
+        this.totalCents = totalCents;
+        this.appliedPromotions = appliedPromotions;
+    }
+
+    public long getListCents() { return listCents; }
+    public long getTotalCents() { return totalCents; }
+    public List<String> getAppliedPromotions() { return appliedPromotions; }
+}
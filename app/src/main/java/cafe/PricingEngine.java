@@ -0,0 +1,432 @@
+package cafe;
+
+import java.io.*;
+import java.time.*;
+import java.util.*;
+
+// Prices orders against the active promotions (meal deals, happy hour, buy-one-get-one).
+// Promotions are compiled against the menu into a decision table: for every menu item id, the
+// promotions it can take part in, and for every promotion slot, the set of item ids it accepts.
+// Pricing an order then only looks at the promotions its own items point to, and a memoized
+// search over the remaining unit counts picks the cheapest combination. The search is bounded:
+// orders whose count space exceeds the budget apply the best-saving promotion repeatedly instead.
+// Menu changes published on the event bus mark the table stale; it is rebuilt on the next quote.
+public class PricingEngine implements CafeEventHandler {
+    private static final int STATE_BUDGET = 4_096;
+    private static final int MAX_LINES = 64;
+
+    private final MenuController menuController;
+    private volatile List<Promotion> promotions = Collections.emptyList(); // immutable, replaced whole
+    private volatile CompiledPricing compiled;
+    private volatile boolean stale = true;
+
+    public PricingEngine(MenuController menuController) {
+        this.menuController = menuController;
+    }
+
+    public void setPromotions(List<Promotion> promotions) {
+        this.promotions = List.copyOf(promotions);
+        stale = true;
+    }
+
+    public List<Promotion> getPromotions() {
+        return promotions;
+    }
+
+    @Override
+    public void onEvent(CafeEvent event, long sequence) {
+        switch (event.getType()) {
+            case MENU_ITEM_ADDED:
+            case MENU_ITEM_UPDATED:
+            case MENU_ITEM_DELETED:
+                stale = true;
+                break;
+            default:
+                break;
+        }
+    }
+
+    @Override
+    public void onDropped(long count) {
+        stale = true;
+    }
+
+    // Reads one promotion per line (see Promotion.parse); blank lines and # comments are skipped
+    public static List<Promotion> loadPromotions(String fileName) throws IOException {
+        List<Promotion> loaded = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new FileReader(fileName))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) continue;
+                loaded.add(Promotion.parse(line));
+            }
+        }
+        return loaded;
+    }
+
+    public PriceQuote quote(Order order) {
+        if (promotions.isEmpty()) {
+            // Nothing to compile; avoids building the item table over the whole menu
+            long listCents = 0;
+            for (OrderItem item : order.getItems()) {
+                listCents += Math.round(item.getPrice() * 100) * item.getQuantity();
+            }
+            return new PriceQuote(listCents, listCents, Collections.emptyList());
+        }
+        CompiledPricing table = table();
+        LocalTime time = LocalDateTime.ofInstant(order.getOrderDate().toInstant(), ZoneId.systemDefault()).toLocalTime();
+
+        // One pass over the order: resolve item ids, list prices and the promotions they point to
+        List<OrderItem> items = new ArrayList<>(order.getItems());
+        items.sort(Comparator.comparingDouble(OrderItem::getPrice).reversed());
+        int lineCount = items.size();
+        int[] ids = new int[lineCount];
+        long[] prices = new long[lineCount];
+        int[] counts = new int[lineCount];
+        long listCents = 0;
+        BitSet candidates = new BitSet();
+        for (int i = 0; i < lineCount; i++) {
+            OrderItem item = items.get(i);
+            ids[i] = table.itemId(item.getItemName());
+            prices[i] = Math.round(item.getPrice() * 100);
+            counts[i] = item.getQuantity();
+            listCents += prices[i] * counts[i];
+            if (ids[i] >= 0) {
+                for (int promo : table.promotionsFor(ids[i])) {
+                    if (table.promotion(promo).isActiveAt(time)) candidates.set(promo);
+                }
+            }
+        }
+        if (candidates.isEmpty() || lineCount > MAX_LINES) {
+            return new PriceQuote(listCents, listCents, Collections.emptyList());
+        }
+
+        // Which lines can fill each slot of each candidate promotion
+        List<Promotion> promos = new ArrayList<>();
+        List<long[]> slotMasks = new ArrayList<>();
+        for (int p = candidates.nextSetBit(0); p >= 0; p = candidates.nextSetBit(p + 1)) {
+            Promotion promotion = table.promotion(p);
+            long[] masks = new long[promotion.getComponents().size()];
+            boolean fillable = true;
+            for (int c = 0; c < masks.length; c++) {
+                int units = 0;
+                for (int i = 0; i < lineCount; i++) {
+                    if (ids[i] >= 0 && table.accepts(p, c, ids[i])) {
+                        masks[c] |= 1L << i;
+                        units += counts[i];
+                    }
+                }
+                fillable &= units >= promotion.getComponents().get(c).getCount();
+            }
+            if (fillable) {
+                promos.add(promotion);
+                slotMasks.add(masks);
+            }
+        }
+        if (promos.isEmpty()) {
+            return new PriceQuote(listCents, listCents, Collections.emptyList());
+        }
+
+        PromotionSearch search = new PromotionSearch(promos, slotMasks, prices, counts);
+        List<String> applied = new ArrayList<>();
+        long total;
+        try {
+            total = search.solve(applied);
+        } catch (SearchBudgetExceeded e) {
+            applied.clear();
+            total = search.greedy(applied);
+        }
+        return new PriceQuote(listCents, total, applied);
+    }
+
+    private CompiledPricing table() {
+        if (stale || compiled == null) {
+            synchronized (this) {
+                if (stale || compiled == null) {
+                    stale = false;
+                    // The menu lock keeps items and their fields still while the table is built
+                    synchronized (menuController) {
+                        compiled = new CompiledPricing(menuController.getMenuItems(), promotions);
+                    }
+                }
+            }
+        }
+        return compiled;
+    }
+
+    // Memoized search over remaining unit counts. Lines are sorted by price, highest first; each
+    // step takes the most expensive remaining unit and either sells it at list price or uses it
+    // as the anchor of a promotion whose other slots take the most expensive eligible units.
+    private static final class PromotionSearch {
+        private final List<Promotion> promos;
+        private final List<long[]> slotMasks;
+        private final long[] prices;
+        private final int[] counts;
+        private final int[] shifts;
+        private final int[] widths;
+        private final boolean exact;
+        private final int[][] promosByLine; // promotions with a slot that accepts the line
+        private final int[][] slotCounts;
+        private final int[] unitCounts;
+        private final int[] scratch;
+        private final Map<Long, Long> memo = new HashMap<>();
+        private final Map<Long, Integer> choice = new HashMap<>();
+
+        PromotionSearch(List<Promotion> promos, List<long[]> slotMasks, long[] prices, int[] counts) {
+            this.promos = promos;
+            this.slotMasks = slotMasks;
+            this.prices = prices;
+            this.counts = counts.clone();
+            shifts = new int[counts.length];
+            widths = new int[counts.length];
+            int bits = 0;
+            long space = 1;
+            for (int i = 0; i < counts.length; i++) {
+                shifts[i] = bits;
+                widths[i] = 32 - Integer.numberOfLeadingZeros(counts[i]);
+                bits += widths[i];
+                space = Math.min(space * (counts[i] + 1), Integer.MAX_VALUE);
+            }
+            exact = bits <= 63 && space <= STATE_BUDGET;
+            scratch = new int[counts.length];
+            slotCounts = new int[promos.size()][];
+            unitCounts = new int[promos.size()];
+            for (int p = 0; p < promos.size(); p++) {
+                List<PromotionComponent> components = promos.get(p).getComponents();
+                slotCounts[p] = new int[components.size()];
+                for (int c = 0; c < components.size(); c++) slotCounts[p][c] = components.get(c).getCount();
+                unitCounts[p] = promos.get(p).unitCount();
+            }
+            promosByLine = new int[counts.length][];
+            for (int i = 0; i < counts.length; i++) {
+                List<Integer> accepting = new ArrayList<>();
+                for (int p = 0; p < promos.size(); p++) {
+                    long any = 0;
+                    for (long mask : slotMasks.get(p)) any |= mask;
+                    if ((any & (1L << i)) != 0) accepting.add(p);
+                }
+                promosByLine[i] = accepting.stream().mapToInt(Integer::intValue).toArray();
+            }
+        }
+
+        long solve(List<String> applied) {
+            if (!exact) throw new SearchBudgetExceeded();
+            int[] state = counts.clone();
+            long total = best(state);
+            // Replay the recorded choices to list the promotions used
+            while (true) {
+                int line = firstRemaining(state);
+                if (line < 0) break;
+                int promo = choice.get(pack(state));
+                if (promo < 0) {
+                    state[line]--;
+                } else {
+                    int[] units = fill(promo, line, state);
+                    applied.add(describe(promo, units));
+                    take(state, units);
+                }
+            }
+            return total;
+        }
+
+        private long best(int[] state) {
+            int line = firstRemaining(state);
+            if (line < 0) return 0;
+            long key = pack(state);
+            Long known = memo.get(key);
+            if (known != null) return known;
+            if (memo.size() >= STATE_BUDGET) throw new SearchBudgetExceeded();
+
+            state[line]--;
+            long bestCost = prices[line] + best(state);
+            state[line]++;
+            int bestChoice = -1;
+            for (int p : promosByLine[line]) {
+                int[] units = fill(p, line, state);
+                if (units == null) continue;
+                take(state, units);
+                long cost = promos.get(p).price(unitPrices(units)) + best(state);
+                give(state, units);
+                if (cost < bestCost) {
+                    bestCost = cost;
+                    bestChoice = p;
+                }
+            }
+            memo.put(key, bestCost);
+            choice.put(key, bestChoice);
+            return bestCost;
+        }
+
+        // Repeatedly applies the promotion that saves the most, then prices the rest at list
+        long greedy(List<String> applied) {
+            int[] state = counts.clone();
+            long total = 0;
+            while (true) {
+                int bestPromo = -1;
+                int[] bestUnits = null;
+                long bestSaving = 0;
+                for (int p = 0; p < promos.size(); p++) {
+                    int[] units = fill(p, -1, state);
+                    if (units == null) continue;
+                    long[] unitPrices = unitPrices(units);
+                    long saving = sum(unitPrices) - promos.get(p).price(unitPrices);
+                    if (saving > bestSaving) {
+                        bestSaving = saving;
+                        bestPromo = p;
+                        bestUnits = units;
+                    }
+                }
+                if (bestPromo < 0) break;
+                applied.add(describe(bestPromo, bestUnits));
+                total += promos.get(bestPromo).price(unitPrices(bestUnits));
+                take(state, bestUnits);
+            }
+            for (int i = 0; i < state.length; i++) {
+                total += prices[i] * state[i];
+            }
+            return total;
+        }
+
+        // Lines used by one application of the promotion (one entry per unit), or null if it can't be filled.
+        // With an anchor line, that line must fill one of the slots.
+        private int[] fill(int promo, int anchor, int[] state) {
+            long[] masks = slotMasks.get(promo);
+            int[] needs = slotCounts[promo];
+            int[] taken = scratch; // all zero between calls
+            int[] units = new int[unitCounts[promo]];
+            int used = 0;
+            boolean anchored = anchor < 0;
+            boolean filled = true;
+            for (int c = 0; c < masks.length && filled; c++) {
+                int needed = needs[c];
+                if (!anchored && (masks[c] & (1L << anchor)) != 0 && state[anchor] > 0) {
+                    taken[anchor]++;
+                    units[used++] = anchor;
+                    needed--;
+                    anchored = true;
+                }
+                // Lines are sorted by price, so the lowest set bit is the most expensive eligible line
+                for (long eligible = masks[c]; needed > 0 && eligible != 0; eligible &= eligible - 1) {
+                    int i = Long.numberOfTrailingZeros(eligible);
+                    while (needed > 0 && taken[i] < state[i]) {
+                        taken[i]++;
+                        units[used++] = i;
+                        needed--;
+                    }
+                }
+                filled = needed == 0;
+            }
+            for (int u = 0; u < used; u++) taken[units[u]] = 0;
+            return filled && anchored ? units : null;
+        }
+
+        private long[] unitPrices(int[] units) {
+            long[] unitPrices = new long[units.length];
+            for (int u = 0; u < units.length; u++) unitPrices[u] = prices[units[u]];
+            return unitPrices;
+        }
+
+        private String describe(int promo, int[] units) {
+            long[] unitPrices = unitPrices(units);
+            long saving = sum(unitPrices) - promos.get(promo).price(unitPrices);
+            return promos.get(promo).getName() + " -$" + saving / 100 + "." + (saving % 100 < 10 ? "0" : "") + saving % 100;
+        }
+
+        private static long sum(long[] values) {
+            long total = 0;
+            for (long value : values) total += value;
+            return total;
+        }
+
+        private static void take(int[] state, int[] units) {
+            for (int line : units) state[line]--;
+        }
+
+        private static void give(int[] state, int[] units) {
+            for (int line : units) state[line]++;
+        }
+
+        private static int firstRemaining(int[] state) {
+            for (int i = 0; i < state.length; i++) {
+                if (state[i] > 0) return i;
+            }
+            return -1;
+        }
+
+        private long pack(int[] state) {
+            long key = 0;
+            for (int i = 0; i < state.length; i++) key |= (long) state[i] << shifts[i];
+            return key;
+        }
+    }
+
+    private static final class SearchBudgetExceeded extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        SearchBudgetExceeded() {
+            super(null, null, false, false);
+        }
+    }
+}
+
+// The decision table for one menu snapshot and promotion list
+class CompiledPricing {
+    private static final int[] NONE = new int[0];
+
+    private final Map<String, Integer> itemIds = new HashMap<>();
+    private final Promotion[] promotions;
+    private final int[][] promotionsByItem; // keyed by the promotion's most selective slot
+    private final BitSet[][] acceptedItems; // [promotion][slot] -> item ids
+
+    CompiledPricing(List<MenuItem> menu, List<Promotion> promotionList) {
+        List<MenuItem> items = new ArrayList<>(menu);
+        for (int id = 0; id < items.size(); id++) {
+            itemIds.putIfAbsent(items.get(id).getName().toLowerCase(), id);
+        }
+        promotions = promotionList.toArray(new Promotion[0]);
+        acceptedItems = new BitSet[promotions.length][];
+        List<List<Integer>> byItem = new ArrayList<>();
+        for (int id = 0; id < items.size(); id++) byItem.add(new ArrayList<>());
+        for (int p = 0; p < promotions.length; p++) {
+            List<PromotionComponent> components = promotions[p].getComponents();
+            acceptedItems[p] = new BitSet[components.size()];
+            BitSet selective = null;
+            for (int c = 0; c < components.size(); c++) {
+                BitSet accepted = new BitSet();
+                for (int id = 0; id < items.size(); id++) {
+                    if (components.get(c).matches(items.get(id))) accepted.set(id);
+                }
+                acceptedItems[p][c] = accepted;
+                if (selective == null || accepted.cardinality() < selective.cardinality()) selective = accepted;
+            }
+            // An order can only use the promotion if it contains an item for every slot, so
+            // listing it under the items of its narrowest slot is enough
+            for (int id = selective.nextSetBit(0); id >= 0; id = selective.nextSetBit(id + 1)) {
+                byItem.get(id).add(p);
+            }
+        }
+        promotionsByItem = new int[items.size()][];
+        for (int id = 0; id < items.size(); id++) {
+            promotionsByItem[id] = byItem.get(id).isEmpty() ? NONE
+                    : byItem.get(id).stream().mapToInt(Integer::intValue).toArray();
+        }
+    }
+
+    int itemId(String itemName) {
+        Integer id = itemIds.get(itemName.toLowerCase());
+        return id == null ? -1 : id;
+    }
+
+    int[] promotionsFor(int itemId) {
+        return promotionsByItem[itemId];
+    }
+
+    Promotion promotion(int index) {
+        return promotions[index];
+    }
+
+    boolean accepts(int promotion, int slot, int itemId) {
+        return acceptedItems[promotion][slot].get(itemId);
+    }
+}
@@ -0,0 +1,100 @@
+package cafe;
+
+import java.time.*;
+import java.util.*;
+
+// A promotion rule, e.g. "Meal Deal|category:Burgers,category:Sides,category:Drinks|price:7.99"
+// or "Happy Hour|category:Drinks|percent:50|14:00-17:00" or "BOGO Burger|item:Burger x2|free-cheapest"
+class Promotion {
+    private final String name;
+    private final List<PromotionComponent> components;
+    private final DiscountType discountType;
+    private final double amount;   // dollars for FIXED_PRICE, percent for PERCENT_OFF
+    private final LocalTime start; // null when always active
+    private final LocalTime end;
+
+    public Promotion(String name, List<PromotionComponent> components, DiscountType discountType, double amount,
+                     LocalTime start, LocalTime end) {
+        if (components.isEmpty()) {
+            throw new IllegalArgumentException("Promotion " + name + " has no items.");
+        }
+        this.name = name;
+        this.components = components;
+        this.discountType = discountType;
+        this.amount = amount;
+        this.start = start;
+        this.end = end;
+    }
+
+    static Promotion parse(String line) {
+        String[] parts = line.split("\\|");
+        if (parts.length < 3) {
+            throw new IllegalArgumentException("Expected name|items|discount[|hh:mm-hh:mm]: " + line);
+        }
+        List<PromotionComponent> components = new ArrayList<>();
+        for (String component : parts[1].split(",")) {
+            components.add(PromotionComponent.parse(component.trim()));
+        }
+        String discount = parts[2].trim().toLowerCase();
+        DiscountType type;
+        double amount = 0;
+        if (discount.startsWith("price:")) {
+            type = DiscountType.FIXED_PRICE;
+            amount = Double.parseDouble(discount.substring(6));
+        } else if (discount.startsWith("percent:")) {
+            type = DiscountType.PERCENT_OFF;
+            amount = Double.parseDouble(discount.substring(8));
+        } else if (discount.equals("free-cheapest")) {
+            type = DiscountType.FREE_CHEAPEST;
+        } else {
+            throw new IllegalArgumentException("Unknown discount: " + parts[2]);
+        }
+        LocalTime start = null;
+        LocalTime end = null;
+        if (parts.length > 3 && !parts[3].isBlank()) {
+            String[] window = parts[3].trim().split("-");
+            start = LocalTime.parse(window[0].trim());
+            end = LocalTime.parse(window[1].trim());
+        }
+        return new Promotion(parts[0].trim(), components, type, amount, start, end);
+    }
+
+    public String getName() { return name; }
+    public List<PromotionComponent> getComponents() { return components; }
+
+    int unitCount() {
+        int units = 0;
+        for (PromotionComponent component : components) units += component.getCount();
+        return units;
+    }
+
+    // Windows may wrap past midnight
+    boolean isActiveAt(LocalTime time) {
+        if (start == null) return true;
+        if (start.isBefore(end)) return !time.isBefore(start) && time.isBefore(end);
+        return !time.isBefore(start) || time.isBefore(end);
+    }
+
+    // Price in cents for the units taking part in one application
+    long price(long[] unitPrices) {
+        long sum = 0;
+        long cheapest = Long.MAX_VALUE;
+        for (long unitPrice : unitPrices) {
+            sum += unitPrice;
+            cheapest = Math.min(cheapest, unitPrice);
+        }
+        switch (discountType) {
+            case FIXED_PRICE: return Math.min(sum, Math.round(amount * 100));
+            case PERCENT_OFF: return sum - Math.round(sum * amount / 100);
+            default: return sum - cheapest;
+        }
+    }
+
+    @Override
+    public String toString() {
+        String window = start == null ? "" : " (" + start + "-" + end + ")";
+        String discount = discountType == DiscountType.FIXED_PRICE ? String.format("$%.2f", amount)
+                : discountType == DiscountType.PERCENT_OFF ? amount + "% off" : "cheapest free";
+        return name + ": " + components + " for " + discount + window;
+    }
+}
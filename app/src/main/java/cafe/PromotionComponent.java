@@ -0,0 +1,41 @@
+package cafe;
+
+// One slot of a promotion: a number of units of a given item or of any item in a category
+class PromotionComponent {
+    private final String itemName;
+    private final String category;
+    private final int count;
+
+    PromotionComponent(String itemName, String category, int count) {
+        this.itemName = itemName;
+        this.category = category;
+        this.count = count;
+    }
+
+    // "item:Burger", "category:Drinks x2"
+    static PromotionComponent parse(String text) {
+        int count = 1;
+        int times = text.lastIndexOf(" x");
+        if (times > 0 && text.substring(times + 2).trim().matches("\\d+")) {
+            count = Integer.parseInt(text.substring(times + 2).trim());
+            text = text.substring(0, times).trim();
+        }
+        if (count <= 0) {
+            throw new IllegalArgumentException("Quantity must be positive: " + text);
+        }
+        if (text.startsWith("item:")) return new PromotionComponent(text.substring(5).trim(), null, count);
+        if (text.startsWith("category:")) return new PromotionComponent(null, text.substring(9).trim(), count);
+        throw new IllegalArgumentException("Expected item:<name> or category:<name>: " + text);
+    }
+
+    int getCount() { return count; }
+
+    boolean matches(MenuItem item) {
+        return itemName != null ? item.getName().equalsIgnoreCase(itemName) : item.getCategory().equalsIgnoreCase(category);
+    }
+
+    @Override
+    public String toString() {
+        return (count > 1 ? count + " x " : "") + (itemName != null ? itemName : "any " + category);
+    }
+}
@@ -0,0 +1,13 @@
+package cafe;
+
+import jdk.jfr.*;
+
+@Name("cafe.ReceiptWritten")
+@Label("Receipt Written")
+@Category({"Cafe", "Orders"})
+@StackTrace(false)
+class ReceiptWrittenEvent extends Event {
+    @Label("Order Id") int orderId;
+    @Label("Item Count") int itemCount;
+    @Label("Characters") int characters;
+}
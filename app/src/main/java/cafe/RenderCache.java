@@ -0,0 +1,118 @@
+package cafe;
+
+import java.util.*;
+import java.util.function.Function;
+
+// Rendered output that is displayed far more often than it changes: order summaries (console
+// text and JSON) and the JSON menu board. Order entries live in a bounded LRU keyed by order id
+// and are only reused for the same Order object at the same modification stamp and menu version
+// (lines show item names and allergens from the menu). The menu board is rendered once per
+// menu version. Anything stale is simply re-rendered on the next request.
+public class RenderCache {
+    static final int DEFAULT_ORDER_ENTRIES = 1024;
+
+    private final MenuController menu;
+    private final Map<Integer, RenderedOrder> orders;
+    private long menuBoardVersion = -1;
+    private byte[] menuBoard;
+    private long hits;
+    private long misses;
+
+    public RenderCache(MenuController menu, int maxOrders) {
+        if (maxOrders <= 0) {
+            throw new IllegalArgumentException("Cache size must be positive.");
+        }
+        this.menu = menu;
+        this.orders = new LinkedHashMap<Integer, RenderedOrder>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, RenderedOrder> eldest) {
+                return size() > maxOrders;
+            }
+        };
+    }
+
+    // Order.toString, as shown by the console's summary, modify and receipt screens
+    public synchronized String orderSummary(Order order) {
+        RenderedOrder entry = current(order);
+        if (entry.text == null) {
+            misses++;
+            entry.text = order.toString();
+        } else {
+            hits++;
+        }
+        return entry.text;
+    }
+
+    public synchronized byte[] orderJson(Order order, Function<Order, byte[]> renderer) {
+        RenderedOrder entry = current(order);
+        if (entry.json == null) {
+            misses++;
+            entry.json = renderer.apply(order);
+        } else {
+            hits++;
+        }
+        return entry.json;
+    }
+
+    // Re-rendered when the menu version moves, under the menu's lock so the board can't be torn
+    // by a concurrent edit
+    public synchronized byte[] menuJson(Function<List<MenuItem>, byte[]> renderer) {
+        synchronized (menu) {
+            long version = menu.getMenuVersion();
+            if (menuBoard == null || version != menuBoardVersion) {
+                misses++;
+                menuBoard = renderer.apply(menu.getMenuItems());
+                menuBoardVersion = version;
+            } else {
+                hits++;
+            }
+            return menuBoard;
+        }
+    }
+
+    public synchronized void invalidate(int orderId) {
+        orders.remove(orderId);
+    }
+
+    public synchronized void clear() {
+        orders.clear();
+        menuBoard = null;
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized int getCachedOrderCount() {
+        return orders.size();
+    }
+
+    private RenderedOrder current(Order order) {
+        long menuVersion = menu.getMenuVersion();
+        RenderedOrder entry = orders.get(order.getOrderId());
+        if (entry == null || entry.order != order || entry.stamp != order.getModificationStamp()
+                || entry.menuVersion != menuVersion) {
+            entry = new RenderedOrder(order, order.getModificationStamp(), menuVersion);
+            orders.put(order.getOrderId(), entry);
+        }
+        return entry;
+    }
+}
+
+final class RenderedOrder {
+    final Order order; // archived orders come back as new objects, so identity is part of the key
+    final int stamp;
+    final long menuVersion;
+    String text;
+    byte[] json;
+
+    RenderedOrder(Order order, int stamp, long menuVersion) {
+        this.order = order;
+        this.stamp = stamp;
+        this.menuVersion = menuVersion;
+    }
+}
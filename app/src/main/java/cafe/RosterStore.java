@@ -0,0 +1,254 @@
+package cafe;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.time.LocalDate;
+import java.util.*;
+
+// Append-only roster file. Staff members and time-off requests report their own changes here
+// (they are attached when loaded or added), and save() appends one record per changed object,
+// so saving after an edit costs O(changed) however large the roster is. On load the last record
+// per key wins. Once superseded records outnumber live ones the file is rewritten with just the
+// live records. Each staff member's shifts stay encoded until its schedule is first used.
+//
+// Record: int length, byte type, then for STAFF: id, name, role, unavailable days, attendance
+// (day, hours), shift block (count, then day + shift type); for TIME_OFF: id, staff id, start,
+// end, reason, approved, reviewed. Days are epoch days; strings are modified UTF-8.
+public class RosterStore {
+    private static final byte STAFF = 1;
+    private static final byte TIME_OFF = 2;
+    private static final int MIN_COMPACT_RECORDS = 256;
+
+    private final Path file;
+    private final Set<StaffMember> dirtyStaff = new LinkedHashSet<>();
+    private final Set<TimeOffRequest> dirtyRequests = new LinkedHashSet<>();
+    private final List<StaffMember> staff = new ArrayList<>();
+    private final List<TimeOffRequest> requests = new ArrayList<>();
+    private int recordsInFile;
+    private int nextRequestId = 1;
+
+    public RosterStore(Path file) {
+        this.file = file;
+    }
+
+    public boolean exists() {
+        return Files.exists(file);
+    }
+
+    // === LOADING ===
+
+    // Reads the file in one go. A record cut short by a crash at the end is cut off the file, so
+    // the next save appends right after the last complete record instead of after the torn bytes.
+    public synchronized void load() throws IOException {
+        staff.clear();
+        requests.clear();
+        if (!Files.exists(file)) return;
+        ByteBuffer in = ByteBuffer.wrap(Files.readAllBytes(file));
+        Map<Integer, int[]> latestStaff = new LinkedHashMap<>();   // id -> [offset, length]
+        Map<Integer, int[]> latestRequests = new LinkedHashMap<>();
+        recordsInFile = 0;
+        int complete = 0;
+        while (in.remaining() >= 4) {
+            int length = in.getInt();
+            if (length < 5 || length > in.remaining()) break;
+            int start = in.position();
+            byte type = in.get();
+            int id = in.getInt();
+            (type == STAFF ? latestStaff : latestRequests).put(id, new int[]{start + 1, length - 1});
+            in.position(start + length);
+            recordsInFile++;
+            complete = in.position();
+        }
+        if (complete < in.limit()) {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                channel.truncate(complete);
+            }
+        }
+
+        Map<Integer, StaffMember> byId = new HashMap<>();
+        for (int[] record : latestStaff.values()) {
+            StaffMember member = readStaff(new DataInputStream(new ByteArrayInputStream(in.array(), record[0], record[1])));
+            member.attachTo(this);
+            byId.put(member.getId(), member);
+            staff.add(member);
+        }
+        for (int[] record : latestRequests.values()) {
+            TimeOffRequest request = readRequest(new DataInputStream(new ByteArrayInputStream(in.array(), record[0], record[1])), byId);
+            if (request == null) continue;
+            request.attachTo(this);
+            requests.add(request);
+            nextRequestId = Math.max(nextRequestId, request.getId() + 1);
+        }
+    }
+
+    public synchronized List<StaffMember> getStaff() {
+        return new ArrayList<>(staff);
+    }
+
+    public synchronized List<TimeOffRequest> getTimeOffRequests() {
+        return new ArrayList<>(requests);
+    }
+
+    // === CHANGE TRACKING ===
+
+    // Starts tracking a new staff member; it is written on the next save
+    public synchronized void add(StaffMember member) {
+        member.attachTo(this);
+        staff.add(member);
+        dirtyStaff.add(member);
+    }
+
+    public synchronized void add(TimeOffRequest request) {
+        if (request.getId() == 0) request.setId(nextRequestId++);
+        request.attachTo(this);
+        requests.add(request);
+        dirtyRequests.add(request);
+    }
+
+    synchronized void staffChanged(StaffMember member) {
+        dirtyStaff.add(member);
+    }
+
+    synchronized void requestChanged(TimeOffRequest request) {
+        dirtyRequests.add(request);
+    }
+
+    public synchronized int getDirtyCount() {
+        return dirtyStaff.size() + dirtyRequests.size();
+    }
+
+    // === SAVING ===
+
+    // Appends the changed records; compacts when the file is mostly superseded records
+    public synchronized int save() throws IOException {
+        int written = dirtyStaff.size() + dirtyRequests.size();
+        if (written == 0) return 0;
+        ByteArrayOutputStream batch = new ByteArrayOutputStream();
+        for (StaffMember member : dirtyStaff) writeRecord(batch, STAFF, member.getId(), out -> writeStaff(out, member));
+        for (TimeOffRequest request : dirtyRequests) writeRecord(batch, TIME_OFF, request.getId(), out -> writeRequest(out, request));
+        try (OutputStream out = Files.newOutputStream(file, StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            batch.writeTo(out);
+        }
+        dirtyStaff.clear();
+        dirtyRequests.clear();
+        recordsInFile += written;
+        int live = staff.size() + requests.size();
+        if (recordsInFile > Math.max(MIN_COMPACT_RECORDS, live * 2)) {
+            compact();
+        }
+        return written;
+    }
+
+    // Rewrites the file with one record per staff member and request
+    public synchronized void compact() throws IOException {
+        ByteArrayOutputStream all = new ByteArrayOutputStream();
+        for (StaffMember member : staff) writeRecord(all, STAFF, member.getId(), out -> writeStaff(out, member));
+        for (TimeOffRequest request : requests) writeRecord(all, TIME_OFF, request.getId(), out -> writeRequest(out, request));
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (OutputStream out = Files.newOutputStream(tmp)) {
+            all.writeTo(out);
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        dirtyStaff.clear();
+        dirtyRequests.clear();
+        recordsInFile = staff.size() + requests.size();
+    }
+
+    // === ENCODING ===
+
+    interface RecordBody {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    private static void writeRecord(ByteArrayOutputStream target, byte type, int id, RecordBody body) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(type);
+        out.writeInt(id);
+        body.write(out);
+        out.flush();
+        new DataOutputStream(target).writeInt(bytes.size());
+        bytes.writeTo(target);
+    }
+
+    private static void writeStaff(DataOutputStream out, StaffMember member) throws IOException {
+        out.writeUTF(member.getName());
+        out.writeUTF(member.getRole());
+        out.writeInt(member.getUnavailableDates().size());
+        for (LocalDate date : member.getUnavailableDates()) out.writeInt((int) date.toEpochDay());
+        out.writeInt(member.getAttendance().size());
+        for (Map.Entry<LocalDate, Double> day : member.getAttendance().entrySet()) {
+            out.writeInt((int) day.getKey().toEpochDay());
+            out.writeDouble(day.getValue());
+        }
+        byte[] shifts = member.getEncodedShifts();
+        if (shifts == null) shifts = encodeShifts(member.getAssignedShifts().values());
+        out.writeInt(shifts.length);
+        out.write(shifts);
+    }
+
+    private static StaffMember readStaff(DataInputStream in) throws IOException {
+        int id = in.readInt();
+        StaffMember member = new StaffMember(in.readUTF(), in.readUTF());
+        member.setId(id);
+        List<LocalDate> unavailable = new ArrayList<>();
+        for (int n = in.readInt(); n > 0; n--) unavailable.add(LocalDate.ofEpochDay(in.readInt()));
+        member.setUnavailableDates(unavailable);
+        for (int n = in.readInt(); n > 0; n--) {
+            member.recordAttendance(LocalDate.ofEpochDay(in.readInt()), in.readDouble());
+        }
+        byte[] shifts = new byte[in.readInt()];
+        in.readFully(shifts);
+        member.setEncodedShifts(shifts);
+        return member;
+    }
+
+    private static void writeRequest(DataOutputStream out, TimeOffRequest request) throws IOException {
+        out.writeInt(request.getStaff().getId());
+        out.writeInt((int) request.getStartDate().toEpochDay());
+        out.writeInt((int) request.getEndDate().toEpochDay());
+        out.writeUTF(request.getReason());
+        out.writeBoolean(request.isApproved());
+        out.writeBoolean(request.isReviewed());
+    }
+
+    private static TimeOffRequest readRequest(DataInputStream in, Map<Integer, StaffMember> staff) throws IOException {
+        int id = in.readInt();
+        StaffMember member = staff.get(in.readInt());
+        LocalDate start = LocalDate.ofEpochDay(in.readInt());
+        LocalDate end = LocalDate.ofEpochDay(in.readInt());
+        String reason = in.readUTF();
+        boolean approved = in.readBoolean();
+        boolean reviewed = in.readBoolean();
+        return member == null ? null : new TimeOffRequest(id, member, start, end, reason, approved, reviewed);
+    }
+
+    static byte[] encodeShifts(Collection<Shift> shifts) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(shifts.size());
+        for (Shift shift : shifts) {
+            out.writeInt((int) shift.getDate().toEpochDay());
+            out.writeUTF(shift.getShiftType());
+        }
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    static Map<LocalDate, Shift> decodeShifts(byte[] encoded, StaffMember member) {
+        Map<LocalDate, Shift> shifts = new HashMap<>();
+        if (encoded == null) return shifts;
+        try {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(encoded));
+            for (int n = in.readInt(); n > 0; n--) {
+                LocalDate date = LocalDate.ofEpochDay(in.readInt());
+                shifts.put(date, new Shift(date, in.readUTF(), member));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Corrupt shift block for staff #" + member.getId(), e);
+        }
+        return shifts;
+    }
+}
@@ -0,0 +1,24 @@
+package cafe;
+
+import java.time.*;
+
+class Shift {
+    private LocalDate date;
+    private String shiftType;  // e.g. Morning, Evening, Night
+    private StaffMember staff;
+
+    public Shift(LocalDate date, String shiftType, StaffMember staff) {
+        this.date = date;
+        this.shiftType = shiftType;
+        this.staff = staff;
+    }
+
+    public LocalDate getDate() { return date; }
+    public String getShiftType() { return shiftType; }
+    public StaffMember getStaff() { return staff; }
+
+    @Override
+    public String toString() {
+        return date + " - " + shiftType + " shift - " + staff.getName();
+    }
+}
@@ -0,0 +1,13 @@
+package cafe;
+
+import jdk.jfr.*;
+
+@Name("cafe.ShiftAssigned")
+@Label("Shift Assigned")
+@Category({"Cafe", "Scheduling"})
+@StackTrace(false)
+class ShiftAssignedEvent extends Event {
+    @Label("Staff") String staffName;
+    @Label("Date") String date;
+    @Label("Shift Type") String shiftType;
+}
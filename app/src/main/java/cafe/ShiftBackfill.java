@@ -0,0 +1,124 @@
+package cafe;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.*;
+
+// Finds cover for shifts dropped by approved leave. For the whole batch it precomputes, over the
+// ISO weeks the slots fall in, a bitmap of busy staff ids per day (shift or unavailable) and each
+// staff member's shift count per week. Each slot then only scores the free members of the role:
+// fewest shifts that week (no overtime past PayrollEngine.WEEKLY_HOURS), fewest backfills in this
+// batch, fewest shifts over the period. Other roles are only proposed when nobody in the role is
+// free. Picks update the tables, so a two-week leave is spread over several people.
+public class ShiftBackfill {
+    private static final int OVERTIME_PENALTY = 1000;
+    private static final int WEEK_SHIFT_WEIGHT = 10;
+    private static final int BATCH_WEIGHT = 20;
+
+    private final List<StaffMember> staff;
+    private final StaffDirectory directory;
+
+    public ShiftBackfill(List<StaffMember> staff, StaffDirectory directory) {
+        this.staff = staff;
+        this.directory = directory;
+    }
+
+    // One proposal per slot, in date order; the candidate is null when nobody at all is free
+    public List<BackfillProposal> propose(List<VacatedShift> slots) {
+        List<BackfillProposal> proposals = new ArrayList<>(slots.size());
+        if (slots.isEmpty()) return proposals;
+        List<VacatedShift> ordered = new ArrayList<>(slots);
+        ordered.sort(Comparator.comparing(VacatedShift::getDate));
+
+        LocalDate first = ordered.get(0).getDate().with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        LocalDate last = ordered.get(ordered.size() - 1).getDate().with(TemporalAdjusters.nextOrSame(DayOfWeek.SUNDAY));
+        int days = (int) ChronoUnit.DAYS.between(first, last) + 1;
+        int maxId = 0;
+        for (StaffMember member : staff) maxId = Math.max(maxId, member.getId());
+
+        BitSet[] busy = new BitSet[days];
+        for (int d = 0; d < days; d++) busy[d] = new BitSet(maxId + 1);
+        int[][] weekShifts = new int[days / 7][maxId + 1];
+        int[] periodShifts = new int[maxId + 1];
+        int[] batchShifts = new int[maxId + 1];
+        BitSet everyone = new BitSet(maxId + 1);
+        StaffMember[] byId = new StaffMember[maxId + 1];
+        for (StaffMember member : staff) {
+            int id = member.getId();
+            byId[id] = member;
+            everyone.set(id);
+            for (LocalDate date : member.getUnavailableDates()) {
+                long d = ChronoUnit.DAYS.between(first, date);
+                if (d >= 0 && d < days) busy[(int) d].set(id);
+            }
+            // Whichever is smaller: the member's shift map or the window
+            Map<LocalDate, Shift> shifts = member.getAssignedShifts();
+            if (shifts.size() < days) {
+                for (LocalDate date : shifts.keySet()) {
+                    long d = ChronoUnit.DAYS.between(first, date);
+                    if (d >= 0 && d < days) countShift(busy, weekShifts, periodShifts, (int) d, id);
+                }
+            } else {
+                for (int d = 0; d < days; d++) {
+                    if (shifts.containsKey(first.plusDays(d))) countShift(busy, weekShifts, periodShifts, d, id);
+                }
+            }
+        }
+
+        int maxWeekShifts = (int) (PayrollEngine.WEEKLY_HOURS / PayrollEngine.SHIFT_HOURS);
+        Map<Integer, BitSet> roleMembers = new HashMap<>();
+        for (VacatedShift slot : ordered) {
+            int d = (int) ChronoUnit.DAYS.between(first, slot.getDate());
+            int week = d / 7;
+            BitSet free = (BitSet) roleMembers.computeIfAbsent(slot.getRoleId(), directory::roleMembers).clone();
+            free.and(everyone);
+            free.andNot(busy[d]);
+            boolean crossRole = free.isEmpty();
+            if (crossRole) {
+                free = (BitSet) everyone.clone();
+                free.andNot(busy[d]);
+            }
+            int best = -1;
+            int bestScore = Integer.MAX_VALUE;
+            for (int id = free.nextSetBit(0); id >= 0; id = free.nextSetBit(id + 1)) {
+                int score = (weekShifts[week][id] >= maxWeekShifts ? OVERTIME_PENALTY : 0)
+                        + weekShifts[week][id] * WEEK_SHIFT_WEIGHT
+                        + batchShifts[id] * BATCH_WEIGHT
+                        + periodShifts[id];
+                if (score < bestScore) {
+                    best = id;
+                    bestScore = score;
+                }
+            }
+            if (best < 0) {
+                proposals.add(new BackfillProposal(slot, null, false, 0));
+                continue;
+            }
+            proposals.add(new BackfillProposal(slot, byId[best], crossRole, weekShifts[week][best]));
+            countShift(busy, weekShifts, periodShifts, d, best);
+            batchShifts[best]++;
+        }
+        return proposals;
+    }
+
+    // Assigns every proposal that has a candidate; returns how many were assigned
+    public static int apply(List<BackfillProposal> proposals) {
+        int assigned = 0;
+        for (BackfillProposal proposal : proposals) {
+            StaffMember candidate = proposal.getCandidate();
+            if (candidate == null) continue;
+            VacatedShift slot = proposal.getSlot();
+            candidate.assignShift(new Shift(slot.getDate(), slot.getShiftType(), candidate));
+            assigned++;
+        }
+        return assigned;
+    }
+
+    private static void countShift(BitSet[] busy, int[][] weekShifts, int[] periodShifts, int day, int id) {
+        busy[day].set(id);
+        weekShifts[day / 7][id]++;
+        periodShifts[id]++;
+    }
+}
@@ -0,0 +1,14 @@
+package cafe;
+
+import jdk.jfr.*;
+
+@Name("cafe.ShiftSwap")
+@Label("Shift Swap")
+@Category({"Cafe", "Scheduling"})
+@StackTrace(false)
+class ShiftSwapEvent extends Event {
+    @Label("First Staff") String firstStaff;
+    @Label("First Date") String firstDate;
+    @Label("Second Staff") String secondStaff;
+    @Label("Second Date") String secondDate;
+}
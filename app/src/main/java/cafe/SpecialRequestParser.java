@@ -0,0 +1,144 @@
+package cafe;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.regex.Pattern;
+
+// Turns free-text special requests into the compact form the kitchen works with: an allergen
+// bitmask plus interned modifier ids per order line. Parsing happens once, when the request is
+// taken; after that allergy checks are a single AND between the line's mask and the menu
+// item's ingredient mask.
+//
+// Each comma- or semicolon-separated clause is either an allergy declaration ("nut allergy",
+// "dairy free"), which applies to every line of the order, or a modifier ("no pickles",
+// "extra cheese on the Burger"), which applies to the line whose item it names as a whole word,
+// or to all lines.
+// Modifier ids come from a process-wide vocabulary of short phrases capped at MAX_MODIFIERS, so
+// free text can't grow it without bound; longer clauses, and new ones once the vocabulary is
+// full, stay on the line as raw notes.
+public final class SpecialRequestParser {
+    static final int MAX_MODIFIERS = 4096;
+    private static final int MAX_MODIFIER_LENGTH = 32;
+    private static final int MAX_MODIFIER_WORDS = 4;
+    private static final Pattern TRAILING_PREPOSITION = Pattern.compile("\\s*\\b(?:(?:on|for|in|with)\\s+)?(?:the\\s+)?$");
+
+    private static final Map<String, Integer> ALLERGEN_KEYWORDS = new HashMap<>();
+    private static final Map<String, Integer> MODIFIER_IDS = new ConcurrentHashMap<>();
+    private static final List<String> MODIFIER_NAMES = new CopyOnWriteArrayList<>();
+
+    static {
+        for (Allergen allergen : Allergen.values()) {
+            for (String keyword : allergen.keywords) {
+                ALLERGEN_KEYWORDS.put(keyword, allergen.bit());
+            }
+        }
+    }
+
+    private SpecialRequestParser() {
+    }
+
+    // Applies the request to the order's lines and returns the allergens it declared
+    public static int apply(Order order, String request) {
+        int declared = 0;
+        for (String rawClause : request.split("[,;]+")) {
+            String clause = rawClause.trim().toLowerCase().replaceAll("\\s+", " ");
+            if (clause.isEmpty()) continue;
+            if (isAllergyDeclaration(clause)) {
+                int mask = allergenMask(clause);
+                declared |= mask;
+                for (OrderItem item : order.getItems()) {
+                    item.addAllergens(mask);
+                }
+                continue;
+            }
+            // The longest item name found as whole words, so "tea" doesn't match "steak"
+            OrderItem target = null;
+            int at = -1;
+            String targetName = "";
+            for (OrderItem item : order.getItems()) {
+                String name = item.getItemName().toLowerCase();
+                if (name.length() <= targetName.length()) continue;
+                int found = indexOfWords(clause, name);
+                if (found >= 0) {
+                    target = item;
+                    at = found;
+                    targetName = name;
+                }
+            }
+            if (target != null) {
+                String before = TRAILING_PREPOSITION.matcher(clause.substring(0, at)).replaceFirst("");
+                clause = (before + " " + clause.substring(at + targetName.length())).trim().replaceAll("\\s+", " ");
+            }
+            if (clause.isEmpty()) continue;
+            if (target != null) {
+                addModifier(target, clause);
+            } else {
+                for (OrderItem item : order.getItems()) {
+                    addModifier(item, clause);
+                }
+            }
+        }
+        return declared;
+    }
+
+    // Bitmask of the allergens named anywhere in the text (ingredient lists or requests)
+    public static int allergenMask(String text) {
+        if (text == null) return 0;
+        int mask = 0;
+        for (String word : text.toLowerCase().split("[^\\p{L}]+")) {
+            Integer bit = ALLERGEN_KEYWORDS.get(word);
+            if (bit != null) mask |= bit;
+        }
+        return mask;
+    }
+
+    public static List<Allergen> allergens(int mask) {
+        List<Allergen> allergens = new ArrayList<>();
+        for (Allergen allergen : Allergen.values()) {
+            if ((mask & allergen.bit()) != 0) allergens.add(allergen);
+        }
+        return allergens;
+    }
+
+    // Interned id when the modifier is in the vocabulary, else a raw note on the line
+    public static void addModifier(OrderItem item, String modifier) {
+        int modifierId = internModifier(modifier);
+        if (modifierId >= 0) item.addModifier(modifierId);
+        else item.addNote(modifier);
+    }
+
+    // Id of a short modifier phrase, or -1 for longer text or once the vocabulary is full
+    public static int internModifier(String modifier) {
+        Integer id = MODIFIER_IDS.get(modifier);
+        if (id != null) return id;
+        if (modifier.length() > MAX_MODIFIER_LENGTH || modifier.split(" ").length > MAX_MODIFIER_WORDS) return -1;
+        synchronized (MODIFIER_NAMES) {
+            id = MODIFIER_IDS.get(modifier);
+            if (id != null) return id;
+            if (MODIFIER_NAMES.size() >= MAX_MODIFIERS) return -1;
+            MODIFIER_NAMES.add(modifier); // named before the id is visible
+            MODIFIER_IDS.put(modifier, MODIFIER_NAMES.size() - 1);
+            return MODIFIER_NAMES.size() - 1;
+        }
+    }
+
+    public static String modifierName(int modifierId) {
+        return MODIFIER_NAMES.get(modifierId);
+    }
+
+    // Start of the phrase in the text where it is not part of a longer word, or -1
+    private static int indexOfWords(String text, String phrase) {
+        for (int at = text.indexOf(phrase); at >= 0; at = text.indexOf(phrase, at + 1)) {
+            int end = at + phrase.length();
+            boolean startsWord = at == 0 || !Character.isLetterOrDigit(text.charAt(at - 1));
+            boolean endsWord = end == text.length() || !Character.isLetterOrDigit(text.charAt(end));
+            if (startsWord && endsWord) return at;
+        }
+        return -1;
+    }
+
+    private static boolean isAllergyDeclaration(String clause) {
+        return clause.contains("allerg") || clause.contains("intoleran")
+                || (clause.contains("free") && allergenMask(clause) != 0);
+    }
+}
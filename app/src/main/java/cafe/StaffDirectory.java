@@ -0,0 +1,241 @@
+package cafe;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+// Staff lookup by stable id, by name/role prefix and by role, with id-ordered paging. Every name
+// word and role word maps to the staff having it, sorted by id, so a prefix query merges the id
+// sets of the matching words lazily and stops once the page is full instead of walking the whole
+// roster. Roles are interned to small ids shared by all stores, and each role has a bitmap of
+// staff ids for role filtering.
+public class StaffDirectory {
+    public static final int PAGE_SIZE = 10;
+
+    private static final Map<String, Integer> ROLE_IDS = new ConcurrentHashMap<>();
+    private static final List<String> ROLES = new CopyOnWriteArrayList<>();
+
+    private final TreeMap<Integer, StaffMember> byId = new TreeMap<>();
+    private final TreeMap<String, TreeMap<Integer, StaffMember>> wordIndex = new TreeMap<>();
+    private final List<BitSet> byRole = new ArrayList<>();
+    private int nextId = 1;
+
+    // === ROLES ===
+
+    // Case-insensitive; the first spelling seen is the one shown
+    public static int roleId(String role) {
+        String key = role.trim().toLowerCase();
+        Integer id = ROLE_IDS.get(key);
+        if (id != null) return id;
+        synchronized (ROLES) {
+            return ROLE_IDS.computeIfAbsent(key, k -> {
+                ROLES.add(role.trim());
+                return ROLES.size() - 1;
+            });
+        }
+    }
+
+    public static String role(int roleId) {
+        return ROLES.get(roleId);
+    }
+
+    // -1 if no staff member has ever had the role
+    public static int findRoleId(String role) {
+        Integer id = ROLE_IDS.get(role.trim().toLowerCase());
+        return id == null ? -1 : id;
+    }
+
+    // === MEMBERSHIP ===
+
+    // Gives the staff member the next id unless it already has one
+    public synchronized StaffMember add(StaffMember staff) {
+        if (staff.getId() == 0) {
+            staff.setId(nextId);
+        } else if (byId.containsKey(staff.getId())) {
+            throw new IllegalArgumentException("Staff id " + staff.getId() + " is already taken.");
+        }
+        nextId = Math.max(nextId, staff.getId() + 1);
+        byId.put(staff.getId(), staff);
+        for (String word : words(staff)) {
+            wordIndex.computeIfAbsent(word, w -> new TreeMap<>()).put(staff.getId(), staff);
+        }
+        while (byRole.size() <= staff.getRoleId()) byRole.add(new BitSet());
+        byRole.get(staff.getRoleId()).set(staff.getId());
+        return staff;
+    }
+
+    public synchronized void rebuild(Collection<StaffMember> roster) {
+        byId.clear();
+        wordIndex.clear();
+        byRole.clear();
+        for (StaffMember staff : roster) {
+            if (staff.getId() != 0) add(staff);
+        }
+        for (StaffMember staff : roster) {
+            if (staff.getId() == 0) add(staff);
+        }
+    }
+
+    public synchronized StaffMember get(int staffId) {
+        return byId.get(staffId);
+    }
+
+    public synchronized int size() {
+        return byId.size();
+    }
+
+    // === SEARCH ===
+
+    // Staff matching every word of the query, ids above afterId first. A word that names a role
+    // filters by that role; any other word must prefix a word of the name or role. A blank
+    // query pages through everyone.
+    public synchronized StaffPage search(String query, int afterId, int limit) {
+        List<String> prefixes = new ArrayList<>();
+        BitSet roleFilter = null;
+        for (String word : query.trim().toLowerCase().split("\\s+")) {
+            if (word.isEmpty()) continue;
+            int roleId = findRoleId(word);
+            if (roleId >= 0 && roleFilter == null) {
+                roleFilter = roleId < byRole.size() ? byRole.get(roleId) : new BitSet();
+            } else {
+                prefixes.add(word);
+            }
+        }
+
+        // Candidates come from one source in id order: the rarest prefix, the role bitmap or all staff
+        Iterator<StaffMember> candidates;
+        if (!prefixes.isEmpty()) {
+            String rarest = prefixes.get(0);
+            long fewest = Long.MAX_VALUE;
+            for (String prefix : prefixes.size() > 1 ? prefixes : Collections.<String>emptyList()) {
+                long count = countUpTo(prefix, fewest);
+                if (count < fewest) {
+                    fewest = count;
+                    rarest = prefix;
+                }
+            }
+            candidates = merged(range(rarest).values(), afterId);
+        } else if (roleFilter != null) {
+            BitSet role = roleFilter;
+            candidates = new Iterator<StaffMember>() {
+                int next = role.nextSetBit(afterId + 1);
+                public boolean hasNext() { return next >= 0; }
+                public StaffMember next() {
+                    StaffMember staff = byId.get(next);
+                    next = role.nextSetBit(next + 1);
+                    return staff;
+                }
+            };
+        } else {
+            candidates = byId.tailMap(afterId, false).values().iterator();
+        }
+
+        List<StaffMember> page = new ArrayList<>(limit);
+        while (candidates.hasNext()) {
+            StaffMember staff = candidates.next();
+            if (roleFilter != null && !roleFilter.get(staff.getId())) continue;
+            if (!matchesAll(staff, prefixes)) continue;
+            if (page.size() == limit) {
+                return new StaffPage(page, page.get(limit - 1).getId());
+            }
+            page.add(staff);
+        }
+        return new StaffPage(page, 0);
+    }
+
+    // Everyone with the role, in id order
+    public synchronized List<StaffMember> withRole(String role) {
+        int roleId = findRoleId(role);
+        List<StaffMember> staff = new ArrayList<>();
+        if (roleId < 0 || roleId >= byRole.size()) return staff;
+        BitSet ids = byRole.get(roleId);
+        for (int id = ids.nextSetBit(0); id >= 0; id = ids.nextSetBit(id + 1)) {
+            staff.add(byId.get(id));
+        }
+        return staff;
+    }
+
+    // Copy of the role's id bitmap; empty for a role nobody has
+    synchronized BitSet roleMembers(int roleId) {
+        return roleId >= 0 && roleId < byRole.size() ? (BitSet) byRole.get(roleId).clone() : new BitSet();
+    }
+
+    // Words starting with the prefix
+    private SortedMap<String, TreeMap<Integer, StaffMember>> range(String prefix) {
+        return wordIndex.subMap(prefix, prefix + Character.MAX_VALUE);
+    }
+
+    // Index entries under the prefix, counted no further than limit
+    private long countUpTo(String prefix, long limit) {
+        long n = 0;
+        for (TreeMap<Integer, StaffMember> ids : range(prefix).values()) {
+            n += ids.size();
+            if (n >= limit) break;
+        }
+        return n;
+    }
+
+    // Id-ordered merge of the words' staff above afterId; someone under two of the words comes once
+    private static Iterator<StaffMember> merged(Collection<TreeMap<Integer, StaffMember>> words, int afterId) {
+        PriorityQueue<Cursor> heads = new PriorityQueue<>(Comparator.comparingInt(c -> c.head.getId()));
+        for (TreeMap<Integer, StaffMember> ids : words) {
+            Cursor cursor = new Cursor(ids.tailMap(afterId, false).values().iterator());
+            if (cursor.advance()) heads.add(cursor);
+        }
+        return new Iterator<StaffMember>() {
+            int last = afterId;
+            public boolean hasNext() {
+                while (!heads.isEmpty() && heads.peek().head.getId() <= last) {
+                    Cursor cursor = heads.poll();
+                    if (cursor.advance()) heads.add(cursor);
+                }
+                return !heads.isEmpty();
+            }
+            public StaffMember next() {
+                if (!hasNext()) throw new NoSuchElementException();
+                StaffMember staff = heads.peek().head;
+                last = staff.getId();
+                return staff;
+            }
+        };
+    }
+
+    private static final class Cursor {
+        private final Iterator<StaffMember> rest;
+        private StaffMember head;
+
+        Cursor(Iterator<StaffMember> rest) {
+            this.rest = rest;
+        }
+
+        boolean advance() {
+            if (!rest.hasNext()) return false;
+            head = rest.next();
+            return true;
+        }
+    }
+
+    private static boolean matchesAll(StaffMember staff, List<String> prefixes) {
+        if (prefixes.size() <= 1) return true; // the single prefix already selected the candidates
+        List<String> words = words(staff);
+        for (String prefix : prefixes) {
+            boolean found = false;
+            for (String word : words) {
+                if (word.startsWith(prefix)) {
+                    found = true;
+                    break;
+                }
+            }
+            if (!found) return false;
+        }
+        return true;
+    }
+
+    private static List<String> words(StaffMember staff) {
+        List<String> words = new ArrayList<>();
+        for (String word : (staff.getName() + " " + staff.getRole()).toLowerCase().split("\\s+")) {
+            if (!word.isEmpty() && !words.contains(word)) words.add(word);
+        }
+        return words;
+    }
+}
@@ -0,0 +1,115 @@
+package cafe;
+
+import java.time.*;
+import java.util.*;
+
+// Ids are handed out by StaffDirectory and stay with the staff member; 0 means not yet registered.
+// The role is interned through StaffDirectory so role filters compare small ids.
+class StaffMember {
+    private int id;
+    private String name;
+    private int roleId;
+    private List<LocalDate> unavailableDates = new ArrayList<>();
+    private Map<LocalDate, Shift> assignedShifts = new HashMap<>();
+    private byte[] encodedShifts; // shifts as loaded by RosterStore, decoded on first use
+    private Map<LocalDate, Double> attendance = new HashMap<>(); // hours actually worked
+    private RosterStore store;
+    private CafeEventBus eventBus = CafeEventBus.shared(); // a store's staff publish on the store's bus
+
+    public StaffMember(String name, String role) {
+        this.name = name;
+        this.roleId = StaffDirectory.roleId(role);
+    }
+
+    public int getId() { return id; }
+    void setId(int id) { this.id = id; }
+    public String getName() { return name; }
+    public String getRole() { return StaffDirectory.role(roleId); }
+    public int getRoleId() { return roleId; }
+
+    public void setUnavailableDates(List<LocalDate> dates) {
+        unavailableDates = dates;
+        changed();
+    }
+
+    public List<LocalDate> getUnavailableDates() {
+        return unavailableDates;
+    }
+
+    public boolean isAvailable(LocalDate date) {
+        return !unavailableDates.contains(date) && !shifts().containsKey(date);
+    }
+
+    // Shift map edits hold this member's lock; readers on other threads (the HTTP roster) take it too
+    public void assignShift(Shift shift) {
+        synchronized (this) {
+            shifts().put(shift.getDate(), shift);
+        }
+        changed();
+        eventBus.publishShift(CafeEventType.SHIFT_ASSIGNED, shift);
+    }
+
+    public Map<LocalDate, Shift> getAssignedShifts() {
+        return shifts();
+    }
+
+    public void recordAttendance(LocalDate date, double hours) {
+        if (hours < 0 || hours > 24) {
+            throw new IllegalArgumentException("Hours worked must be between 0 and 24.");
+        }
+        attendance.put(date, hours);
+        changed();
+    }
+
+    public Map<LocalDate, Double> getAttendance() {
+        return attendance;
+    }
+
+    public void removeShift(LocalDate date) {
+        Shift removed;
+        synchronized (this) {
+            removed = shifts().remove(date);
+        }
+        if (removed != null) {
+            changed();
+            eventBus.publishShift(CafeEventType.SHIFT_REMOVED, removed);
+        }
+    }
+
+    // === PERSISTENCE (see RosterStore) ===
+
+    void attachTo(RosterStore store) {
+        this.store = store;
+    }
+
+    void setEventBus(CafeEventBus eventBus) {
+        this.eventBus = eventBus;
+    }
+
+    private void changed() {
+        if (store != null) store.staffChanged(this);
+    }
+
+    synchronized void setEncodedShifts(byte[] encoded) {
+        encodedShifts = encoded;
+        assignedShifts = null;
+    }
+
+    // Still-encoded shifts, or null once decoded; lets an untouched schedule be saved as is
+    synchronized byte[] getEncodedShifts() {
+        return encodedShifts;
+    }
+
+    private synchronized Map<LocalDate, Shift> shifts() {
+        if (assignedShifts == null) {
+            assignedShifts = RosterStore.decodeShifts(encodedShifts, this);
+            encodedShifts = null;
+        }
+        return assignedShifts;
+    }
+
+    @Override
+    public String toString() {
+        return name + " (" + getRole() + ")";
+    }
+}
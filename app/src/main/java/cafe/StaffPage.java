@@ -0,0 +1,18 @@
+package cafe;
+
+import java.util.*;
+
+// One page of directory results; nextCursor is 0 when there are no more matches
+class StaffPage {
+    private final List<StaffMember> staff;
+    private final int nextCursor;
+
+    StaffPage(List<StaffMember> staff, int nextCursor) {
+        this.staff = staff;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<StaffMember> getStaff() { return staff; }
+    public int getNextCursor() { return nextCursor; }
+    public boolean hasMore() { return nextCursor != 0; }
+}
@@ -0,0 +1,653 @@
+package cafe;
+
+import java.io.IOException;
+import java.time.*;
+import java.util.*;
+
+public class StaffSchedulingSystem {
+    private static final OperationTimer ASSIGN_TIMER = CafeMetrics.timer("staff.assignShifts");
+    private static final OperationTimer AVAILABLE_TIMER = CafeMetrics.timer("staff.findAvailableStaff");
+    private static final OperationTimer TIME_OFF_TIMER = CafeMetrics.timer("staff.reviewTimeOffRequests");
+    private static final OperationTimer SWAP_TIMER = CafeMetrics.timer("staff.shiftSwapping");
+    private static final OperationTimer CONFLICT_TIMER = CafeMetrics.timer("staff.detectScheduleConflicts");
+
+    private static final List<StaffMember> staffList = new ArrayList<>(); // edits hold its lock, see copyStaffList
+    private static final StaffDirectory directory = new StaffDirectory();
+    private static List<TimeOffRequest> timeOffRequests = new ArrayList<>();
+    private static Scanner scanner = new Scanner(System.in);
+    private static DemandForecaster demandForecaster;
+    private static OrderHistoryStore orderHistory;
+    private static final PayrollEngine payroll = new PayrollEngine();
+    private static RosterStore rosterStore;
+
+    static void setDemandForecaster(DemandForecaster forecaster) {
+        demandForecaster = forecaster;
+    }
+
+    // Source of revenue for the labor cost ratio in payroll
+    static void setOrderHistory(OrderHistoryStore history) {
+        orderHistory = history;
+    }
+
+    // Staff and requests attached to the store save themselves after each menu action
+    static void setRosterStore(RosterStore store) {
+        rosterStore = store;
+    }
+
+    private static void saveRoster() {
+        if (rosterStore == null) return;
+        try {
+            rosterStore.save();
+        } catch (IOException e) {
+            System.out.println("Could not save roster: " + e.getMessage());
+        }
+    }
+
+    public void runStaffScheduling(){
+        System.out.println("=== Staff Scheduling System ===");
+        boolean exit = false;
+        while (!exit) {
+            System.out.println("\nSelect option:");
+            System.out.println("1. Add New Staff Member");
+            System.out.println("2. Update Staff Availability");
+            System.out.println("3. Assign Shifts");
+            System.out.println("4. View Staff Schedule");
+            System.out.println("5. Request Time Off");
+            System.out.println("6. Approve/Reject Time-Off Requests");
+            System.out.println("7. Shift Swapping");
+            System.out.println("8. Schedule Conflict Detection");
+            System.out.println("9. Emergency Shift Replacement");
+            System.out.println("10. Track Staff Attendance");
+            System.out.println("11. Staffing Recommendations");
+            System.out.println("12. Payroll");
+            System.out.println("0. Exit");
+            System.out.print("Choice: ");
+            int choice = Integer.parseInt(scanner.nextLine());
+
+            switch(choice) {
+                case 1: addNewStaffMember(); break;
+                case 2: updateStaffAvailability(); break;
+                case 3: assignShifts(); break;
+                case 4: viewStaffSchedule(); break;
+                case 5: requestTimeOff(); break;
+                case 6: reviewTimeOffRequests(); break;
+                case 7: shiftSwapping(); break;
+                case 8: detectScheduleConflicts(); break;
+                case 9: emergencyShiftReplacement(); break;
+                case 10: trackAttendance(); break;
+                case 11: showStaffingRecommendations(); break;
+                case 12: runPayroll(); break;
+                case 0: exit = true; break;
+                default: System.out.println("Invalid choice."); break;
+            }
+            saveRoster();
+        }
+        System.out.println("Exiting system.");
+    }
+
+    // 1. Add New Staff Member
+    private static void addNewStaffMember() {
+        System.out.print("Enter staff name: ");
+        String name = scanner.nextLine();
+        System.out.print("Enter role: ");
+        String role = scanner.nextLine();
+        StaffMember staff = new StaffMember(name, role);
+        directory().add(staff);
+        synchronized (staffList) {
+            staffList.add(staff);
+        }
+        if (rosterStore != null) rosterStore.add(staff);
+        System.out.println("Staff member added: #" + staff.getId() + " " + staff);
+    }
+
+    // 2. Update Staff Availability
+    private static void updateStaffAvailability() {
+        StaffMember staff = selectStaffMember();
+        if (staff == null) return;
+        System.out.println("Enter unavailable dates (yyyy-mm-dd), type 'done' to finish:");
+        List<LocalDate> unavailable = new ArrayList<>();
+        while (true) {
+            String input = scanner.nextLine();
+            if (input.equalsIgnoreCase("done")) break;
+            try {
+                LocalDate date = LocalDate.parse(input);
+                unavailable.add(date);
+            } catch (Exception e) {
+                System.out.println("Invalid date format.");
+            }
+        }
+        staff.setUnavailableDates(unavailable);
+        System.out.println("Updated unavailable dates for " + staff.getName());
+    }
+
+    // 3. Assign Shifts (Simple auto assign based on availability and role)
+    private static void assignShifts() {
+        System.out.print("Enter date to assign shift (yyyy-mm-dd): ");
+        LocalDate date;
+        try {
+            date = LocalDate.parse(scanner.nextLine());
+        } catch(Exception e) {
+            System.out.println("Invalid date.");
+            return;
+        }
+
+        System.out.print("Enter shift type (Morning/Evening/Night): ");
+        String shiftType = scanner.nextLine();
+        printRecommendation(date, shiftType);
+
+        List<StaffMember> availableStaff = findAvailableStaff(date);
+        if (availableStaff.isEmpty()) {
+            System.out.println("No available staff for " + date);
+            return;
+        }
+
+        System.out.println("Available staff:");
+        for (int i=0; i < availableStaff.size(); i++) {
+            System.out.println((i+1) + ". " + availableStaff.get(i));
+        }
+        System.out.print("Select staff to assign shift: ");
+        int idx;
+        try {
+            idx = Integer.parseInt(scanner.nextLine()) - 1;
+            if (idx < 0 || idx >= availableStaff.size()) throw new Exception();
+        } catch (Exception e) {
+            System.out.println("Invalid selection.");
+            return;
+        }
+        StaffMember chosen = availableStaff.get(idx);
+        long start = System.nanoTime();
+        ShiftAssignedEvent event = new ShiftAssignedEvent();
+        event.begin();
+        Shift shift = new Shift(date, shiftType, chosen);
+        chosen.assignShift(shift);
+        ASSIGN_TIMER.record(start);
+        if (event.shouldCommit()) {
+            event.staffName = chosen.getName();
+            event.date = date.toString();
+            event.shiftType = shiftType;
+            event.commit();
+        }
+        System.out.println("Shift assigned: " + shift);
+    }
+
+    // 4. View Staff Schedule
+    private static void viewStaffSchedule() {
+        StaffMember staff = selectStaffMember();
+        if (staff == null) return;
+
+        System.out.println("Shifts for " + staff.getName() + ":");
+        if (staff.getAssignedShifts().isEmpty()) {
+            System.out.println("No assigned shifts.");
+        } else {
+            staff.getAssignedShifts().values().stream()
+                .sorted(Comparator.comparing(Shift::getDate))
+                .forEach(s -> System.out.println(s));
+        }
+    }
+
+    // 5. Request Time Off
+    private static void requestTimeOff() {
+        StaffMember staff = selectStaffMember();
+        if (staff == null) return;
+
+        System.out.print("Enter start date (yyyy-mm-dd): ");
+        LocalDate startDate;
+        LocalDate endDate;
+        try {
+            startDate = LocalDate.parse(scanner.nextLine());
+            System.out.print("Enter end date (yyyy-mm-dd): ");
+            endDate = LocalDate.parse(scanner.nextLine());
+            if (endDate.isBefore(startDate)) {
+                System.out.println("End date must be after start date.");
+                return;
+            }
+        } catch (Exception e) {
+            System.out.println("Invalid date format.");
+            return;
+        }
+
+        System.out.print("Enter reason for time off: ");
+        String reason = scanner.nextLine();
+
+        TimeOffRequest request = new TimeOffRequest(staff, startDate, endDate, reason);
+        timeOffRequests.add(request);
+        if (rosterStore != null) rosterStore.add(request);
+        System.out.println("Time off requested: " + request);
+    }
+
+    // 6. Approve/Reject Time-Off Requests
+    private static void reviewTimeOffRequests() {
+        List<TimeOffRequest> pendingRequests = new ArrayList<>();
+        for (TimeOffRequest r : timeOffRequests) {
+            if (!r.isReviewed()) {
+                pendingRequests.add(r);
+            }
+        }
+
+        if (pendingRequests.isEmpty()) {
+            System.out.println("No pending time-off requests.");
+            return;
+        }
+
+        for (int i=0; i < pendingRequests.size(); i++) {
+            System.out.println((i+1) + ". " + pendingRequests.get(i));
+        }
+        System.out.print("Select request to review: ");
+        int idx;
+        try {
+            idx = Integer.parseInt(scanner.nextLine()) - 1;
+            if (idx < 0 || idx >= pendingRequests.size()) throw new Exception();
+        } catch (Exception e) {
+            System.out.println("Invalid selection.");
+            return;
+        }
+
+        TimeOffRequest req = pendingRequests.get(idx);
+        System.out.print("Approve (A) or Reject (R)? ");
+        String decision = scanner.nextLine();
+        if (decision.equalsIgnoreCase("A")) {
+            List<VacatedShift> vacated = approveTimeOff(req);
+            System.out.println("Request approved.");
+            if (!vacated.isEmpty()) {
+                backfill(vacated);
+            }
+        } else if (decision.equalsIgnoreCase("R")) {
+            req.reject();
+            System.out.println("Request rejected.");
+        } else {
+            System.out.println("Invalid input.");
+        }
+    }
+
+    // Approves the request and frees the staff member's dates; returns the shifts this dropped
+    static List<VacatedShift> approveTimeOff(TimeOffRequest req) {
+        long start = System.nanoTime();
+        req.approve();
+        StaffMember staff = req.getStaff();
+        List<LocalDate> unavailable = staff.getUnavailableDates();
+        List<VacatedShift> vacated = new ArrayList<>();
+        LocalDate d = req.getStartDate();
+        while (!d.isAfter(req.getEndDate())) {
+            if (!unavailable.contains(d)) {
+                unavailable.add(d);
+                Shift shift = staff.getAssignedShifts().get(d);
+                if (shift != null) {
+                    vacated.add(new VacatedShift(shift));
+                    staff.removeShift(d);
+                }
+            }
+            d = d.plusDays(1);
+        }
+        staff.setUnavailableDates(unavailable);
+        TIME_OFF_TIMER.record(start);
+        return vacated;
+    }
+
+    // Proposes a replacement for every dropped shift; assigns them on confirmation,
+    // or straight away with -Dcafe.backfill.auto=true
+    private static void backfill(List<VacatedShift> vacated) {
+        List<BackfillProposal> proposals = new ShiftBackfill(staffList, directory()).propose(vacated);
+        System.out.println(vacated.size() + " shift(s) left uncovered by this leave:");
+        for (BackfillProposal proposal : proposals) {
+            System.out.println("- " + proposal);
+        }
+        boolean auto = Boolean.getBoolean("cafe.backfill.auto");
+        if (!auto) {
+            System.out.print("Assign the proposed replacements? (Y/N): ");
+            if (!scanner.nextLine().equalsIgnoreCase("Y")) return;
+        }
+        System.out.println("Assigned " + ShiftBackfill.apply(proposals) + " replacement shift(s).");
+    }
+
+    // 7. Shift Swapping
+    private static void shiftSwapping() {
+        System.out.println("Shift swapping feature:");
+
+        System.out.println("Select your staff account:");
+        StaffMember staff1 = selectStaffMember();
+        if (staff1 == null) return;
+
+        if (staff1.getAssignedShifts().isEmpty()) {
+            System.out.println("You have no assigned shifts to swap.");
+            return;
+        }
+
+        System.out.println("Your assigned shifts:");
+        List<Shift> shifts1 = new ArrayList<>(staff1.getAssignedShifts().values());
+        for (int i = 0; i < shifts1.size(); i++) {
+            System.out.println((i+1) + ". " + shifts1.get(i));
+        }
+
+        System.out.print("Select shift to swap: ");
+        int shiftIdx;
+        try {
+            shiftIdx = Integer.parseInt(scanner.nextLine()) - 1;
+            if (shiftIdx < 0 || shiftIdx >= shifts1.size()) throw new Exception();
+        } catch (Exception e) {
+            System.out.println("Invalid selection.");
+            return;
+        }
+        Shift shiftToSwap = shifts1.get(shiftIdx);
+
+        System.out.println("Select staff member to swap with:");
+        StaffMember staff2 = selectStaffMember();
+        if (staff2 == null || staff2 == staff1) {
+            System.out.println("Invalid staff selected.");
+            return;
+        }
+
+        if (staff2.getAssignedShifts().isEmpty()) {
+            System.out.println(staff2.getName() + " has no assigned shifts to swap.");
+            return;
+        }
+
+        System.out.println(staff2.getName() + "'s assigned shifts:");
+        List<Shift> shifts2 = new ArrayList<>(staff2.getAssignedShifts().values());
+        for (int i = 0; i < shifts2.size(); i++) {
+            System.out.println((i+1) + ". " + shifts2.get(i));
+        }
+
+        System.out.print("Select shift to swap with: ");
+        int shiftIdx2;
+        try {
+            shiftIdx2 = Integer.parseInt(scanner.nextLine()) - 1;
+            if (shiftIdx2 < 0 || shiftIdx2 >= shifts2.size()) throw new Exception();
+        } catch (Exception e) {
+            System.out.println("Invalid selection.");
+            return;
+        }
+        Shift shiftToSwapWith = shifts2.get(shiftIdx2);
+
+        // Confirm swap
+        System.out.println("Propose swap:");
+        System.out.println(staff1.getName() + " " + shiftToSwap);
+        System.out.println("WITH");
+        System.out.println(staff2.getName() + " " + shiftToSwapWith);
+
+        System.out.print("Manager approval required? (Y/N): ");
+        String approval = scanner.nextLine();
+
+        if (approval.equalsIgnoreCase("Y")) {
+            System.out.println("Manager approved the swap.");
+        } else {
+            System.out.println("Swap not approved by manager.");
+            return;
+        }
+
+        // Perform swap
+        long start = System.nanoTime();
+        ShiftSwapEvent event = new ShiftSwapEvent();
+        event.begin();
+        staff1.assignShift(new Shift(shiftToSwapWith.getDate(), shiftToSwapWith.getShiftType(), staff1));
+        staff2.assignShift(new Shift(shiftToSwap.getDate(), shiftToSwap.getShiftType(), staff2));
+
+        staff1.removeShift(shiftToSwap.getDate());
+        staff2.removeShift(shiftToSwapWith.getDate());
+        SWAP_TIMER.record(start);
+        if (event.shouldCommit()) {
+            event.firstStaff = staff1.getName();
+            event.firstDate = shiftToSwap.getDate().toString();
+            event.secondStaff = staff2.getName();
+            event.secondDate = shiftToSwapWith.getDate().toString();
+            event.commit();
+        }
+
+        System.out.println("Shift swap completed.");
+    }
+
+    // 8. Schedule Conflict Detection and Resolution (detect overlapping shifts or unavailable dates)
+    private static void detectScheduleConflicts() {
+        System.out.println("Detecting schedule conflicts...");
+        List<String> conflicts = findScheduleConflicts();
+        for (String conflict : conflicts) {
+            System.out.println(conflict);
+        }
+        if (conflicts.isEmpty()) {
+            System.out.println("No conflicts detected.");
+        }
+    }
+
+    static List<String> findScheduleConflicts() {
+        long start = System.nanoTime();
+        ConflictScanEvent event = new ConflictScanEvent();
+        event.begin();
+        List<String> conflicts = new ArrayList<>();
+        for (StaffMember staff : staffList) {
+            Set<LocalDate> assignedDates = new HashSet<>();
+            for (Shift shift : staff.getAssignedShifts().values()) {
+                LocalDate date = shift.getDate();
+                if (assignedDates.contains(date)) {
+                    conflicts.add("Conflict: " + staff.getName() + " has multiple shifts on " + date);
+                }
+                assignedDates.add(date);
+                if (staff.getUnavailableDates().contains(date)) {
+                    conflicts.add("Conflict: " + staff.getName() + " assigned shift on unavailable date " + date);
+                }
+            }
+        }
+        CONFLICT_TIMER.record(start);
+        if (event.shouldCommit()) {
+            event.staffCount = staffList.size();
+            event.conflicts = conflicts.size();
+            event.commit();
+        }
+        return conflicts;
+    }
+
+    // 9. Emergency Shift Replacement (find available staff for a given date)
+    private static void emergencyShiftReplacement() {
+        System.out.print("Enter date of emergency shift (yyyy-mm-dd): ");
+        LocalDate date;
+        try {
+            date = LocalDate.parse(scanner.nextLine());
+        } catch (Exception e) {
+            System.out.println("Invalid date.");
+            return;
+        }
+
+        List<StaffMember> availableStaff = findAvailableStaff(date);
+
+        if (availableStaff.isEmpty()) {
+            System.out.println("No available staff for emergency shift on " + date);
+        } else {
+            System.out.println("Available staff for emergency shift:");
+            for (StaffMember s : availableStaff) {
+                System.out.println("- " + s);
+            }
+        }
+    }
+
+    // 10. Track Staff Attendance (hours actually worked; payroll uses them instead of the shift length)
+    private static void trackAttendance() {
+        StaffMember staff = selectStaffMember();
+        if (staff == null) return;
+        try {
+            System.out.print("Enter date worked (yyyy-mm-dd): ");
+            LocalDate date = LocalDate.parse(scanner.nextLine());
+            System.out.print("Enter hours worked: ");
+            double hours = Double.parseDouble(scanner.nextLine());
+            staff.recordAttendance(date, hours);
+            System.out.println("Recorded " + hours + " h for " + staff.getName() + " on " + date);
+        } catch (RuntimeException e) {
+            System.out.println("Invalid input: " + e.getMessage());
+        }
+    }
+
+    // 12. Payroll for a pay period, with labor cost against order revenue when history is available
+    private static void runPayroll() {
+        LocalDate from;
+        LocalDate to;
+        try {
+            System.out.print("Enter period start (yyyy-mm-dd): ");
+            from = LocalDate.parse(scanner.nextLine());
+            System.out.print("Enter period end (yyyy-mm-dd): ");
+            to = LocalDate.parse(scanner.nextLine());
+        } catch (Exception e) {
+            System.out.println("Invalid date.");
+            return;
+        }
+        long revenueCents = 0;
+        if (orderHistory != null) {
+            for (long cents : orderHistory.revenueByHour(from, to, ZoneId.systemDefault())) revenueCents += cents;
+        }
+        try {
+            PayrollReport report = payroll.run(staffList, from, to, revenueCents);
+            System.out.print(report);
+            System.out.print("Show pay stubs? (Y/N): ");
+            if (scanner.nextLine().equalsIgnoreCase("Y")) {
+                report.getStubs().sort(Comparator.comparingInt(stub -> stub.getStaff().getId()));
+                report.getStubs().forEach(System.out::println);
+            }
+        } catch (IllegalArgumentException e) {
+            System.out.println(e.getMessage());
+        }
+    }
+
+    // 11. Staffing Recommendations (forecast demand vs. assigned staff for each shift of a day)
+    private static void showStaffingRecommendations() {
+        if (demandForecaster == null) {
+            System.out.println("Demand forecasting is not enabled.");
+            return;
+        }
+        System.out.print("Enter date (yyyy-mm-dd): ");
+        LocalDate date;
+        try {
+            date = LocalDate.parse(scanner.nextLine());
+        } catch (Exception e) {
+            System.out.println("Invalid date.");
+            return;
+        }
+        System.out.println("Orders in the last 24 hours: " + demandForecaster.ordersInLastHours(24));
+        for (String shiftType : DemandForecaster.SHIFT_TYPES) {
+            printRecommendation(date, shiftType);
+        }
+    }
+
+    private static void printRecommendation(LocalDate date, String shiftType) {
+        if (demandForecaster == null) return;
+        try {
+            double orders = demandForecaster.forecastOrders(date, shiftType);
+            Map<String, Integer> assigned = countAssignedByRole(date, shiftType);
+            StringBuilder line = new StringBuilder(shiftType + " " + date + ": ");
+            line.append(Double.isNaN(orders) ? "no history" : String.format("~%.0f orders", orders));
+            for (Map.Entry<String, Integer> role : demandForecaster.recommendStaff(date, shiftType).entrySet()) {
+                line.append(", ").append(role.getKey()).append(" ")
+                    .append(assigned.getOrDefault(role.getKey().toLowerCase(), 0)).append("/").append(role.getValue());
+            }
+            System.out.println(line);
+        } catch (IllegalArgumentException e) {
+            System.out.println(e.getMessage());
+        }
+    }
+
+    // Staff already on the given shift, keyed by lower-case role
+    static Map<String, Integer> countAssignedByRole(LocalDate date, String shiftType) {
+        Map<String, Integer> counts = new HashMap<>();
+        for (StaffMember staff : staffList) {
+            Shift shift = staff.getAssignedShifts().get(date);
+            if (shift != null && shift.getShiftType().equalsIgnoreCase(shiftType)) {
+                counts.merge(staff.getRole().toLowerCase(), 1, Integer::sum);
+            }
+        }
+        return counts;
+    }
+
+    static List<StaffMember> findAvailableStaff(LocalDate date) {
+        long start = System.nanoTime();
+        List<StaffMember> availableStaff = new ArrayList<>();
+        for (StaffMember s : staffList) {
+            if (s.isAvailable(date)) {
+                availableStaff.add(s);
+            }
+        }
+        AVAILABLE_TIMER.record(start);
+        return availableStaff;
+    }
+
+    // Replaces the roster, e.g. with the one from the startup image
+    static void loadRoster(List<StaffMember> roster) {
+        synchronized (staffList) {
+            staffList.clear();
+            staffList.addAll(roster);
+        }
+        directory.rebuild(staffList);
+    }
+
+    static void loadTimeOffRequests(List<TimeOffRequest> requests) {
+        timeOffRequests.clear();
+        timeOffRequests.addAll(requests);
+    }
+
+    // Rebuilt if the list was changed behind its back
+    static StaffDirectory directory() {
+        if (directory.size() != staffList.size()) {
+            directory.rebuild(staffList);
+        }
+        return directory;
+    }
+
+    static List<StaffMember> getStaffList() {
+        return staffList;
+    }
+
+    // Snapshot for other threads; the console thread reads the live list
+    static List<StaffMember> copyStaffList() {
+        synchronized (staffList) {
+            return new ArrayList<>(staffList);
+        }
+    }
+
+    static int countPendingTimeOffRequests() {
+        int pending = 0;
+        for (TimeOffRequest r : timeOffRequests) {
+            if (!r.isReviewed()) pending++;
+        }
+        return pending;
+    }
+
+    // Helper to select staff: by id, or by searching name/role and paging through the matches
+    private static StaffMember selectStaffMember() {
+        StaffDirectory directory = directory();
+        if (directory.size() == 0) {
+            System.out.println("No staff available.");
+            return null;
+        }
+        System.out.print("Find staff (id, name or role; blank for all): ");
+        String query = scanner.nextLine().trim();
+        if (query.matches("\\d+")) {
+            StaffMember staff = directory.get(Integer.parseInt(query));
+            if (staff == null) System.out.println("No staff member with id " + query + ".");
+            return staff;
+        }
+        int cursor = 0;
+        while (true) {
+            StaffPage page = directory.search(query, cursor, StaffDirectory.PAGE_SIZE);
+            if (page.getStaff().isEmpty()) {
+                System.out.println("No matching staff.");
+                return null;
+            }
+            if (cursor == 0 && !page.hasMore() && page.getStaff().size() == 1) {
+                StaffMember only = page.getStaff().get(0);
+                System.out.println("Selected #" + only.getId() + " " + only);
+                return only;
+            }
+            for (StaffMember staff : page.getStaff()) {
+                System.out.println("#" + staff.getId() + " " + staff);
+            }
+            System.out.print(page.hasMore() ? "Choice (id, or 'n' for more): " : "Choice (id): ");
+            String input = scanner.nextLine().trim();
+            if (input.equalsIgnoreCase("n") && page.hasMore()) {
+                cursor = page.getNextCursor();
+                continue;
+            }
+            try {
+                StaffMember staff = directory.get(Integer.parseInt(input.startsWith("#") ? input.substring(1) : input));
+                if (staff == null) throw new NumberFormatException();
+                return staff;
+            } catch (NumberFormatException e) {
+                System.out.println("Invalid selection.");
+                return null;
+            }
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package cafe;
+
+// The latest status of one order; seenMask has a bit for every status it has held
+final class StatusChange {
+    private final int orderId;
+    private final OrderStatus status;
+    private final int seenMask;
+    private final long version;
+
+    StatusChange(int orderId, OrderStatus status, int seenMask, long version) {
+        this.orderId = orderId;
+        this.status = status;
+        this.seenMask = seenMask;
+        this.version = version;
+    }
+
+    public int getOrderId() { return orderId; }
+    public OrderStatus getStatus() { return status; }
+    int getSeenMask() { return seenMask; }
+    public long getVersion() { return version; }
+
+    boolean isClosed() {
+        return status == OrderStatus.COMPLETED || status == OrderStatus.CANCELED;
+    }
+
+    @Override
+    public String toString() {
+        return "#" + orderId + " " + status;
+    }
+}
@@ -0,0 +1,21 @@
+package cafe;
+
+import java.util.*;
+
+// Changes up to a version. On a reset the screen replaces what it shows with these orders;
+// otherwise it updates each order, dropping those no longer in a status it shows.
+class StatusUpdate {
+    private final long version;
+    private final boolean reset;
+    private final List<StatusChange> changes;
+
+    StatusUpdate(long version, boolean reset, List<StatusChange> changes) {
+        this.version = version;
+        this.reset = reset;
+        this.changes = changes;
+    }
+
+    public long getVersion() { return version; }
+    public boolean isReset() { return reset; }
+    public List<StatusChange> getChanges() { return changes; }
+}
@@ -0,0 +1,128 @@
+package cafe;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.*;
+
+// One store's partition of the data, confined to its executor thread. The store works on its
+// own copies of the base menu items, so overrides never leak into other stores, and its staff
+// publish shift changes on the store's bus.
+class Store {
+    private final String storeId;
+    private final ExecutorService executor;
+    private final CafeEventBus eventBus = new CafeEventBus(1024);
+    private final MenuController menu;
+    private final OrderController orders;
+    private final List<StaffMember> roster = new ArrayList<>();
+    private final StaffDirectory staff = new StaffDirectory();
+
+    Store(String storeId, List<MenuItem> baseMenu) {
+        this.storeId = storeId;
+        this.executor = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "store-" + storeId);
+            thread.setDaemon(true);
+            return thread;
+        });
+        List<MenuItem> items = new ArrayList<>();
+        for (MenuItem base : baseMenu) {
+            items.add(new MenuItem(base));
+        }
+        this.menu = new MenuController(items);
+        this.menu.setEventBus(eventBus);
+        this.orders = new OrderController(menu);
+        this.orders.setEventBus(eventBus);
+    }
+
+    public String getStoreId() { return storeId; }
+    public CafeEventBus getEventBus() { return eventBus; }
+
+    // Runs work against this store's state on its own thread
+    public <T> CompletableFuture<T> submit(Function<Store, T> work) {
+        return CompletableFuture.supplyAsync(() -> work.apply(this), executor);
+    }
+
+    public CompletableFuture<Void> execute(Consumer<Store> work) {
+        return CompletableFuture.runAsync(() -> work.accept(this), executor);
+    }
+
+    // The accessors below must only be used from inside submit/execute
+    public MenuController getMenu() { return menu; }
+    public OrderController getOrders() { return orders; }
+    public List<StaffMember> getRoster() { return Collections.unmodifiableList(roster); }
+    public StaffDirectory getStaffDirectory() { return staff; }
+
+    // Adds the staff member to this store's roster under a store-local id
+    public StaffMember hire(StaffMember member) {
+        staff.add(member);
+        member.setEventBus(eventBus);
+        roster.add(member);
+        return member;
+    }
+
+    // Null if the staff id is not on this store's roster
+    public Shift assignShift(int staffId, LocalDate date, String shiftType) {
+        StaffMember member = staff.get(staffId);
+        if (member == null) {
+            return null;
+        }
+        if (!member.isAvailable(date)) {
+            throw new IllegalStateException(member.getName() + " is not available on " + date + ".");
+        }
+        Shift shift = new Shift(date, shiftType, member);
+        member.assignShift(shift);
+        return shift;
+    }
+
+    // Store-specific price
+    public void overridePrice(String itemName, double price) {
+        MenuItem item = find(itemName);
+        synchronized (menu) {
+            item.setPrice(price);
+            menu.menuChanged(CafeEventType.MENU_ITEM_UPDATED, item, MenuChangeLog.PRICE);
+        }
+    }
+
+    // Store-specific availability, e.g. one store running out of an item
+    public void overrideAvailability(String itemName, boolean available) {
+        MenuItem item = find(itemName);
+        synchronized (menu) {
+            item.setAvailable(available);
+            menu.menuChanged(CafeEventType.MENU_AVAILABILITY_CHANGED, item, MenuChangeLog.AVAILABLE);
+        }
+    }
+
+    private MenuItem find(String itemName) {
+        MenuItem item = menu.findMenuItemByName(itemName);
+        if (item == null) {
+            throw new IllegalArgumentException("Item not found: " + itemName);
+        }
+        return item;
+    }
+
+    // A base item added after the store opened; skipped if the store copied it when it opened
+    void addBaseItem(MenuItem base) {
+        if (menu.findMenuItemByName(base.getName()) == null) {
+            menu.addMenuItem(new MenuItem(base));
+        }
+    }
+
+    StoreSummary summarize() {
+        StoreSummary summary = new StoreSummary(storeId);
+        for (Order order : orders.getOrders()) {
+            if (order.getStatus() == OrderStatus.CANCELED) continue;
+            summary.orderCount++;
+            if (!order.isPaymentProcessed()) continue;
+            summary.revenue += order.getTotalCost();
+            for (OrderItem item : order.getItems()) {
+                summary.itemsSold.merge(item.getItemName(), (long) item.getQuantity(), Long::sum);
+            }
+        }
+        summary.staffCount = roster.size();
+        return summary;
+    }
+
+    void shutdown() {
+        executor.shutdown();
+    }
+}
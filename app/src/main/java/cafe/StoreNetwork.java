@@ -0,0 +1,65 @@
+package cafe;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+// Chain-wide view over many stores. Every store owns its copy of the menu (with its own price
+// and availability overrides), its order partition and its roster, and all access to that state runs on the store's own single-thread executor,
+// so stores never contend with each other. Cross-store reports fan out one task per store
+// and merge the partial results, which lets them scale with the number of cores.
+public class StoreNetwork {
+    private final List<MenuItem> baseMenu = new CopyOnWriteArrayList<>();
+    private final Map<String, Store> stores = new ConcurrentHashMap<>();
+
+    // Items offered by every store; stores copy them and may override price and availability.
+    // Throws IllegalArgumentException if a base item already has the name.
+    public void addBaseMenuItem(MenuItem item) {
+        synchronized (baseMenu) {
+            for (MenuItem base : baseMenu) {
+                if (base.getName().equalsIgnoreCase(item.getName())) {
+                    throw new IllegalArgumentException("Duplicate menu item: " + item.getName());
+                }
+            }
+            baseMenu.add(item);
+        }
+        for (Store store : stores.values()) {
+            store.execute(s -> s.addBaseItem(item));
+        }
+    }
+
+    public List<MenuItem> getBaseMenu() {
+        return Collections.unmodifiableList(baseMenu);
+    }
+
+    public Store openStore(String storeId) {
+        return stores.computeIfAbsent(storeId, id -> new Store(id, baseMenu));
+    }
+
+    public Store getStore(String storeId) {
+        return stores.get(storeId);
+    }
+
+    public Collection<Store> getStores() {
+        return stores.values();
+    }
+
+    public void shutdown() {
+        for (Store store : stores.values()) {
+            store.shutdown();
+        }
+    }
+
+    // Revenue per store plus chain totals and the top items across all stores
+    public NetworkReport buildReport(int topItems) {
+        List<CompletableFuture<StoreSummary>> partials = new ArrayList<>();
+        for (Store store : stores.values()) {
+            partials.add(store.submit(Store::summarize));
+        }
+        NetworkReport report = new NetworkReport();
+        for (CompletableFuture<StoreSummary> partial : partials) {
+            report.merge(partial.join());
+        }
+        report.trimTopItems(topItems);
+        return report;
+    }
+}
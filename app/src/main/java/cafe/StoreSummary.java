@@ -0,0 +1,16 @@
+package cafe;
+
+import java.util.*;
+
+// Partial result computed by one store for a network report
+class StoreSummary {
+    final String storeId;
+    int orderCount;
+    double revenue;
+    int staffCount;
+    final Map<String, Long> itemsSold = new HashMap<>();
+
+    StoreSummary(String storeId) {
+        this.storeId = storeId;
+    }
+}
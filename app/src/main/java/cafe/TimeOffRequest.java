@@ -0,0 +1,60 @@
+package cafe;
+
+import java.time.*;
+
+class TimeOffRequest {
+    private int id; // handed out by RosterStore, 0 until saved
+    private StaffMember staff;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private String reason;
+    private boolean approved = false;
+    private boolean reviewed = false;
+    private RosterStore store;
+
+    public TimeOffRequest(StaffMember staff, LocalDate start, LocalDate end, String reason) {
+        this.staff = staff;
+        this.startDate = start;
+        this.endDate = end;
+        this.reason = reason;
+    }
+
+    // Restores a saved request
+    TimeOffRequest(int id, StaffMember staff, LocalDate start, LocalDate end, String reason, boolean approved, boolean reviewed) {
+        this(staff, start, end, reason);
+        this.id = id;
+        this.approved = approved;
+        this.reviewed = reviewed;
+    }
+
+    public int getId() { return id; }
+    void setId(int id) { this.id = id; }
+    public StaffMember getStaff() { return staff; }
+    public LocalDate getStartDate() { return startDate; }
+    public LocalDate getEndDate() { return endDate; }
+    public String getReason() { return reason; }
+    public boolean isApproved() { return approved; }
+    public boolean isReviewed() { return reviewed; }
+
+    public void approve() {
+        approved = true;
+        reviewed = true;
+        if (store != null) store.requestChanged(this);
+    }
+
+    public void reject() {
+        approved = false;
+        reviewed = true;
+        if (store != null) store.requestChanged(this);
+    }
+
+    void attachTo(RosterStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public String toString() {
+        return "Request by " + staff.getName() + " from " + startDate + " to " + endDate +
+               " Reason: " + reason + " Approved: " + approved;
+    }
+}
@@ -0,0 +1,23 @@
+package cafe;
+
+import java.time.LocalDate;
+
+// A shift that lost its staff member, with the role it needs
+final class VacatedShift {
+    private final LocalDate date;
+    private final String shiftType;
+    private final int roleId;
+    private final StaffMember vacatedBy;
+
+    VacatedShift(Shift shift) {
+        this.date = shift.getDate();
+        this.shiftType = shift.getShiftType();
+        this.vacatedBy = shift.getStaff();
+        this.roleId = vacatedBy.getRoleId();
+    }
+
+    public LocalDate getDate() { return date; }
+    public String getShiftType() { return shiftType; }
+    public int getRoleId() { return roleId; }
+    public StaffMember getVacatedBy() { return vacatedBy; }
+}
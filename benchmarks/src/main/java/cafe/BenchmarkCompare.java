@@ -0,0 +1,68 @@
+package cafe;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.regex.*;
+
+// Prints the score change of every benchmark present in two JMH result files, to compare runs
+// between commits: java -cp benchmarks/target/benchmarks.jar cafe.BenchmarkCompare base.json head.json
+public class BenchmarkCompare {
+    private static final Pattern BENCHMARK = Pattern.compile("\"benchmark\"\\s*:\\s*\"([^\"]+)\"");
+    private static final Pattern PARAMS = Pattern.compile("\"params\"\\s*:\\s*\\{([^}]*)\\}");
+    private static final Pattern PARAM = Pattern.compile("\"([^\"]+)\"\\s*:\\s*\"([^\"]*)\"");
+    private static final Pattern SCORE = Pattern.compile("\"primaryMetric\"\\s*:\\s*\\{\\s*\"score\"\\s*:\\s*([-0-9.eE]+|\"NaN\")");
+    private static final Pattern UNIT = Pattern.compile("\"scoreUnit\"\\s*:\\s*\"([^\"]+)\"");
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.out.println("Usage: BenchmarkCompare base.json head.json");
+            return;
+        }
+        Map<String, Double> base = readScores(args[0]);
+        Map<String, Double> head = readScores(args[1]);
+        for (Map.Entry<String, Double> entry : head.entrySet()) {
+            Double before = base.get(entry.getKey());
+            if (before == null) {
+                System.out.printf("%-80s %12.3f (new)%n", entry.getKey(), entry.getValue());
+            } else {
+                double change = (entry.getValue() - before) / before * 100;
+                System.out.printf("%-80s %12.3f -> %12.3f (%+.1f%%)%n", entry.getKey(), before, entry.getValue(), change);
+            }
+        }
+    }
+
+    // "benchmark [params] unit" -> primary score, one per result object written by -rf json
+    static Map<String, Double> readScores(String path) throws IOException {
+        String json = new String(Files.readAllBytes(Paths.get(path)), StandardCharsets.UTF_8);
+        Map<String, Double> scores = new LinkedHashMap<>();
+        Matcher benchmark = BENCHMARK.matcher(json);
+        List<int[]> spans = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        while (benchmark.find()) {
+            spans.add(new int[]{benchmark.end(), json.length()});
+            if (spans.size() > 1) spans.get(spans.size() - 2)[1] = benchmark.start();
+            names.add(benchmark.group(1));
+        }
+        for (int i = 0; i < spans.size(); i++) {
+            String result = json.substring(spans.get(i)[0], spans.get(i)[1]);
+            StringBuilder key = new StringBuilder(names.get(i)).append(" [");
+            Matcher params = PARAMS.matcher(result);
+            if (params.find()) {
+                Matcher param = PARAM.matcher(params.group(1));
+                String separator = "";
+                while (param.find()) {
+                    key.append(separator).append(param.group(1)).append('=').append(param.group(2));
+                    separator = ",";
+                }
+            }
+            Matcher score = SCORE.matcher(result);
+            Matcher unit = UNIT.matcher(result);
+            if (!score.find() || score.group(1).startsWith("\"")) continue;
+            key.append("] ").append(unit.find() ? unit.group(1) : "");
+            scores.put(key.toString(), Double.parseDouble(score.group(1)));
+        }
+        return scores;
+    }
+}
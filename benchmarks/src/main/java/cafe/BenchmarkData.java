@@ -0,0 +1,121 @@
+package cafe;
+
+import java.time.*;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+
+// Synthetic menus, orders and rosters sized for the benchmarks
+class BenchmarkData {
+    static final LocalDate ROSTER_START = LocalDate.of(2026, 1, 5);
+    private static final String[] CATEGORIES = {"Fast Food", "Vegetarian", "Salad", "Sides", "Drinks"};
+    private static final String[] INGREDIENTS = {"Beef, Bun, Lettuce", "Lettuce, Tomato, Wrap",
+            "Lettuce, Tomato, Cucumber", "Potato, Salt", "Chicken, Bread Crumbs"};
+    private static final String[] SHIFT_TYPES = {"Morning", "Evening", "Night"};
+
+    static MenuController menu(int size) {
+        List<MenuItem> items = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            items.add(new MenuItem("Item " + i, 1 + (i % 20) * 0.5,
+                    CATEGORIES[i % CATEGORIES.length], INGREDIENTS[i % INGREDIENTS.length], i % 7 != 0));
+        }
+        return new MenuController(items);
+    }
+
+    static Map<String, Integer> basket() {
+        Map<String, Integer> basket = new LinkedHashMap<>();
+        basket.put("Item 1", 2);
+        basket.put("Item 2", 1);
+        basket.put("Item 3", 1);
+        return basket;
+    }
+
+    // Kiosk-style baskets: the standard basket plus a repeated line in a different case
+    static OrderBatch batch(int orders) {
+        OrderBatch batch = new OrderBatch();
+        for (int i = 0; i < orders; i++) {
+            batch.addOrder();
+            for (Map.Entry<String, Integer> line : basket().entrySet()) {
+                batch.addLine(line.getKey(), line.getValue());
+            }
+            batch.addLine("item 1", 1);
+        }
+        return batch;
+    }
+
+    // Stores on the benchmark menu, each filled with paid orders on its own executor
+    static StoreNetwork network(int stores, int ordersPerStore) {
+        StoreNetwork network = new StoreNetwork();
+        for (MenuItem item : menu(100).getMenuItems()) {
+            network.addBaseMenuItem(item);
+        }
+        Map<String, Integer> basket = basket();
+        List<CompletableFuture<Void>> filled = new ArrayList<>();
+        for (int s = 0; s < stores; s++) {
+            filled.add(network.openStore("store-" + s).execute(store -> {
+                for (int i = 0; i < ordersPerStore; i++) {
+                    Order order = store.getOrders().placeOrder(basket);
+                    store.getOrders().processPayment(order.getOrderId());
+                }
+            }));
+        }
+        filled.forEach(CompletableFuture::join);
+        return network;
+    }
+
+    // Paid and canceled orders of one to four lines, spread over the last 30 days
+    static List<Order> closedOrders(int count) {
+        MenuController menu = menu(100);
+        Random random = new Random(42);
+        long now = System.currentTimeMillis();
+        List<Order> orders = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Order order = new Order(i + 1, new Date(now - random.nextInt(30 * 24 * 60) * 60_000L));
+            int lines = 1 + random.nextInt(4);
+            for (int l = 0; l < lines; l++) {
+                MenuItem item = menu.getMenuItems().get(random.nextInt(100));
+                order.getItems().add(new OrderItem(item, 1 + random.nextInt(3), item.getPrice()));
+            }
+            if (i % 10 == 0) order.getSpecialRequests().add("no onions");
+            order.updateTotalCost();
+            if (i % 20 == 0) {
+                order.setStatus(OrderStatus.CANCELED);
+            } else {
+                order.setStatus(OrderStatus.COMPLETED);
+                order.setPaymentProcessed(true);
+            }
+            orders.add(order);
+        }
+        return orders;
+    }
+
+    static OrderController orders(int count) {
+        OrderController controller = new OrderController(menu(100));
+        Map<String, Integer> basket = basket();
+        for (int i = 0; i < count; i++) {
+            controller.placeOrder(basket);
+        }
+        return controller;
+    }
+
+    // Staff with roughly four weeks of shifts and a few days off each
+    static List<StaffMember> roster(int size) {
+        Random random = new Random(42);
+        List<StaffMember> roster = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            StaffMember staff = new StaffMember("Staff " + i, i % 5 == 0 ? "Manager" : "Crew");
+            List<LocalDate> unavailable = new ArrayList<>();
+            for (int d = 0; d < 28; d++) {
+                LocalDate date = ROSTER_START.plusDays(d);
+                int roll = random.nextInt(10);
+                if (roll < 5) {
+                    staff.assignShift(new Shift(date, SHIFT_TYPES[roll % 3], staff));
+                } else if (roll == 9) {
+                    unavailable.add(date);
+                }
+            }
+            staff.setUnavailableDates(unavailable);
+            roster.add(staff);
+        }
+        return roster;
+    }
+}
@@ -0,0 +1,58 @@
+package cafe;
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+// JMH benchmarks for the hot paths of the menu, order and scheduling modules; these classes and
+// BenchmarkData make up the benchmarks module. Build and run with
+//   mvn -B package && java -jar benchmarks/target/benchmarks.jar -rf json -rff bench-results.json
+// (sizes are @Params, e.g. -p menuSize=100,10000), then compare two runs with BenchmarkCompare.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MenuBenchmarks {
+    @Param({"100", "10000"})
+    int menuSize;
+
+    private MenuController menu;
+    private String lastName;
+    private String path;
+
+    @Setup
+    public void setUp() throws IOException {
+        menu = BenchmarkData.menu(menuSize);
+        lastName = menu.getMenuItems().get(menuSize - 1).getName();
+        File file = File.createTempFile("cafe-menu", ".csv");
+        file.deleteOnExit();
+        path = file.getPath();
+        menu.exportMenuToFile(path);
+    }
+
+    @Benchmark
+    public MenuItem findMenuItemByName() {
+        return menu.findMenuItemByName(lastName);
+    }
+
+    @Benchmark
+    public List<MenuItem> filterMenu() {
+        return menu.filterMenu("lettuce");
+    }
+
+    @Benchmark
+    public String exportMenuToFile() throws IOException {
+        menu.exportMenuToFile(path);
+        return path;
+    }
+
+    @Benchmark
+    public MenuController importMenuFromFile() throws IOException {
+        MenuController target = new MenuController();
+        target.importMenuFromFile(path);
+        return target;
+    }
+}
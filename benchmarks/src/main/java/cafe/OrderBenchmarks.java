@@ -0,0 +1,80 @@
+package cafe;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+// Order flows against a store of the given size. Placing grows the store and an order can only
+// be paid once, so those flows run as timed batches of BATCH orders against a store rebuilt
+// before every iteration; their scores are per order.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderBenchmarks {
+    static final int BATCH = 1000;
+    static final int ORDER_BATCH_SIZE = 50;
+
+    @Param({"100", "10000"})
+    int orders;
+
+    private OrderController controller;
+    private OrderController fresh;
+    private Map<String, Integer> basket;
+    private OrderBatch batch;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        controller = BenchmarkData.orders(orders);
+        basket = BenchmarkData.basket();
+        batch = BenchmarkData.batch(ORDER_BATCH_SIZE);
+    }
+
+    // Holds BATCH unpaid orders beyond the store size, for the payment batch
+    @Setup(Level.Iteration)
+    public void freshStore() {
+        fresh = BenchmarkData.orders(orders + BATCH);
+        cursor = 0;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 5, batchSize = BATCH)
+    @Measurement(iterations = 10, batchSize = BATCH)
+    @OperationsPerInvocation(BATCH)
+    public Order placeOrder() {
+        return fresh.placeOrder(basket);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 5, batchSize = BATCH / ORDER_BATCH_SIZE)
+    @Measurement(iterations = 10, batchSize = BATCH / ORDER_BATCH_SIZE)
+    @OperationsPerInvocation(BATCH)
+    public OrderBatchResult placeOrders() {
+        return fresh.placeOrders(batch);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 5, batchSize = BATCH)
+    @Measurement(iterations = 10, batchSize = BATCH)
+    @OperationsPerInvocation(BATCH)
+    public boolean processPayment() {
+        return fresh.processPayment(orders + 1 + cursor++);
+    }
+
+    @Benchmark
+    public boolean modifyOrder() {
+        int id = 1 + (cursor++ % orders);
+        return controller.modifyOrder(id, "Item 1", 1 + (cursor & 3));
+    }
+
+    @Benchmark
+    public String generateDailyReport() {
+        return controller.buildDailyReport();
+    }
+}
@@ -0,0 +1,51 @@
+package cafe;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+// Availability checks, conflict detection and payroll over a roster of the given size
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StaffBenchmarks {
+    @Param({"50", "2000"})
+    int staff;
+
+    private List<StaffMember> roster;
+    private PayrollEngine payroll;
+    private int cursor;
+
+    @Setup
+    public void setUp() {
+        roster = BenchmarkData.roster(staff);
+        StaffSchedulingSystem.loadRoster(roster);
+        payroll = new PayrollEngine();
+    }
+
+    @TearDown
+    public void tearDown() {
+        StaffSchedulingSystem.loadRoster(Collections.emptyList());
+    }
+
+    @Benchmark
+    public boolean isAvailable() {
+        int i = cursor++;
+        return roster.get(i % staff).isAvailable(BenchmarkData.ROSTER_START.plusDays(i % 28));
+    }
+
+    @Benchmark
+    public List<String> detectScheduleConflicts() {
+        return StaffSchedulingSystem.findScheduleConflicts();
+    }
+
+    @Benchmark
+    public PayrollReport payroll() {
+        LocalDate start = BenchmarkData.ROSTER_START;
+        return payroll.run(roster, start, start.plusDays(27), 0);
+    }
+}
@@ -0,0 +1,95 @@
+package cafe;
+
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+// Heap List<Order> against OffHeapOrderStore: appending closed orders (batches of APPEND_BATCH
+// into a store rebuilt every iteration, scores per order) and scanning them for revenue.
+// Run with -prof gc to see the collector activity each one causes.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StorageBenchmarks {
+    static final int APPEND_BATCH = 10_000;
+
+    @Param({"100000"})
+    int orders;
+
+    private List<Order> closed;
+    private MenuController menu;
+    private OffHeapOrderStore offHeap;
+    private List<Order> heapTarget;
+    private OffHeapOrderStore offHeapTarget;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        closed = BenchmarkData.closedOrders(orders);
+        menu = BenchmarkData.menu(100);
+        offHeap = new OffHeapOrderStore(menu::findMenuItemByName, ZoneId.systemDefault());
+        offHeap.archive(closed);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        offHeap.close();
+    }
+
+    @Setup(Level.Iteration)
+    public void freshTargets() {
+        heapTarget = new ArrayList<>();
+        offHeapTarget = new OffHeapOrderStore(menu::findMenuItemByName, ZoneId.systemDefault());
+    }
+
+    @TearDown(Level.Iteration)
+    public void closeTargets() {
+        offHeapTarget.close();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 5, batchSize = APPEND_BATCH)
+    @Measurement(iterations = 10, batchSize = APPEND_BATCH)
+    @OperationsPerInvocation(APPEND_BATCH)
+    public boolean heapAppend() {
+        return heapTarget.add(closed.get(cursor++ % orders));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 5, batchSize = APPEND_BATCH)
+    @Measurement(iterations = 10, batchSize = APPEND_BATCH)
+    @OperationsPerInvocation(APPEND_BATCH)
+    public OffHeapOrderStore offHeapAppend() {
+        offHeapTarget.append(closed.get(cursor++ % orders));
+        return offHeapTarget;
+    }
+
+    @Benchmark
+    public long heapRevenueScan() {
+        long cents = 0;
+        for (Order order : closed) {
+            if (order.isPaymentProcessed()) cents += Math.round(order.getTotalCost() * 100);
+        }
+        return cents;
+    }
+
+    @Benchmark
+    public long offHeapRevenueScan() {
+        long[] cents = {0};
+        offHeap.forEach(record -> {
+            if (record.isPaid()) cents[0] += record.getTotalCents();
+        });
+        return cents[0];
+    }
+
+    @Benchmark
+    public Order offHeapFind() {
+        return offHeap.find(1 + (cursor++ % orders));
+    }
+}
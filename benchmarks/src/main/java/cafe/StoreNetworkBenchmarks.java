@@ -0,0 +1,47 @@
+package cafe;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+// Network report over many stores, each holding ordersPerStore paid orders: the fan-out across
+// the stores' executors against the same orders kept by a single store.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StoreNetworkBenchmarks {
+    static final int TOP_ITEMS = 10;
+
+    @Param({"1", "8", "32"})
+    int stores;
+
+    @Param({"1000"})
+    int ordersPerStore;
+
+    private StoreNetwork network;
+    private StoreNetwork singleStore;
+
+    @Setup
+    public void setUp() {
+        network = BenchmarkData.network(stores, ordersPerStore);
+        singleStore = BenchmarkData.network(1, stores * ordersPerStore);
+    }
+
+    @TearDown
+    public void tearDown() {
+        network.shutdown();
+        singleStore.shutdown();
+    }
+
+    @Benchmark
+    public NetworkReport buildReport() {
+        return network.buildReport(TOP_ITEMS);
+    }
+
+    @Benchmark
+    public NetworkReport buildReportSingleStore() {
+        return singleStore.buildReport(TOP_ITEMS);
+    }
+}